@@ -0,0 +1,66 @@
+package de.microtema.maven.plugin.github.workflow;
+
+import de.microtema.maven.plugin.github.workflow.template.TemplateRegistry;
+import org.apache.commons.collections4.CollectionUtils;
+import org.apache.maven.plugins.annotations.LifecyclePhase;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+import org.apache.maven.project.MavenProject;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static de.microtema.maven.plugin.github.workflow.PipelineGeneratorUtil.logMessage;
+
+/**
+ * Runs once per reactor and generates the workflows for every git root among the reactor projects,
+ * instead of running the generate goal for each module only to skip the non git root ones.
+ * <p>
+ * The template registry and the project layouts of the reactor projects are shared by all git roots.
+ */
+@Mojo(name = "aggregate", aggregator = true, defaultPhase = LifecyclePhase.COMPILE)
+public class AggregatePipelineGeneratorMojo extends PipelineGeneratorMojo {
+
+    @Parameter(defaultValue = "${reactorProjects}", required = true, readonly = true)
+    List<MavenProject> reactorProjects;
+
+    public void execute() {
+
+        List<MavenProject> gitRootProjects = getGitRootProjects();
+
+        logMessage("Generate Github Workflows for " + gitRootProjects.size() + " of " + CollectionUtils.size(reactorProjects) + " reactor projects");
+
+        for (MavenProject gitRootProject : gitRootProjects) {
+            createMojo(gitRootProject).execute();
+        }
+
+        if (getLog().isDebugEnabled()) {
+            getLog().debug(TemplateRegistry.getInstance().getReport());
+        }
+    }
+
+    List<MavenProject> getGitRootProjects() {
+
+        return CollectionUtils.emptyIfNull(reactorProjects)
+                .stream()
+                .filter(PipelineGeneratorUtil::isGitRepo)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * The generation adds default variables, so every git root gets its own copy of the parameters.
+     *
+     * @param gitRootProject may not be null
+     * @return PipelineGeneratorMojo
+     */
+    PipelineGeneratorMojo createMojo(MavenProject gitRootProject) {
+
+        PipelineGeneratorMojo mojo = new PipelineGeneratorMojo();
+
+        copyParameters(mojo);
+
+        mojo.project = gitRootProject;
+
+        return mojo;
+    }
+}
@@ -0,0 +1,278 @@
+package de.microtema.maven.plugin.github.workflow;
+
+import de.microtema.maven.plugin.github.workflow.template.TemplateRegistry;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.math.NumberUtils;
+import org.apache.maven.model.Model;
+import org.apache.maven.model.Plugin;
+import org.apache.maven.model.building.DefaultModelBuilderFactory;
+import org.apache.maven.model.building.DefaultModelBuildingRequest;
+import org.apache.maven.model.building.ModelBuildingRequest;
+import org.apache.maven.plugin.AbstractMojo;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+import org.apache.maven.project.MavenProject;
+import org.codehaus.plexus.util.xml.Xpp3Dom;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static de.microtema.maven.plugin.github.workflow.PipelineGeneratorUtil.logMessage;
+
+/**
+ * Generates the workflows of many checked out repositories within one JVM, e.g. after a template change.
+ * <p>
+ * The repositories are the sub folders of repositories-dir with a pom.xml, or the folders listed in
+ * repositories-file (one per line, # for comments). The plugin configuration of each pom is applied to
+ * its own PipelineGeneratorMojo, all of them share the template registry and run on one work queue.
+ * <p>
+ * Each pom is read with its effective model, so properties, plugins and plugin configuration of the parent poms are
+ * inherited and interpolated as in a maven build. A parent pom is taken from its relative path, else from the local
+ * repository; a repository with a parent pom in neither place fails, as nothing is downloaded.
+ */
+@Mojo(name = "batch", requiresProject = false)
+public class BatchPipelineGeneratorMojo extends AbstractMojo {
+
+    static final String PLUGIN_ARTIFACT_ID = "github-workflows-maven-plugin";
+
+    @Parameter(property = "repositories-dir")
+    File repositoriesDir;
+
+    @Parameter(property = "repositories-file")
+    File repositoriesFile;
+
+    @Parameter(property = "batch-threads")
+    int batchThreads;
+
+    @Parameter(property = "force")
+    boolean force;
+
+    @Parameter(defaultValue = "${plugin.version}", readonly = true)
+    String pluginVersion;
+
+    @Parameter(defaultValue = "${settings.localRepository}", readonly = true)
+    File localRepository;
+
+    public void execute() {
+
+        List<File> repositories = getRepositories();
+
+        List<BatchResult> results = Collections.synchronizedList(new ArrayList<>());
+
+        List<Runnable> tasks = repositories.stream()
+                .map(it -> (Runnable) () -> results.add(generateWorkflows(it)))
+                .collect(Collectors.toList());
+
+        WorkflowRenderExecutor.invokeAll(tasks, batchThreads);
+
+        List<BatchResult> failures = results.stream().filter(it -> Objects.nonNull(it.error)).collect(Collectors.toList());
+
+        logMessage(getReport(results));
+
+        if (getLog().isDebugEnabled()) {
+            getLog().debug(TemplateRegistry.getInstance().getReport());
+        }
+
+        if (!failures.isEmpty()) {
+            throw new IllegalStateException(failures.size() + " of " + results.size() + " repositories failed: "
+                    + failures.stream().map(it -> it.repository.getName()).collect(Collectors.joining(", ")));
+        }
+    }
+
+    List<File> getRepositories() {
+
+        List<File> repositories = new ArrayList<>();
+
+        if (Objects.nonNull(repositoriesDir)) {
+
+            File[] dirs = repositoriesDir.listFiles(it -> new File(it, "pom.xml").isFile());
+
+            Stream.of(Optional.ofNullable(dirs).orElseGet(() -> new File[0]))
+                    .sorted(Comparator.comparing(File::getName))
+                    .forEach(repositories::add);
+        }
+
+        if (Objects.nonNull(repositoriesFile)) {
+
+            try {
+                Files.readAllLines(repositoriesFile.toPath(), StandardCharsets.UTF_8).stream()
+                        .map(StringUtils::trim)
+                        .filter(StringUtils::isNotEmpty)
+                        .filter(it -> !it.startsWith("#"))
+                        .map(File::new)
+                        .forEach(repositories::add);
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        if (repositories.isEmpty()) {
+            throw new IllegalStateException("No repositories found, please set repositories-dir or repositories-file!");
+        }
+
+        return repositories;
+    }
+
+    BatchResult generateWorkflows(File repository) {
+
+        long start = System.currentTimeMillis();
+
+        try {
+            createMojo(readProject(new File(repository, "pom.xml"), localRepository)).execute();
+
+            return new BatchResult(repository, System.currentTimeMillis() - start, null);
+        } catch (Exception e) {
+            return new BatchResult(repository, System.currentTimeMillis() - start, e);
+        }
+    }
+
+    PipelineGeneratorMojo createMojo(MavenProject project) {
+
+        PipelineGeneratorMojo mojo = new PipelineGeneratorMojo();
+
+        mojo.setLog(getLog());
+        mojo.project = project;
+        mojo.force = force;
+        mojo.pluginVersion = pluginVersion;
+        // the repositories are already processed in parallel
+        mojo.renderThreads = 1;
+
+        Xpp3Dom configuration = getPluginConfiguration(project.getModel());
+
+        if (Objects.isNull(configuration)) {
+            return mojo;
+        }
+
+        mojo.variables.putAll(getMap(configuration, "variables"));
+        mojo.stages.putAll(getMap(configuration, "stages"));
+        mojo.downStreams.putAll(getMap(configuration, "downStreams"));
+        mojo.runsOn = getValue(configuration, "runsOn");
+        mojo.runnerLabels.putAll(getMap(configuration, "runnerLabels"));
+        mojo.jobRunnerClasses.putAll(getMap(configuration, "jobRunnerClasses"));
+        mojo.generateRollback = Boolean.parseBoolean(getValue(configuration, "generateRollback"));
+        mojo.undeploy = Boolean.parseBoolean(getValue(configuration, "undeploy"));
+        mojo.optimizeNeeds = Boolean.parseBoolean(getValue(configuration, "optimizeNeeds"));
+        mojo.jobDurations.putAll(getMap(configuration, "jobDurations"));
+        mojo.unitTestShards = NumberUtils.toInt(getValue(configuration, "unitTestShards"));
+        mojo.systemTestMatrix = Boolean.parseBoolean(getValue(configuration, "systemTestMatrix"));
+        mojo.systemTestMaxParallel = NumberUtils.toInt(getValue(configuration, "systemTestMaxParallel"));
+        mojo.systemTestFailFast = Boolean.parseBoolean(getValue(configuration, "systemTestFailFast"));
+        mojo.compileOnce = Boolean.parseBoolean(getValue(configuration, "compileOnce"));
+        mojo.changedModules = Boolean.parseBoolean(getValue(configuration, "changedModules"));
+        mojo.pathFilters = Boolean.parseBoolean(getValue(configuration, "pathFilters"));
+        mojo.dockerCache = getValue(configuration, "dockerCache");
+        mojo.concurrency = Boolean.parseBoolean(getValue(configuration, "concurrency"));
+
+        mojo.timingFile = getFile(project, configuration, "timingFile");
+        mojo.testTimings = getFile(project, configuration, "testTimings");
+
+        return mojo;
+    }
+
+    static MavenProject readProject(File pomFile, File localRepository) {
+
+        ModelBuildingRequest request = new DefaultModelBuildingRequest()
+                .setPomFile(pomFile)
+                .setValidationLevel(ModelBuildingRequest.VALIDATION_LEVEL_MINIMAL)
+                .setProcessPlugins(false)
+                .setSystemProperties(System.getProperties())
+                .setModelResolver(new LocalRepositoryModelResolver(Optional.ofNullable(localRepository)
+                        .orElseGet(() -> new File(System.getProperty("user.home"), ".m2/repository"))));
+
+        Model model;
+
+        try {
+            model = new DefaultModelBuilderFactory().newInstance().build(request).getEffectiveModel();
+        } catch (Exception e) {
+            throw new IllegalStateException("Unable to read " + pomFile, e);
+        }
+
+        MavenProject project = new MavenProject(model);
+
+        project.setFile(pomFile);
+
+        return project;
+    }
+
+    static Xpp3Dom getPluginConfiguration(Model model) {
+
+        if (Objects.isNull(model.getBuild())) {
+            return null;
+        }
+
+        List<Plugin> plugins = new ArrayList<>(model.getBuild().getPlugins());
+
+        if (Objects.nonNull(model.getBuild().getPluginManagement())) {
+            plugins.addAll(model.getBuild().getPluginManagement().getPlugins());
+        }
+
+        return plugins.stream()
+                .filter(it -> StringUtils.equals(it.getArtifactId(), PLUGIN_ARTIFACT_ID))
+                .map(it -> (Xpp3Dom) it.getConfiguration())
+                .filter(Objects::nonNull)
+                .findFirst()
+                .orElse(null);
+    }
+
+    private static Map<String, String> getMap(Xpp3Dom configuration, String name) {
+
+        Map<String, String> map = new LinkedHashMap<>();
+
+        Xpp3Dom child = configuration.getChild(name);
+
+        if (Objects.isNull(child)) {
+            return map;
+        }
+
+        for (Xpp3Dom entry : child.getChildren()) {
+            map.put(entry.getName(), StringUtils.trimToEmpty(entry.getValue()));
+        }
+
+        return map;
+    }
+
+    private static String getValue(Xpp3Dom configuration, String name) {
+
+        Xpp3Dom child = configuration.getChild(name);
+
+        return Objects.isNull(child) ? null : StringUtils.trimToNull(child.getValue());
+    }
+
+    private static File getFile(MavenProject project, Xpp3Dom configuration, String name) {
+
+        String path = getValue(configuration, name);
+
+        return Objects.isNull(path) ? null : new File(project.getBasedir(), path);
+    }
+
+    private static String getReport(List<BatchResult> results) {
+
+        StringBuilder report = new StringBuilder("Batch generation of " + results.size() + " repositories");
+
+        results.stream()
+                .sorted(Comparator.comparing(it -> it.repository.getName()))
+                .forEach(it -> report.append(String.format("%n%-40s %6d ms %s", it.repository.getName(), it.duration,
+                        Objects.isNull(it.error) ? "OK" : "FAILED: " + it.error.getMessage())));
+
+        return report.toString();
+    }
+
+    static class BatchResult {
+
+        final File repository;
+
+        final long duration;
+
+        final Exception error;
+
+        BatchResult(File repository, long duration, Exception error) {
+            this.repository = repository;
+            this.duration = duration;
+            this.error = error;
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package de.microtema.maven.plugin.github.workflow;
+
+import de.microtema.maven.plugin.github.workflow.model.WorkflowEstimate;
+import de.microtema.maven.plugin.github.workflow.model.WorkflowEstimator;
+import de.microtema.maven.plugin.github.workflow.model.WorkflowGraph;
+import de.microtema.maven.plugin.github.workflow.project.ProjectLayout;
+import org.apache.maven.plugins.annotations.LifecyclePhase;
+import org.apache.maven.plugins.annotations.Mojo;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static de.microtema.maven.plugin.github.workflow.PipelineGeneratorUtil.logMessage;
+
+/**
+ * Renders the workflows like the generate goal, but in memory only, and prints for each workflow file its
+ * critical path, the runner minutes and the max concurrency, based on the job durations and the timing file.
+ * Nothing is written to the workflows directory.
+ */
+@Mojo(name = "estimate", defaultPhase = LifecyclePhase.COMPILE)
+public class EstimatePipelineGeneratorMojo extends PipelineGeneratorMojo {
+
+    public void execute() {
+
+        ProjectLayout.refresh(project);
+
+        try {
+            getEstimates().forEach(it -> logMessage(it.toString()));
+        } finally {
+            ProjectLayout.release(project);
+        }
+    }
+
+    List<WorkflowEstimate> getEstimates() {
+
+        WorkflowEstimator workflowEstimator = new WorkflowEstimator(getJobDurations());
+
+        List<WorkflowEstimate> estimates = new ArrayList<>();
+
+        for (Map.Entry<String, WorkflowGraph> entry : getWorkflowGraphs().entrySet()) {
+            estimates.add(workflowEstimator.estimate(entry.getKey(), entry.getValue()));
+        }
+
+        return estimates;
+    }
+}
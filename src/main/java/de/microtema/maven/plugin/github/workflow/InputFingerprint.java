@@ -0,0 +1,146 @@
+package de.microtema.maven.plugin.github.workflow;
+
+import org.apache.commons.lang3.StringUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+
+/**
+ * Fingerprint over everything the generated workflows depend on, i.e. pom properties, mojo parameters,
+ * project layout, .github/env files and the plugin version.
+ * <p>
+ * The name, size and modification time of the generated workflow files are part of the fingerprint as well,
+ * so deleted or edited workflow files are generated again.
+ */
+public class InputFingerprint {
+
+    private static final String HASH_ALGORITHM = "SHA-256";
+
+    private final StringBuilder inputs = new StringBuilder();
+
+    public InputFingerprint add(String name, Object value) {
+
+        inputs.append(name).append('=').append(toCanonicalString(value)).append('\n');
+
+        return this;
+    }
+
+    /**
+     * Add the content hash of a file, e.g. a module pom.xml whose build plugins a template decision reads.
+     *
+     * @param name may not be null
+     * @param file may not be null, a missing file counts as empty
+     * @return this
+     */
+    public InputFingerprint addFile(String name, File file) {
+
+        if (!file.isFile()) {
+            return add(name, StringUtils.EMPTY);
+        }
+
+        try {
+            return add(name, getHash(new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8)));
+        } catch (IOException e) {
+            throw new IllegalStateException("Unable to read " + file, e);
+        }
+    }
+
+    /**
+     * @param workflowsDir            may not be null
+     * @param workflowFilePostFixName may not be null
+     * @return hex encoded SHA-256 of the inputs and the current workflow files
+     */
+    public String getValue(File workflowsDir, String workflowFilePostFixName) {
+
+        StringBuilder content = new StringBuilder(inputs);
+
+        File[] files = workflowsDir.listFiles((dir, name) -> StringUtils.contains(name, workflowFilePostFixName));
+
+        Arrays.stream(Optional.ofNullable(files).orElseGet(() -> new File[0]))
+                .sorted(Comparator.comparing(File::getName))
+                .forEach(it -> content.append("workflow=").append(it.getName()).append(':').append(it.length()).append(':').append(it.lastModified()).append('\n'));
+
+        return getHash(content.toString());
+    }
+
+    /**
+     * @param fingerprintFile         may not be null
+     * @param workflowsDir            may not be null
+     * @param workflowFilePostFixName may not be null
+     * @return true if the stored fingerprint equals the current one
+     */
+    public boolean matches(File fingerprintFile, File workflowsDir, String workflowFilePostFixName) {
+
+        if (!fingerprintFile.isFile()) {
+            return false;
+        }
+
+        try {
+            String storedValue = new String(Files.readAllBytes(fingerprintFile.toPath()), StandardCharsets.UTF_8).trim();
+
+            return StringUtils.equals(storedValue, getValue(workflowsDir, workflowFilePostFixName));
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    public void store(File fingerprintFile, File workflowsDir, String workflowFilePostFixName) {
+
+        File parentDir = fingerprintFile.getParentFile();
+
+        if (Objects.nonNull(parentDir) && !parentDir.exists() && !parentDir.mkdirs()) {
+            throw new IllegalStateException("Unable to create " + parentDir);
+        }
+
+        try {
+            Files.write(fingerprintFile.toPath(), getValue(workflowsDir, workflowFilePostFixName).getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String toCanonicalString(Object value) {
+
+        if (value instanceof Map) {
+
+            Map<String, String> sortedMap = new TreeMap<>();
+
+            ((Map<?, ?>) value).forEach((key, entry) -> sortedMap.put(String.valueOf(key), toCanonicalString(entry)));
+
+            return sortedMap.toString();
+        }
+
+        if (value instanceof Set) {
+
+            Set<String> sortedSet = new TreeSet<>();
+
+            ((Set<?>) value).forEach(it -> sortedSet.add(toCanonicalString(it)));
+
+            return sortedSet.toString();
+        }
+
+        return String.valueOf(value);
+    }
+
+    private static String getHash(String content) {
+
+        try {
+            byte[] hash = MessageDigest.getInstance(HASH_ALGORITHM).digest(content.getBytes(StandardCharsets.UTF_8));
+
+            StringBuilder hex = new StringBuilder();
+
+            for (byte b : hash) {
+                hex.append(String.format("%02x", b));
+            }
+
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package de.microtema.maven.plugin.github.workflow;
+
+import org.apache.maven.model.Parent;
+import org.apache.maven.model.Repository;
+import org.apache.maven.model.building.FileModelSource;
+import org.apache.maven.model.building.ModelSource;
+import org.apache.maven.model.resolution.ModelResolver;
+import org.apache.maven.model.resolution.UnresolvableModelException;
+
+import java.io.File;
+
+/**
+ * Resolves the parent poms of the batch repositories which are not checked out next to them from the local
+ * repository only, the batch goal does not download anything. A parent which is missing there fails the repository,
+ * e.g. after a fresh clone, until one maven build of the repository has downloaded it.
+ */
+class LocalRepositoryModelResolver implements ModelResolver {
+
+    private final File localRepository;
+
+    LocalRepositoryModelResolver(File localRepository) {
+        this.localRepository = localRepository;
+    }
+
+    @Override
+    public ModelSource resolveModel(String groupId, String artifactId, String version) throws UnresolvableModelException {
+
+        File pomFile = new File(localRepository, groupId.replace('.', '/') + "/" + artifactId + "/" + version + "/" + artifactId + "-" + version + ".pom");
+
+        if (!pomFile.isFile()) {
+            throw new UnresolvableModelException("Parent pom is neither at its relative path nor in the local repository " + localRepository, groupId, artifactId, version);
+        }
+
+        return new FileModelSource(pomFile);
+    }
+
+    @Override
+    public ModelSource resolveModel(Parent parent) throws UnresolvableModelException {
+
+        return resolveModel(parent.getGroupId(), parent.getArtifactId(), parent.getVersion());
+    }
+
+    @Override
+    public void addRepository(Repository repository) {
+        // only the local repository is used
+    }
+
+    @Override
+    public void addRepository(Repository repository, boolean replace) {
+        // only the local repository is used
+    }
+
+    @Override
+    public ModelResolver newCopy() {
+        return this;
+    }
+}
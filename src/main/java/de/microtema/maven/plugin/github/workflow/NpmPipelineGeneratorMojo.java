@@ -1,27 +1,24 @@
 package de.microtema.maven.plugin.github.workflow;
 
-import de.microtema.maven.plugin.github.workflow.job.TemplateStageService;
 import de.microtema.maven.plugin.github.workflow.job.npm.*;
 import de.microtema.maven.plugin.github.workflow.model.MetaData;
+import de.microtema.maven.plugin.github.workflow.model.WorkflowGraph;
+import de.microtema.maven.plugin.github.workflow.template.TemplateRenderer;
+import de.microtema.maven.plugin.github.workflow.template.VariableContext;
 import de.microtema.model.converter.util.ClassUtil;
 
-import java.io.File;
-import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Objects;
-import java.util.stream.Collectors;
+import java.util.Map;
 
 import static de.microtema.maven.plugin.github.workflow.PipelineGeneratorUtil.*;
 
 public class NpmPipelineGeneratorMojo extends PipelineGeneratorMojo {
 
     public NpmPipelineGeneratorMojo(PipelineGeneratorMojo mojo) {
-        this.project = mojo.project;
-        this.downStreams = mojo.downStreams;
-        this.stages = mojo.stages;
-        this.variables = mojo.variables;
-        this.githubWorkflowsDir = mojo.githubWorkflowsDir;
-        this.runsOn = mojo.runsOn;
+        mojo.copyParameters(this);
         this.appName = mojo.getAppDisplayName();
     }
 
@@ -29,17 +26,37 @@ public class NpmPipelineGeneratorMojo extends PipelineGeneratorMojo {
 
         injectTemplateStageServices();
 
-        File rootDir = getOrCreateWorkflowsDir();
+        workflowWriter = new WorkflowWriter(getOrCreateWorkflowsDir(), workflowFilePostFixName);
 
-        cleanupWorkflows(rootDir);
+        applyDefaultVariables();
+
+        List<MetaData> workflows = getWorkflowFiles(project, stages, downStreams);
+
+        List<Runnable> tasks = new ArrayList<>();
+
+        for (MetaData metaData : workflows) {
+            tasks.add(() -> executeImpl(metaData, workflows));
+        }
+
+        renderWorkflows(tasks);
+    }
+
+    @Override
+    Map<String, WorkflowGraph> getWorkflowGraphs() {
+
+        injectTemplateStageServices();
 
         applyDefaultVariables();
 
         List<MetaData> workflows = getWorkflowFiles(project, stages, downStreams);
 
+        Map<String, WorkflowGraph> workflowGraphs = new LinkedHashMap<>();
+
         for (MetaData metaData : workflows) {
-            executeImpl(metaData, workflows);
+            workflowGraphs.put(getWorkflowFileName(metaData, workflows), getWorkflowGraph(metaData, templateStageServices));
         }
+
+        return workflowGraphs;
     }
 
     void injectTemplateStageServices() {
@@ -83,10 +100,6 @@ public class NpmPipelineGeneratorMojo extends PipelineGeneratorMojo {
 
     void executeImpl(MetaData metaData, List<MetaData> workflows) {
 
-        String rootPath = PipelineGeneratorUtil.getRootPath(project);
-
-        File dir = new File(rootPath, githubWorkflowsDir);
-
         String version = project.getVersion();
 
         switch (metaData.getBranchName()) {
@@ -106,40 +119,27 @@ public class NpmPipelineGeneratorMojo extends PipelineGeneratorMojo {
                 break;
         }
 
-        defaultVariables.put("VERSION", version);
-
-        String pipeline = PipelineGeneratorUtil.getTemplate("pipeline");
-
-        pipeline = pipeline
-                .replace("%PIPELINE_NAME%", getPipelineName(project, metaData, appName))
-                .replace("%VERSION%", version)
-                .replace("%BRANCH_NAME%", metaData.getBranchPattern())
-                .replace("  %ENV%", getVariablesTemplate(defaultVariables))
-                .replace("  %JOBS%", getStagesTemplate(metaData, templateStageServices));
-
         String workflowFileName = getWorkflowFileName(metaData, workflows);
 
-        File githubWorkflow = new File(dir, workflowFileName);
-
         logMessage("Generate Github Workflows Pipeline for " + appName + " -> " + workflowFileName);
 
-        pipeline = pipeline.replaceAll("%RUNS_ON%", String.join(", ", runsOn));
+        WorkflowGraph workflowGraph = getWorkflowGraph(metaData, templateStageServices);
 
-        pipeline = PipelineGeneratorUtil.removeEmptyLines(pipeline);
+        TemplateRenderer templateRenderer = PipelineGeneratorUtil.getTemplateRenderer("pipeline")
+                .with("PIPELINE_NAME", getPipelineName(project, metaData, appName))
+                .with("VERSION", version)
+                .with("BRANCH_NAME", metaData.getBranchPattern())
+                .with("PUSH_PATHS", getPushPaths())
+                .with("CONCURRENCY", getConcurrency(metaData, workflowGraph))
+                .with("ENV", getVariablesTemplate(getWorkflowVariables(version)))
+                .with("JOBS", workflowGraph.toFragment(2));
 
-        try (PrintWriter out = new PrintWriter(githubWorkflow)) {
-            out.println(pipeline);
-        } catch (Exception e) {
-            throw new IllegalStateException(e);
-        }
+        writeWorkflow(workflowFileName, false, templateRenderer);
     }
 
-    String getStagesTemplate(MetaData metaData, List<TemplateStageService> templateStageServices) {
+    @Override
+    public VariableContext getWorkflowContext(MetaData metaData) {
 
-        return templateStageServices.stream()
-                .map(it -> it.getTemplate(this, metaData))
-                .filter(Objects::nonNull)
-                .map(it -> PipelineGeneratorUtil.trimEmptyLines(it, 2))
-                .collect(Collectors.joining("\n\n"));
+        return VariableContext.of(Collections.singletonMap("RUNS_ON", runsOn));
     }
 }
@@ -1,9 +1,24 @@
 package de.microtema.maven.plugin.github.workflow;
 
 import de.microtema.maven.plugin.github.workflow.job.*;
+import de.microtema.maven.plugin.github.workflow.model.JobDurations;
+import de.microtema.maven.plugin.github.workflow.model.JobRunners;
 import de.microtema.maven.plugin.github.workflow.model.MetaData;
+import de.microtema.maven.plugin.github.workflow.model.WorkflowConcurrency;
+import de.microtema.maven.plugin.github.workflow.model.WorkflowGraph;
+import de.microtema.maven.plugin.github.workflow.model.WorkflowGraphOptimizer;
+import de.microtema.maven.plugin.github.workflow.model.WorkflowPathGate;
+import de.microtema.maven.plugin.github.workflow.project.EnvironmentRegistry;
+import de.microtema.maven.plugin.github.workflow.project.ProjectLayout;
+import de.microtema.maven.plugin.github.workflow.project.TestTimings;
+import de.microtema.maven.plugin.github.workflow.template.TemplateRegistry;
+import de.microtema.maven.plugin.github.workflow.template.TemplateRenderer;
+import de.microtema.maven.plugin.github.workflow.template.VariableContext;
 import de.microtema.model.converter.util.ClassUtil;
 import org.apache.commons.lang3.StringUtils;
+import org.apache.maven.model.Build;
+import org.apache.maven.model.Dependency;
+import org.apache.maven.model.Plugin;
 import org.apache.maven.plugin.AbstractMojo;
 import org.apache.maven.plugins.annotations.LifecyclePhase;
 import org.apache.maven.plugins.annotations.Mojo;
@@ -11,7 +26,7 @@ import org.apache.maven.plugins.annotations.Parameter;
 import org.apache.maven.project.MavenProject;
 
 import java.io.File;
-import java.io.PrintWriter;
+import java.io.IOException;
 import java.util.*;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -46,26 +61,171 @@ public class PipelineGeneratorMojo extends AbstractMojo {
     @Parameter(property = "undeploy")
     boolean undeploy;
 
+    /**
+     * Number of workflow files rendered concurrently, 0 for one per available processor and 1 to render sequentially.
+     */
+    @Parameter(property = "render-threads")
+    int renderThreads;
+
+    /**
+     * Drop ordering-only needs (e.g. build waiting for the quality gate) and redundant transitive needs
+     * from the generated jobs and log the critical path before and after.
+     */
+    @Parameter(property = "optimize-needs")
+    boolean optimizeNeeds;
+
+    /**
+     * Estimated minutes by job id or job id prefix, overriding the default job durations.
+     */
+    @Parameter(property = "job-durations")
+    Map<String, String> jobDurations = new LinkedHashMap<>();
+
+    /**
+     * Runs-on labels by runner class (e.g. large, medium, small), jobs of a runner class without labels run on runs-on.
+     */
+    @Parameter(property = "runner-labels")
+    Map<String, String> runnerLabels = new LinkedHashMap<>();
+
+    /**
+     * Runner class by job id or job id prefix, overriding the default job weights.
+     */
+    @Parameter(property = "job-runner-classes")
+    Map<String, String> jobRunnerClasses = new LinkedHashMap<>();
+
+    /**
+     * Properties file with the measured minutes of past runs by job id, overriding the job durations.
+     */
+    @Parameter(property = "timing-file")
+    File timingFile;
+
+    /**
+     * Number of parallel unit test jobs, 0 or 1 for a single unit test job.
+     */
+    @Parameter(property = "unit-test-shards")
+    int unitTestShards;
+
+    /**
+     * Surefire reports folder or properties file with the seconds per test class, used to balance the unit test shards.
+     */
+    @Parameter(property = "test-timings")
+    File testTimings;
+
+    /**
+     * Render one system test job per stage which runs the regression test types as matrix.
+     */
+    @Parameter(property = "system-test-matrix")
+    boolean systemTestMatrix;
+
+    /**
+     * Max number of system test matrix jobs running at the same time against a stage, 0 for no limit.
+     */
+    @Parameter(property = "system-test-max-parallel")
+    int systemTestMaxParallel;
+
+    /**
+     * Cancel the other system test matrix jobs of a stage as soon as one fails.
+     */
+    @Parameter(property = "system-test-fail-fast")
+    boolean systemTestFailFast;
+
+    /**
+     * Compile and test-compile once in the compile job and share the target folders with the test, analysis and build jobs.
+     */
+    @Parameter(property = "compile-once")
+    boolean compileOnce;
+
+    /**
+     * Compile and unit test only the modules changed since the merge base, and the modules depending on them,
+     * on feature, bugfix and develop branches of a multi module project.
+     */
+    @Parameter(property = "changed-modules")
+    boolean changedModules;
+
+    /**
+     * Trigger the workflows only on changes of the code and deployment paths and skip the build, test and
+     * release jobs if the code paths did not change.
+     */
+    @Parameter(property = "path-filters")
+    boolean pathFilters;
+
+    /**
+     * Layer cache of the docker package jobs: registry (next to the image) or gha (github actions cache),
+     * empty for a plain docker build.
+     */
+    @Parameter(property = "docker-cache")
+    String dockerCache;
+
+    /**
+     * Cancel superseded runs of a branch and serialize the deployments of a stage by concurrency groups.
+     */
+    @Parameter(property = "concurrency")
+    boolean concurrency;
+
+    /**
+     * Generate the workflows even if the input fingerprint did not change since the last execution.
+     */
+    @Parameter(property = "force")
+    boolean force;
+
+    @Parameter(defaultValue = "${plugin.version}", readonly = true)
+    String pluginVersion;
+
+    String fingerprintFileName = "github-workflows.fingerprint";
+
     final List<TemplateStageService> templateStageServices = new ArrayList<>();
     final LinkedHashMap<String, String> defaultVariables = new LinkedHashMap<>();
 
     String appName;
 
+    WorkflowWriter workflowWriter;
+
     public void execute() {
 
-        appName = getAppDisplayName();
+        ProjectLayout.refresh(project);
 
-        runsOn = Optional.ofNullable(runsOn).orElse("ubuntu-latest");
-        runsOn = Stream.of(runsOn.split(",")).map(StringUtils::trim).collect(Collectors.joining(", "));
+        try {
+            generateChangedWorkflows();
+        } finally {
+            ProjectLayout.release(project);
+        }
+    }
 
-        // Skip maven sub modules
+    private void generateChangedWorkflows() {
+
+        // Skip maven sub modules before hashing their inputs
         if (!PipelineGeneratorUtil.isGitRepo(project)) {
 
-            logMessage("Skip maven module: " + appName + " since it is not a git repo!");
+            logMessage("Skip maven module: " + getAppDisplayName() + " since it is not a git repo!");
 
             return;
         }
 
+        InputFingerprint fingerprint = getInputFingerprint();
+
+        File fingerprintFile = getFingerprintFile();
+
+        File workflowsDir = new File(getRootPath(project), githubWorkflowsDir);
+
+        if (!force && fingerprint.matches(fingerprintFile, workflowsDir, workflowFilePostFixName)) {
+
+            logMessage("Skip " + getAppDisplayName() + " since the workflow inputs did not change!");
+
+            return;
+        }
+
+        generateWorkflows();
+
+        fingerprint.store(fingerprintFile, workflowsDir, workflowFilePostFixName);
+
+        if (getLog().isDebugEnabled()) {
+            getLog().debug(TemplateRegistry.getInstance().getReport());
+        }
+    }
+
+    void generateWorkflows() {
+
+        applyParameterDefaults();
+
         if (PipelineGeneratorUtil.isNodeJsRepo(project)) {
 
             NpmPipelineGeneratorMojo npmPipelineGeneratorMojo = new NpmPipelineGeneratorMojo(this);
@@ -86,28 +246,247 @@ public class PipelineGeneratorMojo extends AbstractMojo {
 
         injectTemplateStageServices();
 
-        File rootDir = getOrCreateWorkflowsDir();
-
-        cleanupWorkflows(rootDir);
+        workflowWriter = new WorkflowWriter(getOrCreateWorkflowsDir(), workflowFilePostFixName);
 
         applyDefaultVariables();
 
         List<MetaData> workflows = getWorkflowFiles(project, stages, downStreams);
 
+        List<Runnable> tasks = new ArrayList<>();
+
         for (MetaData metaData : workflows) {
-            executeImpl(metaData, workflows);
+            tasks.add(() -> executeImpl(metaData, workflows));
         }
 
-        if (!generateRollback) {
-            return;
+        // Generate rollback workflows
+        if (generateRollback) {
+
+            for (MetaData metaData : getRollbackWorkflowFiles()) {
+                tasks.add(() -> executeRollbackImpl(metaData));
+            }
         }
 
-        // Generate rollback workflows
-        workflows = getRollbackWorkflowFiles();
+        renderWorkflows(tasks);
+    }
+
+    /**
+     * Workflow graph of each workflow file the generate goal writes, rendered in memory only,
+     * so neither the workflows directory nor the fingerprint file is touched.
+     *
+     * @return workflow graphs by workflow file name
+     */
+    Map<String, WorkflowGraph> getWorkflowGraphs() {
+
+        applyParameterDefaults();
+
+        if (!PipelineGeneratorUtil.isGitRepo(project)) {
+            return Collections.emptyMap();
+        }
+
+        if (PipelineGeneratorUtil.isNodeJsRepo(project)) {
+            return new NpmPipelineGeneratorMojo(this).getWorkflowGraphs();
+        }
+
+        if (PipelineGeneratorUtil.isTerraformRepo(project)) {
+            return new TerraformPipelineGeneratorMojo(this).getWorkflowGraphs();
+        }
+
+        injectTemplateStageServices();
+
+        applyDefaultVariables();
+
+        List<MetaData> workflows = getWorkflowFiles(project, stages, downStreams);
+
+        Map<String, WorkflowGraph> workflowGraphs = new LinkedHashMap<>();
 
         for (MetaData metaData : workflows) {
-            executeRollbackImpl(metaData);
+            workflowGraphs.put(getWorkflowFileName(metaData, workflows), getWorkflowGraph(metaData, templateStageServices));
         }
+
+        if (generateRollback) {
+
+            for (MetaData metaData : getRollbackWorkflowFiles()) {
+                workflowGraphs.put(getRollbackWorkflowFileName(metaData), getWorkflowGraph(metaData, getRollbackStageServices()));
+            }
+        }
+
+        return workflowGraphs;
+    }
+
+    /**
+     * Copy the parameters of this mojo onto the given mojo, with its own copy of each map,
+     * since the generation adds default variables.
+     *
+     * @param mojo may not be null
+     */
+    void copyParameters(PipelineGeneratorMojo mojo) {
+
+        mojo.project = project;
+        mojo.githubWorkflowsDir = githubWorkflowsDir;
+        mojo.variables = new LinkedHashMap<>(variables);
+        mojo.stages = new LinkedHashMap<>(stages);
+        mojo.downStreams = new LinkedHashMap<>(downStreams);
+        mojo.runsOn = runsOn;
+        mojo.generateRollback = generateRollback;
+        mojo.undeploy = undeploy;
+        mojo.renderThreads = renderThreads;
+        mojo.optimizeNeeds = optimizeNeeds;
+        mojo.jobDurations = new LinkedHashMap<>(jobDurations);
+        mojo.runnerLabels = new LinkedHashMap<>(runnerLabels);
+        mojo.jobRunnerClasses = new LinkedHashMap<>(jobRunnerClasses);
+        mojo.timingFile = timingFile;
+        mojo.unitTestShards = unitTestShards;
+        mojo.testTimings = testTimings;
+        mojo.systemTestMatrix = systemTestMatrix;
+        mojo.systemTestMaxParallel = systemTestMaxParallel;
+        mojo.systemTestFailFast = systemTestFailFast;
+        mojo.compileOnce = compileOnce;
+        mojo.changedModules = changedModules;
+        mojo.pathFilters = pathFilters;
+        mojo.dockerCache = dockerCache;
+        mojo.concurrency = concurrency;
+        mojo.force = force;
+        mojo.pluginVersion = pluginVersion;
+        mojo.setLog(getLog());
+    }
+
+    void applyParameterDefaults() {
+
+        appName = getAppDisplayName();
+
+        runsOn = Optional.ofNullable(runsOn).orElse("ubuntu-latest");
+        runsOn = Stream.of(runsOn.split(",")).map(StringUtils::trim).collect(Collectors.joining(", "));
+    }
+
+    /**
+     * Each task renders and writes one workflow file, the tasks share only read-only state of this mojo.
+     * Workflow files which are not produced anymore are removed afterwards.
+     *
+     * @param tasks may not be null
+     */
+    void renderWorkflows(List<Runnable> tasks) {
+
+        WorkflowRenderExecutor.invokeAll(tasks, renderThreads);
+
+        workflowWriter.removeStaleWorkflows();
+
+        logMessage(workflowWriter.getSummary());
+    }
+
+    /**
+     * @param version may not be null
+     * @return copy of the default variables with the workflow version
+     */
+    Map<String, String> getWorkflowVariables(String version) {
+
+        Map<String, String> workflowVariables = new LinkedHashMap<>(defaultVariables);
+
+        workflowVariables.put("VERSION", version);
+
+        return workflowVariables;
+    }
+
+    /**
+     * Collect the inputs of the generated workflows, before any of them is normalized by the generation itself.
+     *
+     * @return InputFingerprint
+     */
+    InputFingerprint getInputFingerprint() {
+
+        ProjectLayout layout = ProjectLayout.of(project);
+
+        InputFingerprint fingerprint = new InputFingerprint()
+                .add("pluginVersion", pluginVersion)
+                .add("name", project.getName())
+                .add("artifactId", project.getArtifactId())
+                .add("version", project.getVersion())
+                .add("properties", getProjectProperties())
+                .add("dependencies", getProjectDependencies())
+                .add("buildPlugins", getProjectBuildPlugins())
+                .add("stages", stages)
+                .add("variables", variables)
+                .add("downStreams", downStreams)
+                .add("runsOn", runsOn)
+                .add("runnerLabels", runnerLabels)
+                .add("jobRunnerClasses", jobRunnerClasses)
+                .add("generateRollback", generateRollback)
+                .add("undeploy", undeploy)
+                .add("optimizeNeeds", optimizeNeeds)
+                .add("systemTestMatrix", systemTestMatrix)
+                .add("systemTestMaxParallel", systemTestMaxParallel)
+                .add("systemTestFailFast", systemTestFailFast)
+                .add("compileOnce", compileOnce)
+                .add("changedModules", changedModules)
+                .add("pathFilters", pathFilters)
+                .add("dockerCache", dockerCache)
+                .add("concurrency", concurrency)
+                .add("githubWorkflowsDir", githubWorkflowsDir)
+                .add("modules", layout.getModules())
+                .add("paths", layout.getPaths())
+                .add("testSources", layout.getTestSources().getTestSuffixes(StringUtils.EMPTY));
+
+        fingerprint.addFile("pom", new File(layout.getRootPath(), "pom.xml"));
+
+        for (String module : layout.getModules()) {
+            fingerprint.add("testSources." + module, layout.getTestSources().getTestSuffixes(module))
+                    .addFile("pom." + module, new File(layout.getRootPath(), module + "/pom.xml"));
+        }
+
+        if (unitTestShards > 1) {
+            fingerprint.add("unitTestShards", unitTestShards)
+                    .add("unitTestClasses", layout.getTestSources().getUnitTestClasses())
+                    .add("testTimings", getTestTimings().getTimings());
+        }
+
+        EnvironmentRegistry environments = layout.getEnvironments();
+
+        for (String stageName : environments.getStageNames()) {
+            fingerprint.add("env." + stageName, environments.findProperties(stageName));
+        }
+
+        return fingerprint;
+    }
+
+    private Map<String, String> getProjectProperties() {
+
+        Map<String, String> properties = new HashMap<>();
+
+        if (Objects.isNull(project.getProperties())) {
+            return properties;
+        }
+
+        project.getProperties().entrySet().forEach(it -> properties.put(String.valueOf(it.getKey()), String.valueOf(it.getValue())));
+
+        return properties;
+    }
+
+    private Set<String> getProjectDependencies() {
+
+        List<Dependency> dependencies = project.getDependencies();
+
+        return Optional.ofNullable(dependencies).orElseGet(Collections::emptyList).stream()
+                .map(it -> it.getGroupId() + ":" + it.getArtifactId() + ":" + it.getScope())
+                .collect(Collectors.toSet());
+    }
+
+    private Set<String> getProjectBuildPlugins() {
+
+        List<Plugin> plugins = project.getBuildPlugins();
+
+        return Optional.ofNullable(plugins).orElseGet(Collections::emptyList).stream()
+                .map(it -> it.getGroupId() + ":" + it.getArtifactId() + ":" + it.getVersion())
+                .collect(Collectors.toSet());
+    }
+
+    File getFingerprintFile() {
+
+        String buildDir = Optional.ofNullable(project.getBuild()).map(Build::getDirectory).orElse(null);
+
+        if (Objects.isNull(buildDir)) {
+            return new File(new File(getRootPath(project), "target"), fingerprintFileName);
+        }
+
+        return new File(buildDir, fingerprintFileName);
     }
 
     void injectTemplateStageServices() {
@@ -199,6 +578,10 @@ public class PipelineGeneratorMojo extends AbstractMojo {
             codePaths += " Dockerfile";
         }
 
+        if (pathFilters) {
+            codePaths += ProjectLayout.of(project).getModulePaths().stream().map(it -> " " + it + "/**").collect(Collectors.joining());
+        }
+
         if (PipelineGeneratorUtil.isMicroserviceRepo(project)) {
 
             defaultVariables.putIfAbsent("CODE_PATHS", codePaths);
@@ -208,6 +591,12 @@ public class PipelineGeneratorMojo extends AbstractMojo {
 
             defaultVariables.putIfAbsent("CODE_PATHS", "*");
         }
+
+        // the code paths of the configuration drive the path gate and the push trigger alike
+        if (StringUtils.isNotBlank(variables.get("CODE_PATHS"))) {
+
+            defaultVariables.put("CODE_PATHS", variables.get("CODE_PATHS"));
+        }
     }
 
     private String wrapSecretVariable(String variableValue) {
@@ -236,17 +625,6 @@ public class PipelineGeneratorMojo extends AbstractMojo {
         return rootDir;
     }
 
-    void cleanupWorkflows(File rootDir) {
-
-        File[] files = rootDir.listFiles((dir, name) -> StringUtils.contains(name, workflowFilePostFixName));
-
-        if (Objects.isNull(files) || files.length == 0) {
-            return;
-        }
-
-        Stream.of(files).forEach(it -> logMessage("Delete " + it.getName() + " workflow -> " + it.delete()));
-    }
-
     String getWorkflowFileName(MetaData metaData, List<MetaData> workflows) {
 
         String branchName = metaData.getBranchFullName();
@@ -289,93 +667,172 @@ public class PipelineGeneratorMojo extends AbstractMojo {
 
     void executeImpl(MetaData metaData, List<MetaData> workflows) {
 
-        String rootPath = getRootPath(project);
+        String version = getVersion(metaData.getBranchName(), project.getVersion());
+
+        String workflowFileName = getWorkflowFileName(metaData, workflows);
 
-        File dir = new File(rootPath, githubWorkflowsDir);
+        logMessage("Generate Github Workflows Pipeline for " + appName + " -> " + workflowFileName);
 
-        String version = getVersion(metaData.getBranchName(), project.getVersion());
+        WorkflowGraph workflowGraph = getWorkflowGraph(metaData, templateStageServices);
 
-        defaultVariables.put("VERSION", version);
+        TemplateRenderer templateRenderer = PipelineGeneratorUtil.getTemplateRenderer("pipeline")
+                .with("PIPELINE_NAME", getPipelineName(project, metaData, appName))
+                .with("VERSION", version)
+                .with("BRANCH_NAME", metaData.getBranchPattern())
+                .with("PUSH_PATHS", getPushPaths())
+                .with("CONCURRENCY", getConcurrency(metaData, workflowGraph))
+                .with("ENV", getVariablesTemplate(getWorkflowVariables(version)))
+                .with("JOBS", workflowGraph.toFragment(2));
 
-        String pipeline = PipelineGeneratorUtil.getTemplate("pipeline");
+        writeWorkflow(workflowFileName, PipelineGeneratorUtil.hasMavenWrapper(project), templateRenderer);
+    }
 
-        pipeline = pipeline
-                .replace("%PIPELINE_NAME%", getPipelineName(project, metaData, appName))
-                .replace("%VERSION%", version)
-                .replace("%BRANCH_NAME%", metaData.getBranchPattern())
-                .replace("  %ENV%", getVariablesTemplate(defaultVariables))
-                .replace("  %JOBS%", getStagesTemplate(metaData, templateStageServices));
+    String getRollbackWorkflowFileName(MetaData metaData) {
 
-        String workflowFileName = getWorkflowFileName(metaData, workflows);
+        return metaData.getStageName() + "-rollback" + workflowFilePostFixName;
+    }
 
-        File githubWorkflow = new File(dir, workflowFileName);
+    List<TemplateStageService> getRollbackStageServices() {
 
-        logMessage("Generate Github Workflows Pipeline for " + appName + " -> " + workflowFileName);
+        return Collections.singletonList(ClassUtil.createInstance(RollbackTemplateStageService.class));
+    }
 
-        if (PipelineGeneratorUtil.hasMavenWrapper(project)) {
-            pipeline = pipeline.replaceAll("mvn ", "./mvnw ");
-        }
+    void executeRollbackImpl(MetaData metaData) {
 
-        boolean supportVersionJob = Stream.of("develop", "feature").noneMatch(it -> StringUtils.equalsIgnoreCase(it, metaData.getBranchName()));
+        Map<String, String> templateVariables = new HashMap<>(Collections.singletonMap("APP_NAME", project.getArtifactId()));
+
+        String workflowFileName = getRollbackWorkflowFileName(metaData);
+
+        logMessage("Generate Github Workflows Pipeline for (rollback) " + appName + " -> " + workflowFileName);
 
-        pipeline = pipeline
-                .replaceAll("%RUNS_ON%", String.join(", ", runsOn))
-                .replaceAll("%POM_ARTIFACT%", "'" + supportVersionJob + "'");
+        TemplateRenderer templateRenderer = PipelineGeneratorUtil.getTemplateRenderer("pipeline-rollback")
+                .with("PIPELINE_NAME", getRollbackPipelineName(metaData.getStageName(), appName))
+                .with("ENV", getVariablesTemplate(templateVariables))
+                .with("JOBS", getWorkflowGraph(metaData, getRollbackStageServices()).toFragment(2));
 
-        pipeline = PipelineGeneratorUtil.removeEmptyLines(pipeline);
+        writeWorkflow(workflowFileName, false, templateRenderer);
+    }
 
-        try (PrintWriter out = new PrintWriter(githubWorkflow)) {
-            out.println(pipeline);
-        } catch (Exception e) {
+    /**
+     * Stream the rendered workflow through the {@link WorkflowOutput} pipeline into its file.
+     *
+     * @param workflowFileName may not be null
+     * @param mavenWrapper     true to replace mvn with ./mvnw
+     * @param templateRenderer may not be null
+     */
+    void writeWorkflow(String workflowFileName, boolean mavenWrapper, TemplateRenderer templateRenderer) {
+
+        try (WorkflowOutput out = workflowWriter.open(workflowFileName, mavenWrapper)) {
+            templateRenderer.renderTo(out);
+        } catch (IOException e) {
             throw new IllegalStateException(e);
         }
     }
 
-    void executeRollbackImpl(MetaData metaData) {
+    void executeUndeployImpl(MetaData metaData) {
 
-        String rootPath = getRootPath(project);
+    }
 
-        File dir = new File(rootPath, githubWorkflowsDir);
+    /**
+     * Workflow wide variables shared by every job template, job and stage variables take precedence.
+     *
+     * @param metaData may not be null
+     * @return VariableContext
+     */
+    public VariableContext getWorkflowContext(MetaData metaData) {
 
-        String pipeline = PipelineGeneratorUtil.getTemplate("pipeline-rollback");
+        boolean supportVersionJob = Stream.of("develop", "feature").noneMatch(it -> StringUtils.equalsIgnoreCase(it, metaData.getBranchName()));
 
-        RollbackTemplateStageService rollbackTemplateStageService = ClassUtil.createInstance(RollbackTemplateStageService.class);
+        Map<String, Object> variables = new HashMap<>();
 
-        Map<String, String> templateVariables = new HashMap<>(Collections.singletonMap("APP_NAME", project.getArtifactId()));
+        variables.put("RUNS_ON", runsOn);
+        variables.put("POM_ARTIFACT", "'" + supportVersionJob + "'");
 
-        pipeline = pipeline
-                .replace("%PIPELINE_NAME%", getRollbackPipelineName(metaData.getStageName(), appName))
-                .replace("  %ENV%", getVariablesTemplate(templateVariables))
-                .replace("  %JOBS%", getStagesTemplate(metaData, Collections.singletonList(rollbackTemplateStageService)));
+        return VariableContext.of(variables);
+    }
 
-        String workflowFileName = metaData.getStageName() + "-rollback" + workflowFilePostFixName;
+    /**
+     * Let every stage service contribute its jobs to the workflow graph.
+     *
+     * @param metaData              may not be null
+     * @param templateStageServices may not be null
+     * @return WorkflowGraph
+     */
+    WorkflowGraph getWorkflowGraph(MetaData metaData, List<TemplateStageService> templateStageServices) {
 
-        File githubWorkflow = new File(dir, workflowFileName);
+        WorkflowGraph workflowGraph = new WorkflowGraph();
 
-        logMessage("Generate Github Workflows Pipeline for (rollback) " + appName + " -> " + workflowFileName);
+        templateStageServices.forEach(it -> it.contribute(this, metaData, workflowGraph));
 
-        pipeline = pipeline.replaceAll("%RUNS_ON%", String.join(", ", runsOn));
+        if (pathFilters) {
+            new WorkflowPathGate(PipelineGeneratorUtil.isCommitImageTag(metaData.getBranchName())).apply(workflowGraph);
+        }
 
-        pipeline = PipelineGeneratorUtil.removeEmptyLines(pipeline);
+        if (concurrency) {
+            getWorkflowConcurrency(metaData).apply(workflowGraph);
+        }
 
-        try (PrintWriter out = new PrintWriter(githubWorkflow)) {
-            out.println(pipeline);
-        } catch (Exception e) {
-            throw new IllegalStateException(e);
+        if (!runnerLabels.isEmpty()) {
+            getJobRunners().apply(workflowGraph, runsOn);
         }
+
+        if (optimizeNeeds) {
+            logMessage(appName + " (" + metaData.getBranchName() + ")\n" + new WorkflowGraphOptimizer().optimize(workflowGraph, getJobDurations()));
+        }
+
+        return workflowGraph;
     }
 
-    void executeUndeployImpl(MetaData metaData) {
+    /**
+     * Code paths of the workflow env, i.e. the configured CODE_PATHS variable or the default code paths,
+     * and, if there is a helm chart, the helm folder as push paths filter.
+     *
+     * @return paths filter starting with a line break, or an empty string if the workflows run on every push
+     */
+    String getPushPaths() {
+
+        String codePaths = defaultVariables.get("CODE_PATHS");
+
+        if (!pathFilters || StringUtils.isBlank(codePaths) || StringUtils.equals(codePaths.trim(), "*")) {
+            return StringUtils.EMPTY;
+        }
+
+        List<String> paths = new ArrayList<>(Arrays.asList(StringUtils.split(codePaths)));
+
+        if (PipelineGeneratorUtil.existsHelmFile(project)) {
+            paths.add("helm/**");
+        }
+
+        return paths.stream().map(it -> "\n      - '" + it + "'").collect(Collectors.joining(StringUtils.EMPTY, "\n    paths:", StringUtils.EMPTY));
+    }
 
+    /**
+     * @param metaData      may not be null
+     * @param workflowGraph may not be null
+     * @return workflow level concurrency block, or an empty string
+     */
+    String getConcurrency(MetaData metaData, WorkflowGraph workflowGraph) {
+
+        if (!concurrency) {
+            return StringUtils.EMPTY;
+        }
+
+        return getWorkflowConcurrency(metaData).getWorkflowConcurrency(workflowGraph);
+    }
+
+    WorkflowConcurrency getWorkflowConcurrency(MetaData metaData) {
+
+        return new WorkflowConcurrency(project.getArtifactId(), metaData.getStageName());
     }
 
-    String getStagesTemplate(MetaData metaData, List<TemplateStageService> templateStageServices) {
+    JobDurations getJobDurations() {
 
-        return templateStageServices.stream()
-                .map(it -> it.getTemplate(this, metaData))
-                .filter(Objects::nonNull)
-                .map(it -> PipelineGeneratorUtil.trimEmptyLines(it, 2))
-                .collect(Collectors.joining("\n\n"));
+        return new JobDurations().with(jobDurations).with(timingFile);
+    }
+
+    JobRunners getJobRunners() {
+
+        return new JobRunners().withRunnerClasses(jobRunnerClasses).withLabels(runnerLabels);
     }
 
     public MavenProject getProject() {
@@ -383,6 +840,51 @@ public class PipelineGeneratorMojo extends AbstractMojo {
         return project;
     }
 
+    public int getUnitTestShards() {
+
+        return unitTestShards;
+    }
+
+    public TestTimings getTestTimings() {
+
+        return TestTimings.load(testTimings);
+    }
+
+    public boolean isSystemTestMatrix() {
+
+        return systemTestMatrix;
+    }
+
+    public int getSystemTestMaxParallel() {
+
+        return systemTestMaxParallel;
+    }
+
+    public boolean isSystemTestFailFast() {
+
+        return systemTestFailFast;
+    }
+
+    public boolean isCompileOnce() {
+
+        return compileOnce;
+    }
+
+    public String getDockerCache() {
+
+        return dockerCache;
+    }
+
+    public boolean isConcurrency() {
+
+        return concurrency;
+    }
+
+    public boolean isChangedModules() {
+
+        return changedModules;
+    }
+
     public Map<String, String> getDownStreams() {
 
         return new LinkedHashMap<>(downStreams);
@@ -8,14 +8,17 @@ import com.github.mustachejava.DefaultMustacheFactory;
 import com.github.mustachejava.Mustache;
 import com.github.mustachejava.MustacheFactory;
 import de.microtema.maven.plugin.github.workflow.model.MetaData;
+import de.microtema.maven.plugin.github.workflow.model.ProjectCache;
+import de.microtema.maven.plugin.github.workflow.project.ProjectLayout;
+import de.microtema.maven.plugin.github.workflow.template.Template;
+import de.microtema.maven.plugin.github.workflow.template.TemplateRegistry;
+import de.microtema.maven.plugin.github.workflow.template.TemplateRenderer;
 import org.apache.commons.collections4.CollectionUtils;
-import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.maven.model.Dependency;
 import org.apache.maven.project.MavenProject;
 
 import java.io.*;
-import java.nio.charset.Charset;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.*;
@@ -47,13 +50,7 @@ public class PipelineGeneratorUtil {
 
     public static String getTemplate(String templateName) {
 
-        InputStream inputStream = PipelineGeneratorUtil.class.getResourceAsStream("/" + templateName + ".template.yaml");
-
-        try {
-            return IOUtils.toString(inputStream, Charset.defaultCharset());
-        } catch (IOException e) {
-            throw new IllegalStateException("Unable to get template: " + templateName, e);
-        }
+        return TemplateRegistry.getInstance().getTemplate(templateName).getText();
     }
 
     public static String getRootPath(MavenProject project) {
@@ -63,33 +60,142 @@ public class PipelineGeneratorUtil {
 
     public static boolean hasMavenWrapper(MavenProject project) {
 
-        return new File(getRootPath(project), ".mvn").exists();
+        return ProjectLayout.of(project).exists(".mvn");
+    }
+
+    /**
+     * Local maven repository, keyed on the poms of the reactor and restored from older keys on a pom change.
+     *
+     * @param project may not be null
+     * @return ProjectCache
+     */
+    public static ProjectCache getMavenCache(MavenProject project) {
+
+        List<String> pomFiles = new ArrayList<>();
+
+        pomFiles.add("'pom.xml'");
+
+        ProjectLayout.of(project).getModules().forEach(it -> pomFiles.add("'" + it + "/pom.xml'"));
+
+        ProjectCache projectCache = new ProjectCache();
+
+        projectCache.setName("maven");
+        projectCache.setPaths(Collections.singletonList("~/.m2/repository"));
+        projectCache.setKey("${{ runner.os }}-maven-${{ hashFiles(" + String.join(", ", pomFiles) + ") }}");
+        projectCache.setRestoreKeys(Collections.singletonList("${{ runner.os }}-maven-"));
+
+        return projectCache;
+    }
+
+    /**
+     * Terraform provider plugin cache (TF_PLUGIN_CACHE_DIR) and .terraform folder of the working directory, keyed on
+     * the stage, as the .terraform folder holds the backend of the stage, the dependency lock file and the *.tf files,
+     * whose required_providers and module sources decide what terraform init fetches without a lock file.
+     * The .terraform folder itself is left out of the hash.
+     *
+     * @param workingDirectory may not be null
+     * @param stageName        may not be null
+     * @return ProjectCache
+     */
+    public static ProjectCache getTerraformCache(String workingDirectory, String stageName) {
+
+        String directory = StringUtils.removeEnd(StringUtils.removeStart(workingDirectory, "./"), "/");
+
+        ProjectCache projectCache = new ProjectCache();
+
+        projectCache.setName("terraform");
+        projectCache.setPaths(Arrays.asList("${{ env.TF_PLUGIN_CACHE_DIR }}", directory + "/.terraform"));
+        projectCache.setKey("${{ runner.os }}-terraform-" + stageName + "-${{ hashFiles('" + directory + "/.terraform.lock.hcl', '" + directory + "/**/*.tf', '!" + directory + "/.terraform/**') }}");
+        projectCache.setRestoreKeys(Collections.singletonList("${{ runner.os }}-terraform-" + stageName + "-"));
+
+        return projectCache;
+    }
+
+    /**
+     * @param caches may not be null
+     * @return one actions/cache step per cache, or an empty string
+     */
+    public static String getCacheSteps(List<ProjectCache> caches) {
+
+        String indent = "\n          ";
+
+        return caches.stream()
+                .map(it -> getTemplateRenderer("cache")
+                        .with("CACHE_NAME", it.getName())
+                        .with("CACHE_PATHS", String.join(indent, it.getPaths()))
+                        .with("CACHE_KEY", it.getKey())
+                        .with("CACHE_RESTORE_KEYS", String.join(indent, it.getRestoreKeys()))
+                        .render())
+                .map(it -> StringUtils.stripEnd(it, null))
+                .collect(Collectors.joining("\n"));
+    }
+
+    /**
+     * Optional steps are appended to the end of the preceding template line, so they leave no line if they are empty.
+     *
+     * @param renderer may not be null
+     * @return rendered steps starting with a line break
+     */
+    public static String getSteps(TemplateRenderer renderer) {
+
+        return "\n" + StringUtils.stripEnd(renderer.render(), null);
+    }
+
+    /**
+     * Versioned poms and target folders of the reactor, as compiled once and shared with the later jobs.
+     * Modules outside the project root are compiled again by the later jobs.
+     *
+     * @param project may not be null
+     * @return paths relative to the project root
+     */
+    public static List<String> getCompilePaths(MavenProject project) {
+
+        List<String> paths = new ArrayList<>();
+
+        paths.add("pom.xml");
+        paths.add("target");
+
+        ProjectLayout.of(project).getModulePaths().forEach(it -> {
+            paths.add(it + "/pom.xml");
+            paths.add(it + "/target");
+        });
+
+        return paths;
+    }
+
+    /**
+     * @param project may not be null
+     * @return empty string if the project builds its image with the jib-maven-plugin, else the first module which does, or null
+     */
+    public static String findJibModule(MavenProject project) {
+
+        return ProjectLayout.of(project).getJibModule();
     }
 
     public static boolean existsDockerfile(MavenProject project) {
 
-        return new File(getRootPath(project), "Dockerfile").exists();
+        return ProjectLayout.of(project).exists("Dockerfile");
     }
 
     public static boolean existsHelmFile(MavenProject project) {
 
-        return new File(getRootPath(project), "helm").exists();
+        return ProjectLayout.of(project).exists("helm");
     }
 
     public static boolean existsTerraformFile(MavenProject project) {
 
-        return new File(getRootPath(project), "terraform").exists();
+        return ProjectLayout.of(project).exists("terraform");
     }
 
     public static boolean existsMavenSettings(MavenProject project) {
 
-        return new File(getRootPath(project), "settings.xml").exists();
+        return ProjectLayout.of(project).exists("settings.xml");
     }
 
     @SuppressWarnings("unchecked")
     public static boolean existsLiquibase(MavenProject project) {
 
-        boolean changelog = new File(getRootPath(project), "src/main/resources/db/changelog").exists();
+        boolean changelog = ProjectLayout.of(project).exists("src/main/resources/db/changelog");
 
         if (!changelog) {
             return false;
@@ -108,51 +214,37 @@ public class PipelineGeneratorUtil {
 
     public static boolean existsFlyway(MavenProject project) {
 
-        return new File(getRootPath(project), "src/main/resources/db/migration").exists();
+        return ProjectLayout.of(project).exists("src/main/resources/db/migration");
     }
 
     public static boolean existsPerformanceTests(MavenProject project) {
 
-        return new File(getRootPath(project), "src/test/jmeter").exists();
+        return ProjectLayout.of(project).exists("src/test/jmeter");
     }
 
     public static boolean hasE2ETests(MavenProject project) {
 
-        return new File(getRootPath(project), "e2e").exists();
+        return ProjectLayout.of(project).exists("e2e");
     }
 
     public static boolean hasSourceCode(MavenProject project) {
 
-        if (new File(getRootPath(project), "src/main/java").exists()) {
-            return true;
-        }
-
-        if (new File(getRootPath(project), "src/main/kotlin").exists()) {
-            return true;
-        }
-
-        if (new File(getRootPath(project), "src/main.ts").exists()) {
-            return true;
-        }
-
-        List<String> modules = new ArrayList<>(project.getModules());
-
-        return modules.stream().anyMatch(it -> new File(new File(getRootPath(project), it), "/src/main/java").exists()) ||
-                modules.stream().anyMatch(it -> new File(new File(getRootPath(project), it), "/src/main/kotlin").exists());
+        return ProjectLayout.of(project).hasSourceCode();
     }
 
     public static boolean isGitRepo(MavenProject project) {
 
-        return new File(getRootPath(project), ".git").exists();
+        return ProjectLayout.of(project).exists(".git");
     }
 
     public static List<String> getSonarExcludes(MavenProject project) {
 
-        List<String> excludes = new ArrayList<>(project.getModules());
+        ProjectLayout projectLayout = ProjectLayout.of(project);
+
+        List<String> excludes = new ArrayList<>(projectLayout.getModules());
 
         excludes.removeIf(it -> it.startsWith("../"));
-        excludes.removeIf(it -> new File(new File(getRootPath(project), it), "src/main/java").exists());
-        excludes.removeIf(it -> new File(new File(getRootPath(project), it), "src/main/kotlin").exists());
+        excludes.removeIf(projectLayout::hasModuleSourceCode);
 
         return excludes;
     }
@@ -171,16 +263,7 @@ public class PipelineGeneratorUtil {
 
     public static boolean existsUnitTests(MavenProject project) {
 
-        String rootPath = getRootPath(project);
-
-        if (CollectionUtils.isEmpty(project.getModules())) {
-
-            return Stream.of("java", "kotlin", "groovy").anyMatch(it -> new File(rootPath, "src/test/" + it).exists());
-        }
-
-        List<String> modules = new ArrayList<>(project.getModules());
-
-        return modules.stream().anyMatch(it -> Stream.of("java", "kotlin", "groovy").anyMatch(m -> new File(new File(getRootPath(project), it), "/src/test/" + m).exists()));
+        return ProjectLayout.of(project).hasUnitTests();
     }
 
     public static boolean existsIntegrationTests(MavenProject project) {
@@ -190,63 +273,18 @@ public class PipelineGeneratorUtil {
 
     public static boolean existsRegressionTests(MavenProject project, String type) {
 
-        String testType = parseTestType(type) + ".java";
-
-        String rootPath = getRootPath(project);
-        String sourceDir = "src/test/" + type + "/java".toLowerCase();
-
-        if (CollectionUtils.isEmpty(project.getModules())) {
-
-            File rootDir = new File(rootPath, sourceDir);
-
-            return findFile(rootDir.toPath(), testType);
-        }
-
-        List<String> modules = new ArrayList<>(project.getModules());
-
-        return modules.stream().anyMatch(it -> {
-
-            File rootDir = new File(new File(getRootPath(project), it), sourceDir);
-
-            return findFile(rootDir.toPath(), testType);
-        });
+        return ProjectLayout.of(project).getTestSources().hasTests(type, parseTestType(type));
     }
 
     public static List<String> getRegressionTestTypes(MavenProject project) {
 
-        String rootPath = getRootPath(project);
-
         List<String> defaultFolders = Arrays.asList("java", "it");
 
-        File rootDir = new File(rootPath, "src/test");
-
-        File[] files = Optional.ofNullable(rootDir.listFiles()).orElseGet(() -> new File[0]);
-
-        List<String> list = Stream.of(files)
-                .filter(it -> it.isDirectory() && !defaultFolders.contains(it.getName().toLowerCase()))
-                .filter(it -> new File(it, "java").exists())
-                .map(File::getName)
-                .sorted()
+        return ProjectLayout.of(project).getTestSources().getSourceSets()
+                .stream()
+                .filter(it -> !defaultFolders.contains(it.toLowerCase()))
+                .filter(it -> PipelineGeneratorUtil.existsRegressionTests(project, it))
                 .collect(Collectors.toList());
-
-        list.removeIf(it -> !PipelineGeneratorUtil.existsRegressionTests(project, it));
-
-        return list;
-    }
-
-    static boolean findFile(Path targetDir, String... fileNames) {
-        try {
-            return Files.list(targetDir).anyMatch((p) -> {
-                if (Files.isRegularFile(p)) {
-                    String file = p.getFileName().toString();
-                    return Stream.of(fileNames).anyMatch(file::endsWith);
-                } else {
-                    return findFile(p, fileNames);
-                }
-            });
-        } catch (IOException e) {
-            return false;
-        }
     }
 
     public static String trimEmptyLines(String template) {
@@ -316,12 +354,12 @@ public class PipelineGeneratorUtil {
 
     public static boolean isNodeJsRepo(MavenProject project) {
 
-        return new File(getRootPath(project), "package.json").exists();
+        return ProjectLayout.of(project).exists("package.json");
     }
 
     public static boolean isTerraformRepo(MavenProject project) {
 
-        return new File(getRootPath(project), "terraform/main.tf").exists();
+        return ProjectLayout.of(project).exists("terraform/main.tf");
     }
 
     public static boolean isMicroserviceRepo(MavenProject project) {
@@ -344,43 +382,21 @@ public class PipelineGeneratorUtil {
         return !existsHelmFile(project) && !existsDockerfile(project) && hasSourceCode(project);
     }
 
-    public static Properties findProperties(String stageName) {
-
-        if (StringUtils.isEmpty(stageName)) {
-            return null;
-        }
-
-        String fileName = ("." + stageName).toLowerCase();
-
-        String envFolder = ".github/env";
-
-        File file = new File(envFolder, fileName);
+    public static Map<String, String> findProperties(MavenProject project, String stageName) {
 
-        if (!file.exists()) {
-            return null;
-        }
-
-        Properties properties = new Properties();
-
-        try (InputStream inputStream = new FileInputStream(file)) {
-            properties.load(inputStream);
-        } catch (Exception e) {
-            throw new IllegalStateException(e);
-        }
-
-        return properties;
+        return ProjectLayout.of(project).getEnvironments().findProperties(stageName);
     }
 
-    public static boolean isPrivateNetwork(String stageName) {
+    public static boolean isPrivateNetwork(MavenProject project, String stageName) {
 
-        Properties properties = findProperties(stageName);
+        Map<String, String> properties = findProperties(project, stageName);
 
         if (Objects.isNull(properties)) {
 
             return false;
         }
 
-        String serviceUrl = properties.getProperty("SERVICE_URL", "false");
+        String serviceUrl = properties.getOrDefault("SERVICE_URL", "false");
 
         return StringUtils.contains(serviceUrl, "localhost");
     }
@@ -406,71 +422,120 @@ public class PipelineGeneratorUtil {
                 .collect(Collectors.joining());
     }
 
-    public static String applyProperties(String template, String stageName) {
+    public static String applyProperties(String template, Map<String, Object> globalVariables) {
 
-        return applyProperties(template, stageName, Collections.emptyMap());
+        return Template.parse(null, template).render(globalVariables);
     }
 
-    public static String applyProperties(String template, Map<String, Object> globalVariables) {
-
-        for (Map.Entry<String, Object> entry : globalVariables.entrySet()) {
-            template = template.replace("%" + entry.getKey() + "%", String.valueOf(entry.getValue()));
-        }
+    public static Map<String, Object> getStageVariables(MavenProject project, String stageName) {
 
-        return template;
+        return getStageVariables(project, stageName, Collections.emptyMap());
     }
 
-    public static String applyProperties(String template, String stageName, Map<String, Object> globalVariables) {
+    /**
+     * Global variables overlaid by the .github/env/.&lt;stage&gt; properties, empty if the stage has no properties.
+     *
+     * @param project         may not be null
+     * @param stageName       may not be null
+     * @param globalVariables may not be null
+     * @return Map
+     */
+    public static Map<String, Object> getStageVariables(MavenProject project, String stageName, Map<String, Object> globalVariables) {
 
-        Properties properties = getProperties(stageName);
+        Map<String, String> properties = getProperties(project, stageName);
 
         if (Objects.isNull(properties)) {
 
-            return template;
+            return Collections.emptyMap();
         }
 
-        properties.putIfAbsent("STAGE_NAME", stageName);
+        Map<String, Object> stageVariables = new HashMap<>(globalVariables);
 
-        globalVariables.entrySet().stream().filter(it -> !properties.containsKey(it.getKey())).forEach(it -> properties.put(it.getKey(), it.getValue()));
+        stageVariables.putAll(properties);
 
-        for (Map.Entry<Object, Object> entry : properties.entrySet()) {
-            template = template.replace("%" + entry.getKey() + "%", String.valueOf(entry.getValue()));
-        }
+        stageVariables.put("STAGE_NAME", properties.getOrDefault("STAGE_NAME", stageName));
 
-        return template;
+        return stageVariables;
     }
 
-    public static Properties getProperties(String stageName) {
+    public static TemplateRenderer getTemplateRenderer(String templateName) {
 
-        Properties properties = PipelineGeneratorUtil.findProperties(stageName);
+        return TemplateRegistry.getInstance().getRenderer(templateName);
+    }
 
-        if (Objects.isNull(properties)) {
+    public static Map<String, String> getProperties(MavenProject project, String stageName) {
 
-            char lastChar = stageName.charAt(stageName.length() - 1);
+        return ProjectLayout.of(project).getEnvironments().getProperties(stageName);
+    }
+
+    /**
+     * Build only the changed modules and the modules depending on them, on feature, bugfix and develop branches
+     * of a multi module project.
+     *
+     * @param mojo     may not be null
+     * @param metaData may not be null
+     * @return true if the maven jobs build the changed modules only
+     */
+    public static boolean isChangedModulesBuild(PipelineGeneratorMojo mojo, MetaData metaData) {
 
-            if (!Character.isDigit(lastChar)) {
+        if (!mojo.isChangedModules() || mojo.getProject().getModules().isEmpty()) {
+            return false;
+        }
 
-                return null;
-            }
+        return Stream.of("feature", "bugfix", "develop").anyMatch(it -> StringUtils.equalsIgnoreCase(metaData.getBranchName(), it));
+    }
 
-            String rootStageName = stageName.substring(0, stageName.length() - 1);
+    /**
+     * Step which maps the files changed since the merge base with the base branch to modules.
+     * A change to any pom.xml or to .mvn, or a missing merge base, leaves the modules empty, i.e. builds the whole reactor.
+     *
+     * @param project  may not be null
+     * @param metaData may not be null
+     * @return rendered step starting with a line break
+     */
+    public static String getChangedModulesSteps(MavenProject project, MetaData metaData) {
 
-            properties = PipelineGeneratorUtil.findProperties(rootStageName);
+        String baseBranch = StringUtils.equalsIgnoreCase(metaData.getBranchName(), "develop") ? "master" : "develop";
 
-            if (Objects.isNull(properties)) {
-                return null;
-            }
+        String modulePaths = ProjectLayout.of(project).getModulePaths().stream()
+                .map(PipelineGeneratorUtil::escapeRegex)
+                .collect(Collectors.joining("|"));
 
-            for (Map.Entry<Object, Object> entry : properties.entrySet()) {
-                String value = String.valueOf(entry.getValue());
+        return getSteps(getTemplateRenderer("changed-modules")
+                .with("BASE_BRANCH", baseBranch)
+                .with("SHARED_PATHS", "(^|/)pom\\.xml$|^\\.mvn/")
+                .with("MODULE_PATHS", modulePaths));
+    }
 
-                String newValue = value.replaceAll(rootStageName.toUpperCase(), stageName.toUpperCase());
+    /**
+     * Escape a literal for an extended regular expression within a single quoted shell argument.
+     *
+     * @param value may not be null
+     * @return escaped value
+     */
+    static String escapeRegex(String value) {
 
-                entry.setValue(newValue);
+        StringBuilder escaped = new StringBuilder();
+
+        for (char character : value.toCharArray()) {
+
+            if ("\\.[]{}()*+?^$|".indexOf(character) >= 0) {
+                escaped.append('\\');
             }
+
+            escaped.append(character == '\'' ? "'\\''" : String.valueOf(character));
         }
 
-        return properties;
+        return escaped.toString();
+    }
+
+    /**
+     * @param branchName may be null
+     * @return true if the image tag of the branch is the version and the short commit id, i.e. every commit builds its own image
+     */
+    public static boolean isCommitImageTag(String branchName) {
+
+        return StringUtils.equalsIgnoreCase(branchName, "master");
     }
 
     public static boolean isSpeedBranch(String branchName) {
@@ -478,16 +543,16 @@ public class PipelineGeneratorUtil {
         return StringUtils.startsWith(branchName, "speed");
     }
 
-    public static boolean isSameDockerRegistry(List<String> stageNames) {
+    public static boolean isSameDockerRegistry(MavenProject project, List<String> stageNames) {
 
         if (stageNames.size() == 1) {
             return true;
         }
 
         return stageNames.stream()
-                .map(PipelineGeneratorUtil::findProperties)
+                .map(it -> findProperties(project, it))
                 .filter(Objects::nonNull)
-                .map(it -> it.getProperty("DOCKER_REGISTRY"))
+                .map(it -> it.get("DOCKER_REGISTRY"))
                 .collect(Collectors.toSet()).size() == 1;
     }
 
@@ -623,7 +688,7 @@ public class PipelineGeneratorUtil {
         return PipelineGeneratorUtil.trimEmptyLines(template);
     }
 
-    public static void logMessage(String message) {
+    public static synchronized void logMessage(String message) {
 
         System.out.println("+----------------------------------+");
         System.out.println(message);
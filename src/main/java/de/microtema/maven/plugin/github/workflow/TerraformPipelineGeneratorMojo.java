@@ -3,13 +3,13 @@ package de.microtema.maven.plugin.github.workflow;
 import de.microtema.maven.plugin.github.workflow.job.TemplateStageService;
 import de.microtema.maven.plugin.github.workflow.job.terraform.*;
 import de.microtema.maven.plugin.github.workflow.model.MetaData;
+import de.microtema.maven.plugin.github.workflow.model.WorkflowGraph;
+import de.microtema.maven.plugin.github.workflow.template.TemplateRenderer;
+import de.microtema.maven.plugin.github.workflow.template.VariableContext;
 import de.microtema.model.converter.util.ClassUtil;
 import org.apache.commons.lang3.StringUtils;
 
-import java.io.File;
-import java.io.PrintWriter;
 import java.util.*;
-import java.util.stream.Collectors;
 
 import static de.microtema.maven.plugin.github.workflow.PipelineGeneratorUtil.*;
 
@@ -18,13 +18,7 @@ public class TerraformPipelineGeneratorMojo extends PipelineGeneratorMojo {
     private final PipelineTemplateStageService pipelineTemplateStageService;
 
     public TerraformPipelineGeneratorMojo(PipelineGeneratorMojo mojo) {
-        this.project = mojo.project;
-        this.downStreams = mojo.downStreams;
-        this.stages = mojo.stages;
-        this.variables = mojo.variables;
-        this.githubWorkflowsDir = mojo.githubWorkflowsDir;
-        this.runsOn = mojo.runsOn;
-        this.undeploy = mojo.undeploy;
+        mojo.copyParameters(this);
         this.appName = mojo.getAppDisplayName();
         this.pipelineTemplateStageService = ClassUtil.createInstance(PipelineTemplateStageService.class);
     }
@@ -33,28 +27,52 @@ public class TerraformPipelineGeneratorMojo extends PipelineGeneratorMojo {
 
         injectTemplateStageServices();
 
-        File rootDir = getOrCreateWorkflowsDir();
-
-        cleanupWorkflows(rootDir);
+        workflowWriter = new WorkflowWriter(getOrCreateWorkflowsDir(), workflowFilePostFixName);
 
         applyDefaultVariables();
 
         List<MetaData> workflows = getWorkflowFiles(project, stages, downStreams);
 
+        List<Runnable> tasks = new ArrayList<>();
+
         for (MetaData metaData : workflows) {
-            executeImpl(metaData, workflows);
+            tasks.add(() -> executeImpl(metaData, workflows));
         }
 
-        if (!undeploy) {
-            return;
+        // Generate undeploy workflows
+        if (undeploy) {
+
+            for (MetaData metaData : getUndeployWorkflowFiles()) {
+                tasks.add(() -> executeUndeployImpl(metaData));
+            }
         }
 
-        // Generate undeploy workflows
-        workflows = getUndeployWorkflowFiles();
+        renderWorkflows(tasks);
+    }
+
+    @Override
+    Map<String, WorkflowGraph> getWorkflowGraphs() {
+
+        injectTemplateStageServices();
+
+        applyDefaultVariables();
+
+        List<MetaData> workflows = getWorkflowFiles(project, stages, downStreams);
+
+        Map<String, WorkflowGraph> workflowGraphs = new LinkedHashMap<>();
 
         for (MetaData metaData : workflows) {
-            executeUndeployImpl(metaData);
+            workflowGraphs.put(getWorkflowFileName(metaData, workflows), getWorkflowGraph(metaData, templateStageServices));
         }
+
+        if (undeploy) {
+
+            for (MetaData metaData : getUndeployWorkflowFiles()) {
+                workflowGraphs.put(getUndeployWorkflowFileName(metaData), getWorkflowGraph(metaData, getUndeployStageServices()));
+            }
+        }
+
+        return workflowGraphs;
     }
 
     void injectTemplateStageServices() {
@@ -73,38 +91,23 @@ public class TerraformPipelineGeneratorMojo extends PipelineGeneratorMojo {
 
     void executeImpl(MetaData metaData, List<MetaData> workflows) {
 
-        String rootPath = PipelineGeneratorUtil.getRootPath(project);
-
-        File dir = new File(rootPath, githubWorkflowsDir);
-
         String version = getVersion(metaData.getBranchName(), project.getVersion());
 
-        defaultVariables.put("VERSION", version);
-
-        String pipeline = pipelineTemplateStageService.getTemplate(this, metaData);
-
-        pipeline = pipeline
-                .replace("%PIPELINE_NAME%", getPipelineName(project, metaData, appName))
-                .replace("%VERSION%", version)
-                .replace("%BRANCH_NAME%", metaData.getBranchPattern())
-                .replace("  %ENV%", getVariablesTemplate(defaultVariables))
-                .replace("  %JOBS%", getStagesTemplate(metaData, templateStageServices));
-
         String workflowFileName = getWorkflowFileName(metaData, workflows);
 
-        File githubWorkflow = new File(dir, workflowFileName);
-
         logMessage("Generate Github Workflows Pipeline for " + appName + " -> " + workflowFileName);
 
-        pipeline = pipeline.replaceAll("%RUNS_ON%", String.join(", ", runsOn));
+        WorkflowGraph workflowGraph = getWorkflowGraph(metaData, templateStageServices);
 
-        pipeline = PipelineGeneratorUtil.removeEmptyLines(pipeline);
+        TemplateRenderer templateRenderer = pipelineTemplateStageService.getTemplateRenderer(this, metaData)
+                .with("PIPELINE_NAME", getPipelineName(project, metaData, appName))
+                .with("VERSION", version)
+                .with("BRANCH_NAME", metaData.getBranchPattern())
+                .with("CONCURRENCY", getConcurrency(metaData, workflowGraph))
+                .with("ENV", getVariablesTemplate(getWorkflowVariables(version)))
+                .with("JOBS", workflowGraph.toFragment(2));
 
-        try (PrintWriter out = new PrintWriter(githubWorkflow)) {
-            out.println(pipeline);
-        } catch (Exception e) {
-            throw new IllegalStateException(e);
-        }
+        writeWorkflow(workflowFileName, false, templateRenderer);
     }
 
     List<MetaData> getUndeployWorkflowFiles() {
@@ -131,55 +134,44 @@ public class TerraformPipelineGeneratorMojo extends PipelineGeneratorMojo {
         return workflows;
     }
 
-    void executeUndeployImpl(MetaData metaData) {
+    String getUndeployWorkflowFileName(MetaData metaData) {
 
-        String rootPath = getRootPath(project);
-
-        File dir = new File(rootPath, githubWorkflowsDir);
+        return metaData.getBranchName() + "-undeploy" + workflowFilePostFixName;
+    }
 
-        String pipeline = PipelineGeneratorUtil.getTemplate("terraform/undeploy-pipeline");
+    List<TemplateStageService> getUndeployStageServices() {
 
         List<TemplateStageService> templateStageServices = new ArrayList<>();
 
         templateStageServices.add(ClassUtil.createInstance(InitializeTemplateStageService.class));
         templateStageServices.add(ClassUtil.createInstance(UnDeploymentTemplateStageService.class));
 
-        Map<String, String> templateVariables = new HashMap<>(Collections.singletonMap("APP_NAME", project.getArtifactId()));
-
-        String version = getVersion(metaData.getBranchName(), project.getVersion());
+        return templateStageServices;
+    }
 
-        defaultVariables.put("VERSION", version);
+    void executeUndeployImpl(MetaData metaData) {
 
-        pipeline = pipeline
-                .replace("%PIPELINE_NAME%", getUndeployPipelineName(metaData.getStageName(), appName))
-                .replace("%BRANCH_NAME%", metaData.getBranchPattern())
-                .replace("%VERSION%", version)
-                .replace("  %ENV%", getVariablesTemplate(templateVariables))
-                .replace("  %JOBS%", getStagesTemplate(metaData, templateStageServices));
+        Map<String, String> templateVariables = new HashMap<>(Collections.singletonMap("APP_NAME", project.getArtifactId()));
 
-        String workflowFileName = metaData.getBranchName() + "-undeploy" + workflowFilePostFixName;
+        String version = getVersion(metaData.getBranchName(), project.getVersion());
 
-        File githubWorkflow = new File(dir, workflowFileName);
+        String workflowFileName = getUndeployWorkflowFileName(metaData);
 
         logMessage("Generate Github Workflows Pipeline for (undeploy) " + appName + " -> " + workflowFileName);
 
-        pipeline = pipeline.replaceAll("%RUNS_ON%", runsOn);
+        TemplateRenderer templateRenderer = PipelineGeneratorUtil.getTemplateRenderer("terraform/undeploy-pipeline")
+                .with("PIPELINE_NAME", getUndeployPipelineName(metaData.getStageName(), appName))
+                .with("BRANCH_NAME", metaData.getBranchPattern())
+                .with("VERSION", version)
+                .with("ENV", getVariablesTemplate(templateVariables))
+                .with("JOBS", getWorkflowGraph(metaData, getUndeployStageServices()).toFragment(2));
 
-        pipeline = PipelineGeneratorUtil.removeEmptyLines(pipeline);
-
-        try (PrintWriter out = new PrintWriter(githubWorkflow)) {
-            out.println(pipeline);
-        } catch (Exception e) {
-            throw new IllegalStateException(e);
-        }
+        writeWorkflow(workflowFileName, false, templateRenderer);
     }
 
-    String getStagesTemplate(MetaData metaData, List<TemplateStageService> templateStageServices) {
+    @Override
+    public VariableContext getWorkflowContext(MetaData metaData) {
 
-        return templateStageServices.stream()
-                .map(it -> it.getTemplate(this, metaData))
-                .filter(Objects::nonNull)
-                .map(it -> PipelineGeneratorUtil.trimEmptyLines(it, 2))
-                .collect(Collectors.joining("\n\n"));
+        return VariableContext.of(Collections.singletonMap("RUNS_ON", runsOn));
     }
 }
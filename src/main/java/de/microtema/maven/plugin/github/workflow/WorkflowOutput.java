@@ -0,0 +1,118 @@
+package de.microtema.maven.plugin.github.workflow;
+
+import java.io.*;
+import java.nio.charset.Charset;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * Line based transformation pipeline for a rendered workflow, applied while the workflow is rendered into it:
+ * <ul>
+ *     <li>"mvn " is replaced with "./mvnw " if the project has a maven wrapper</li>
+ *     <li>empty lines are dropped</li>
+ *     <li>the content is encoded straight into a byte buffer which is handed to the target on close</li>
+ * </ul>
+ * The result equals PipelineGeneratorUtil.removeEmptyLines of the rendered workflow followed by a line separator.
+ */
+public class WorkflowOutput extends Writer {
+
+    private final boolean mavenWrapper;
+
+    private final Consumer<byte[]> target;
+
+    private final ByteArrayOutputStream bytes = new ByteArrayOutputStream(16 * 1024);
+
+    private final Writer out = new BufferedWriter(new OutputStreamWriter(bytes, Charset.defaultCharset()));
+
+    private final StringBuilder line = new StringBuilder(256);
+
+    private boolean firstLine = true;
+
+    private boolean closed;
+
+    public WorkflowOutput(boolean mavenWrapper, Consumer<byte[]> target) {
+        this.mavenWrapper = mavenWrapper;
+        this.target = target;
+    }
+
+    @Override
+    public void write(char[] chars, int offset, int length) throws IOException {
+
+        for (int index = offset; index < offset + length; index++) {
+            write(chars[index]);
+        }
+    }
+
+    @Override
+    public void write(int c) throws IOException {
+
+        if (c == '\n') {
+            writeLine();
+        } else {
+            line.append((char) c);
+        }
+    }
+
+    @Override
+    public void write(String text, int offset, int length) throws IOException {
+
+        for (int index = offset; index < offset + length; index++) {
+            write(text.charAt(index));
+        }
+    }
+
+    @Override
+    public Writer append(CharSequence text, int start, int end) throws IOException {
+
+        CharSequence charSequence = Objects.isNull(text) ? "null" : text;
+
+        for (int index = start; index < end; index++) {
+            write(charSequence.charAt(index));
+        }
+
+        return this;
+    }
+
+    @Override
+    public void flush() {
+        // the content is handed over as a whole on close
+    }
+
+    @Override
+    public void close() throws IOException {
+
+        if (closed) {
+            return;
+        }
+
+        closed = true;
+
+        writeLine();
+
+        out.write(System.lineSeparator());
+        out.close();
+
+        target.accept(bytes.toByteArray());
+    }
+
+    private void writeLine() throws IOException {
+
+        if (line.length() == 0) {
+            return;
+        }
+
+        if (!firstLine) {
+            out.write('\n');
+        }
+
+        if (mavenWrapper) {
+            out.write(line.toString().replace("mvn ", "./mvnw "));
+        } else {
+            out.append(line);
+        }
+
+        firstLine = false;
+
+        line.setLength(0);
+    }
+}
@@ -0,0 +1,111 @@
+package de.microtema.maven.plugin.github.workflow;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs the workflow render tasks of one mojo execution on a bounded executor.
+ * <p>
+ * Virtual threads are used when the running JVM provides them (Java 21+), the plugin itself still targets Java 8
+ * so they are looked up by reflection, otherwise a fixed pool of daemon platform threads is used.
+ */
+public class WorkflowRenderExecutor {
+
+    private static final ThreadFactory THREAD_FACTORY = createThreadFactory();
+
+    public static void invokeAll(List<Runnable> tasks, int parallelism) {
+
+        int threads = getThreads(tasks.size(), parallelism);
+
+        if (threads <= 1) {
+            tasks.forEach(Runnable::run);
+            return;
+        }
+
+        ExecutorService executorService = Executors.newFixedThreadPool(threads, THREAD_FACTORY);
+
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+
+            for (Runnable task : tasks) {
+                futures.add(executorService.submit(task));
+            }
+
+            for (Future<?> future : futures) {
+                await(future);
+            }
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    public static boolean isVirtualThreadsSupported() {
+
+        return !(THREAD_FACTORY instanceof PlatformThreadFactory);
+    }
+
+    static int getThreads(int taskCount, int parallelism) {
+
+        int threads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+
+        return Math.min(threads, taskCount);
+    }
+
+    private static void await(Future<?> future) {
+
+        try {
+            future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        } catch (ExecutionException e) {
+
+            Throwable cause = e.getCause();
+
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    private static ThreadFactory createThreadFactory() {
+
+        try {
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+
+            Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+
+            Object namedBuilder = builderType.getMethod("name", String.class, long.class).invoke(builder, "workflow-render-", 0L);
+
+            Method factory = builderType.getMethod("factory");
+
+            return (ThreadFactory) factory.invoke(namedBuilder);
+        } catch (Exception e) {
+            return new PlatformThreadFactory();
+        }
+    }
+
+    private static class PlatformThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+
+            Thread thread = new Thread(runnable, "workflow-render-" + count.getAndIncrement());
+
+            thread.setDaemon(true);
+
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package de.microtema.maven.plugin.github.workflow;
+
+import org.apache.commons.lang3.StringUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * Writes the rendered workflow files of one mojo execution into the workflows directory.
+ * <p>
+ * A file is only replaced when its new content differs from the file on disk, and then through
+ * a temporary file and an atomic move, which keeps the permissions of the replaced file. Workflow files which are not produced anymore are removed at the end.
+ */
+public class WorkflowWriter {
+
+    private static final Set<PosixFilePermission> DEFAULT_PERMISSIONS = PosixFilePermissions.fromString("rw-r--r--");
+
+    private final File rootDir;
+
+    private final String workflowFilePostFixName;
+
+    private final Set<String> workflowFileNames = ConcurrentHashMap.newKeySet();
+
+    private final AtomicInteger written = new AtomicInteger();
+
+    private final AtomicInteger unchanged = new AtomicInteger();
+
+    private final AtomicInteger removed = new AtomicInteger();
+
+    public WorkflowWriter(File rootDir, String workflowFilePostFixName) {
+        this.rootDir = rootDir;
+        this.workflowFilePostFixName = workflowFilePostFixName;
+    }
+
+    /**
+     * Open a streaming output for the given workflow file, the file is written when the output is closed.
+     *
+     * @param workflowFileName may not be null
+     * @param mavenWrapper     true to replace mvn with ./mvnw
+     * @return WorkflowOutput
+     */
+    public WorkflowOutput open(String workflowFileName, boolean mavenWrapper) {
+
+        return new WorkflowOutput(mavenWrapper, content -> write(workflowFileName, content));
+    }
+
+    /**
+     * @param workflowFileName may not be null
+     * @param pipeline         may not be null
+     * @return true if the file has been written, false if the content is unchanged
+     */
+    public boolean write(String workflowFileName, String pipeline) {
+
+        return write(workflowFileName, (pipeline + System.lineSeparator()).getBytes(Charset.defaultCharset()));
+    }
+
+    /**
+     * @param workflowFileName may not be null
+     * @param content          may not be null
+     * @return true if the file has been written, false if the content is unchanged
+     */
+    public boolean write(String workflowFileName, byte[] content) {
+
+        workflowFileNames.add(workflowFileName);
+
+        File workflowFile = new File(rootDir, workflowFileName);
+
+        if (isUnchanged(workflowFile, content)) {
+
+            unchanged.incrementAndGet();
+
+            return false;
+        }
+
+        writeAtomically(workflowFile.toPath(), content);
+
+        written.incrementAndGet();
+
+        return true;
+    }
+
+    /**
+     * Delete the workflow files of the workflows directory which have not been written by this execution.
+     */
+    public void removeStaleWorkflows() {
+
+        File[] files = rootDir.listFiles((dir, name) -> StringUtils.contains(name, workflowFilePostFixName) && !workflowFileNames.contains(name));
+
+        if (Objects.isNull(files) || files.length == 0) {
+            return;
+        }
+
+        Stream.of(files).forEach(it -> {
+
+            boolean deleted = it.delete();
+
+            if (deleted) {
+                removed.incrementAndGet();
+            }
+
+            PipelineGeneratorUtil.logMessage("Delete " + it.getName() + " workflow -> " + deleted);
+        });
+    }
+
+    public String getSummary() {
+
+        return "Workflows: " + written.get() + " written, " + unchanged.get() + " unchanged, " + removed.get() + " removed";
+    }
+
+    public int getWritten() {
+        return written.get();
+    }
+
+    public int getUnchanged() {
+        return unchanged.get();
+    }
+
+    public int getRemoved() {
+        return removed.get();
+    }
+
+    private static boolean isUnchanged(File workflowFile, byte[] content) {
+
+        if (!workflowFile.isFile() || workflowFile.length() != content.length) {
+            return false;
+        }
+
+        try {
+            return Arrays.equals(Files.readAllBytes(workflowFile.toPath()), content);
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private static void writeAtomically(Path target, byte[] content) {
+
+        Path tempFile = null;
+
+        try {
+            tempFile = Files.createTempFile(target.getParent(), "." + target.getFileName(), ".tmp");
+
+            try (FileChannel channel = FileChannel.open(tempFile, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+
+                ByteBuffer buffer = ByteBuffer.wrap(content);
+
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+            }
+
+            copyPermissions(target, tempFile);
+
+            try {
+                Files.move(tempFile, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tempFile, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        } finally {
+            deleteQuietly(tempFile);
+        }
+    }
+
+    /**
+     * The temporary file is created owner-only, so it gets the permissions of the target or rw-r--r-- for a new file.
+     * File systems without POSIX permissions are left as they are.
+     */
+    private static void copyPermissions(Path target, Path tempFile) throws IOException {
+
+        if (!tempFile.getFileSystem().supportedFileAttributeViews().contains("posix")) {
+            return;
+        }
+
+        Set<PosixFilePermission> permissions = Files.exists(target) ? Files.getPosixFilePermissions(target) : DEFAULT_PERMISSIONS;
+
+        Files.setPosixFilePermissions(tempFile, permissions);
+    }
+
+    private static void deleteQuietly(Path file) {
+
+        if (Objects.isNull(file)) {
+            return;
+        }
+
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            // the temporary file has been moved or will be replaced by the next execution
+        }
+    }
+}
@@ -38,9 +38,10 @@ public class BlackDuckScanTemplateStageService implements TemplateStageService {
 
         MavenProject project = mojo.getProject();
 
-        return PipelineGeneratorUtil.getTemplate(getTemplateName())
-                .replace("%blackduck.url%", PipelineGeneratorUtil.getProperty(project, "blackduck.url", "${{ secrets.BLACK_DUCK_URL }}"))
-                .replace("%detect.project.name%", PipelineGeneratorUtil.getProperty(project, "detect.project.name", project.getArtifactId()))
-                .replace("%detect.project.version.name%", PipelineGeneratorUtil.getProperty(project, "detect.project.version.name", project.getVersion()));
+        return getTemplateRenderer(mojo, metaData)
+                .with("blackduck.url", PipelineGeneratorUtil.getProperty(project, "blackduck.url", "${{ secrets.BLACK_DUCK_URL }}"))
+                .with("detect.project.name", PipelineGeneratorUtil.getProperty(project, "detect.project.name", project.getArtifactId()))
+                .with("detect.project.version.name", PipelineGeneratorUtil.getProperty(project, "detect.project.version.name", project.getVersion()))
+                .render();
     }
 }
@@ -8,7 +8,7 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
 
-public class BuildTemplateStageService implements TemplateStageService {
+public class BuildTemplateStageService implements MavenTemplateStageService {
 
     private final VersioningTemplateStageService versioningTemplateStageService;
     private final SonarTemplateStageService sonarTemplateStageService;
@@ -45,8 +45,6 @@ public class BuildTemplateStageService implements TemplateStageService {
             return null;
         }
 
-        String template = PipelineGeneratorUtil.getTemplate(getTemplateName());
-
         List<String> needs = new ArrayList<>();
 
         if (sonarTemplateStageService.access(mojo, metaData)) {
@@ -89,9 +87,11 @@ public class BuildTemplateStageService implements TemplateStageService {
             copyCommand = "cp pom.xml artifact/target/";
         }
 
-        return template.replaceFirst("%NEEDS%", String.join(", ", String.join(", ", needs)))
-                .replace("%MKDIR_COMMAND%", mkdirCommand)
-                .replace("%COPY_COMMAND%", copyCommand)
-                .replace("%POM_ARTIFACT%", "'true'");
+        return getTemplateRenderer(mojo, metaData)
+                .with("NEEDS", String.join(", ", needs))
+                .with("MKDIR_COMMAND", mkdirCommand)
+                .with("COPY_COMMAND", copyCommand)
+                .with("POM_ARTIFACT", "'true'")
+                .render();
     }
 }
@@ -3,8 +3,10 @@ package de.microtema.maven.plugin.github.workflow.job;
 import de.microtema.maven.plugin.github.workflow.PipelineGeneratorMojo;
 import de.microtema.maven.plugin.github.workflow.PipelineGeneratorUtil;
 import de.microtema.maven.plugin.github.workflow.model.MetaData;
+import de.microtema.maven.plugin.github.workflow.template.TemplateRenderer;
+import org.apache.commons.lang3.StringUtils;
 
-public class CompileTemplateStageService implements TemplateStageService {
+public class CompileTemplateStageService implements MavenTemplateStageService {
 
     private final VersioningTemplateStageService versioningTemplateStageService;
 
@@ -25,8 +27,19 @@ public class CompileTemplateStageService implements TemplateStageService {
             return null;
         }
 
-        String template = PipelineGeneratorUtil.getTemplate(getTemplateName());
+        TemplateRenderer templateRenderer = getTemplateRenderer(mojo, metaData)
+                .with("NEEDS", versioningTemplateStageService.getTemplateName());
 
-        return template.replace("%NEEDS%", versioningTemplateStageService.getTemplateName());
+        if (!mojo.isCompileOnce()) {
+            return templateRenderer.render();
+        }
+
+        // the shared target folders are complete only if the whole reactor is compiled
+        return templateRenderer
+                .with("CHANGED_MODULES_NEEDS", StringUtils.EMPTY)
+                .with("CHANGED_MODULES", StringUtils.EMPTY)
+                .with("COMPILE_ARTIFACT_STEPS", PipelineGeneratorUtil.getSteps(PipelineGeneratorUtil.getTemplateRenderer("compile-artifact-upload")
+                        .with("COMPILE_PATHS", String.join(" ", PipelineGeneratorUtil.getCompilePaths(mojo.getProject())))))
+                .render();
     }
 }
@@ -44,19 +44,17 @@ public class DeploymentTemplateStageService implements TemplateStageService {
 
         return stageNames.stream().map(it -> {
 
-            String defaultTemplate = PipelineGeneratorUtil.getTemplate(getTemplateName());
-
-            defaultTemplate = PipelineGeneratorUtil.applyProperties(defaultTemplate, it, mojo.getVariables());
-
             String needs = promoteTemplateStageService.getJobIds(metaData, it);
 
             String workflow = ("[" + it + "] ").toUpperCase() + mojo.getProject().getName();
 
-            return defaultTemplate
-                    .replace("deployment:", multipleStages ? "deployment-" + it.toLowerCase() + ":" : "deployment:")
-                    .replace("%JOB_NAME%", PipelineGeneratorUtil.getJobName("Deployment", it.toUpperCase(), multipleStages))
-                    .replace("%NEEDS%", needs)
-                    .replace("%WORKFLOW%", workflow);
+            return getTemplateRenderer(mojo, metaData)
+                    .with("JOB_ID", multipleStages ? "deployment-" + it.toLowerCase() : "deployment")
+                    .with("JOB_NAME", PipelineGeneratorUtil.getJobName("Deployment", it.toUpperCase(), multipleStages))
+                    .with("NEEDS", needs)
+                    .with("WORKFLOW", workflow)
+                    .overrides(PipelineGeneratorUtil.getStageVariables(mojo.getProject(), it, mojo.getVariables()))
+                    .render();
 
         }).collect(Collectors.joining("\n"));
     }
@@ -78,8 +78,6 @@ public class DownstreamTemplateStageService implements TemplateStageService {
 
         return stageNames.stream().filter(downStreams::containsKey).map(it -> {
 
-            String defaultTemplate = PipelineGeneratorUtil.getTemplate(getTemplateName());
-
             String needs = getJobNames(mojo, metaData, it);
 
             String downStream = downStreams.get(it);
@@ -101,13 +99,13 @@ public class DownstreamTemplateStageService implements TemplateStageService {
             HashMap<String, Object> globalVariables = new HashMap<>(mojo.getVariables());
             globalVariables.put("DOWNSTREAM_REPOSITORY", downstreamRepository);
 
-            defaultTemplate = PipelineGeneratorUtil.applyProperties(defaultTemplate, it, globalVariables);
-
-            return defaultTemplate
-                    .replace("downstream:", multipleStages ? "downstream-" + jobId.toLowerCase() + ":" : "downstream:")
-                    .replace("%JOB_NAME%", jobName)
-                    .replace("%WORKFLOW%", workflowName)
-                    .replace("%NEEDS%", needs);
+            return getTemplateRenderer(mojo, metaData)
+                    .with("JOB_ID", multipleStages ? "downstream-" + jobId.toLowerCase() : "downstream")
+                    .with("JOB_NAME", jobName)
+                    .with("WORKFLOW", workflowName)
+                    .with("NEEDS", needs)
+                    .overrides(PipelineGeneratorUtil.getStageVariables(mojo.getProject(), it, globalVariables))
+                    .render();
 
         }).collect(Collectors.joining("\n"));
     }
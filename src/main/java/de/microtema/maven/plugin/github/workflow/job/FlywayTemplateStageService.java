@@ -4,7 +4,7 @@ import de.microtema.maven.plugin.github.workflow.PipelineGeneratorMojo;
 import de.microtema.maven.plugin.github.workflow.PipelineGeneratorUtil;
 import de.microtema.maven.plugin.github.workflow.model.MetaData;
 
-public class FlywayTemplateStageService implements TemplateStageService {
+public class FlywayTemplateStageService implements MavenTemplateStageService {
 
     @Override
     public String getJobId() {
@@ -28,6 +28,6 @@ public class FlywayTemplateStageService implements TemplateStageService {
             return null;
         }
 
-        return PipelineGeneratorUtil.getTemplate(getTemplateName());
+        return getTemplateRenderer(mojo, metaData).render();
     }
 }
@@ -46,32 +46,30 @@ public class HelmTemplateStageService implements TemplateStageService {
 
         List<String> stageNames = metaData.getStageNames();
 
-        boolean masterBranch = StringUtils.equalsIgnoreCase(metaData.getBranchName(), "master");
+        boolean masterBranch = PipelineGeneratorUtil.isCommitImageTag(metaData.getBranchName());
 
         boolean multipleStages = stageNames.size() > 1;
-        boolean sameDockerRegistry = PipelineGeneratorUtil.isSameDockerRegistry(stageNames);
+        boolean sameDockerRegistry = PipelineGeneratorUtil.isSameDockerRegistry(mojo.getProject(), stageNames);
 
         return stageNames.stream().map(it -> {
 
-            String template = PipelineGeneratorUtil.getTemplate(getTemplateName());
-
-            template = PipelineGeneratorUtil.applyProperties(template, it);
-
             String needs = getJobNeeds(mojo, metaData, it, sameDockerRegistry);
 
-            if (StringUtils.isNotEmpty(needs)) {
+            String template = getTemplateRenderer(mojo, metaData)
+                    .with("JOB_ID", multipleStages ? "deployment-" + it.toLowerCase() : "deployment")
+                    .with("JOB_NAME", PipelineGeneratorUtil.getJobName("Deployment", it, multipleStages))
+                    .with("NEEDS", StringUtils.defaultString(needs))
+                    .with("IMAGE_TAG", masterBranch ? "$VERSION.$SHORT_SHA" : "$VERSION")
+                    .with("STAGE_NAME", it)
+                    .overrides(PipelineGeneratorUtil.getStageVariables(mojo.getProject(), it))
+                    .render();
 
-                template = template.replaceAll("%NEEDS%", needs);
-            } else {
+            if (StringUtils.isEmpty(needs)) {
 
-                template = template.replaceAll("\\[ %NEEDS% \\]", "[ ]");
+                template = template.replace("needs: [  ]", "needs: [ ]");
             }
 
-            return template
-                    .replace("deployment:", multipleStages ? "deployment-" + it.toLowerCase() + ":" : "deployment:")
-                    .replace("%JOB_NAME%", PipelineGeneratorUtil.getJobName("Deployment", it, multipleStages))
-                    .replace("$VERSION.$SHORT_SHA", masterBranch ? "$VERSION.$SHORT_SHA" : "$VERSION")
-                    .replace("%STAGE_NAME%", it);
+            return template;
 
         }).collect(Collectors.joining());
     }
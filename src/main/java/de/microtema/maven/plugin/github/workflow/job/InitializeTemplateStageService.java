@@ -1,7 +1,9 @@
 package de.microtema.maven.plugin.github.workflow.job;
 
 import de.microtema.maven.plugin.github.workflow.PipelineGeneratorMojo;
+import de.microtema.maven.plugin.github.workflow.PipelineGeneratorUtil;
 import de.microtema.maven.plugin.github.workflow.model.MetaData;
+import org.apache.commons.lang3.StringUtils;
 
 public class InitializeTemplateStageService implements TemplateStageService {
 
@@ -10,4 +12,21 @@ public class InitializeTemplateStageService implements TemplateStageService {
 
         return true;
     }
+
+    @Override
+    public String getTemplate(PipelineGeneratorMojo mojo, MetaData metaData) {
+
+        String changedModulesOutputs = StringUtils.EMPTY;
+        String changedModulesSteps = StringUtils.EMPTY;
+
+        if (PipelineGeneratorUtil.isChangedModulesBuild(mojo, metaData)) {
+            changedModulesOutputs = "\n    modules: ${{ steps.changed-modules.outputs.modules }}";
+            changedModulesSteps = PipelineGeneratorUtil.getChangedModulesSteps(mojo.getProject(), metaData);
+        }
+
+        return getTemplateRenderer(mojo, metaData)
+                .with("CHANGED_MODULES_OUTPUTS", changedModulesOutputs)
+                .with("CHANGED_MODULES_STEPS", changedModulesSteps)
+                .render();
+    }
 }
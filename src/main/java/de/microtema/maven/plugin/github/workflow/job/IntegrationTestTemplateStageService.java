@@ -4,7 +4,7 @@ import de.microtema.maven.plugin.github.workflow.PipelineGeneratorMojo;
 import de.microtema.maven.plugin.github.workflow.PipelineGeneratorUtil;
 import de.microtema.maven.plugin.github.workflow.model.MetaData;
 
-public class IntegrationTestTemplateStageService implements TemplateStageService {
+public class IntegrationTestTemplateStageService implements MavenTemplateStageService {
 
     @Override
     public boolean access(PipelineGeneratorMojo mojo, MetaData metaData) {
@@ -28,6 +28,6 @@ public class IntegrationTestTemplateStageService implements TemplateStageService
             return null;
         }
 
-        return PipelineGeneratorUtil.getTemplate(getTemplateName());
+        return getTemplateRenderer(mojo, metaData).render();
     }
 }
@@ -8,7 +8,7 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
 
-public class LiquibaseTemplateStageService implements TemplateStageService {
+public class LiquibaseTemplateStageService implements MavenTemplateStageService {
 
     private final List<TemplateStageService> templateStageServices = new ArrayList<>();
 
@@ -45,20 +45,18 @@ public class LiquibaseTemplateStageService implements TemplateStageService {
 
         return stageNames.stream().map(it -> {
 
-            String defaultTemplate = PipelineGeneratorUtil.getTemplate(getTemplateName());
-
-            defaultTemplate = PipelineGeneratorUtil.applyProperties(defaultTemplate, it);
-
             String needs = templateStageServices.stream()
                     .filter(t -> t.access(mojo, metaData))
                     .findFirst().map(t -> t.getJobIds(metaData, it))
                     .orElse("build");
 
-            return defaultTemplate
-                    .replace("db-migration:", multipleStages ? "db-migration-" + it.toLowerCase() + ":" : "db-migration:")
-                    .replace("%JOB_NAME%", PipelineGeneratorUtil.getJobName("Database Changelog", it, multipleStages))
-                    .replace("%NEEDS%", needs)
-                    .replace("%STAGE_NAME%", it);
+            return getTemplateRenderer(mojo, metaData)
+                    .with("JOB_ID", multipleStages ? "db-migration-" + it.toLowerCase() : "db-migration")
+                    .with("JOB_NAME", PipelineGeneratorUtil.getJobName("Database Changelog", it, multipleStages))
+                    .with("NEEDS", needs)
+                    .with("STAGE_NAME", it)
+                    .overrides(PipelineGeneratorUtil.getStageVariables(mojo.getProject(), it))
+                    .render();
 
         }).collect(Collectors.joining("\n"));
     }
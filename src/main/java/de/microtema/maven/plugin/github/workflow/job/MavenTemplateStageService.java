@@ -0,0 +1,43 @@
+package de.microtema.maven.plugin.github.workflow.job;
+
+import de.microtema.maven.plugin.github.workflow.PipelineGeneratorMojo;
+import de.microtema.maven.plugin.github.workflow.PipelineGeneratorUtil;
+import de.microtema.maven.plugin.github.workflow.model.MetaData;
+import de.microtema.maven.plugin.github.workflow.model.ProjectCache;
+import de.microtema.maven.plugin.github.workflow.template.TemplateRenderer;
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Stage whose jobs run maven and therefore restore the local maven repository from the cache.
+ * <p>
+ * With compile-once the jobs after the compile job restore its target folders and versioned poms
+ * instead of setting the version and compiling again. With changed-modules the compile and unit test jobs
+ * build only the modules the initialize job found changed, the modules they depend on and the modules depending on them.
+ */
+public interface MavenTemplateStageService extends TemplateStageService {
+
+    String CHANGED_MODULES = "${{ needs.initialize.outputs.modules && format(' -pl {0} -am -amd', needs.initialize.outputs.modules) || '' }}";
+
+    @Override
+    default List<ProjectCache> getCaches(PipelineGeneratorMojo mojo, MetaData metaData) {
+
+        return Collections.singletonList(PipelineGeneratorUtil.getMavenCache(mojo.getProject()));
+    }
+
+    @Override
+    default TemplateRenderer getTemplateRenderer(PipelineGeneratorMojo mojo, MetaData metaData, String templateName) {
+
+        boolean compileOnce = mojo.isCompileOnce();
+        boolean changedModules = PipelineGeneratorUtil.isChangedModulesBuild(mojo, metaData);
+
+        return TemplateStageService.super.getTemplateRenderer(mojo, metaData, templateName)
+                .with("CHANGED_MODULES_NEEDS", changedModules ? ", initialize" : StringUtils.EMPTY)
+                .with("CHANGED_MODULES", changedModules ? CHANGED_MODULES : StringUtils.EMPTY)
+                .with("VERSIONS_STEPS", compileOnce ? StringUtils.EMPTY : PipelineGeneratorUtil.getSteps(PipelineGeneratorUtil.getTemplateRenderer("versions")))
+                .with("COMPILE_ARTIFACT_STEPS", compileOnce ? PipelineGeneratorUtil.getSteps(PipelineGeneratorUtil.getTemplateRenderer("compile-artifact-download")) : StringUtils.EMPTY)
+                .with("SKIP_COMPILE", compileOnce ? " -Dmaven.main.skip=true" : StringUtils.EMPTY);
+    }
+}
@@ -5,9 +5,10 @@ import de.microtema.maven.plugin.github.workflow.PipelineGeneratorUtil;
 import de.microtema.maven.plugin.github.workflow.model.MetaData;
 import org.apache.commons.lang3.StringUtils;
 
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
-import java.util.Properties;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -39,59 +40,155 @@ public class PackageTemplateStageService implements TemplateStageService {
         List<String> stageNames = metaData.getStageNames();
 
         boolean multipleStages = stageNames.size() > 1;
-        boolean sameDockerRegistry = PipelineGeneratorUtil.isSameDockerRegistry(stageNames);
-        boolean masterBranch = StringUtils.equalsIgnoreCase(metaData.getBranchName(), "master");
+        boolean sameDockerRegistry = PipelineGeneratorUtil.isSameDockerRegistry(mojo.getProject(), stageNames);
+        boolean masterBranch = PipelineGeneratorUtil.isCommitImageTag(metaData.getBranchName());
 
         String dockerTag = masterBranch ? "$VERSION.$SHORT_SHA" : "$VERSION";
 
         if (!multipleStages || sameDockerRegistry) {
 
-            String defaultTemplate = getSpecificTemplate(metaData.getStageName());
+            Map<String, Object> stageVariables = PipelineGeneratorUtil.getStageVariables(mojo.getProject(), metaData.getStageName());
 
-            defaultTemplate = PipelineGeneratorUtil.applyProperties(defaultTemplate, metaData.getStageName());
-
-            return getTemplate(defaultTemplate, "package", "Package", dockerTag);
+            return getTemplate(mojo, metaData, metaData.getStageName(), stageVariables, "package", "Package", dockerTag);
         }
 
         return stageNames.stream().map(it -> {
 
-            String defaultTemplate = getSpecificTemplate(it);
-
-            defaultTemplate = PipelineGeneratorUtil.applyProperties(defaultTemplate, it, mojo.getVariables());
+            Map<String, Object> stageVariables = PipelineGeneratorUtil.getStageVariables(mojo.getProject(), it, mojo.getVariables());
 
             String jobName = PipelineGeneratorUtil.getJobName("Package", it, multipleStages);
 
-            return getTemplate(defaultTemplate, "package-" + it.toLowerCase(), jobName, dockerTag);
+            return getTemplate(mojo, metaData, it, stageVariables, "package-" + it.toLowerCase(), jobName, dockerTag);
 
         }).collect(Collectors.joining("\n"));
     }
 
-    private String getSpecificTemplate(String stageName) {
+    private String getSpecificTemplateName(PipelineGeneratorMojo mojo, String stageName) {
 
-        Properties properties = PipelineGeneratorUtil.findProperties(stageName);
+        Map<String, String> properties = PipelineGeneratorUtil.findProperties(mojo.getProject(), stageName);
 
         if (Objects.isNull(properties)) {
 
-            return PipelineGeneratorUtil.getTemplate("docker-package");
+            return "docker-package";
         }
 
-        String accessKeyId = properties.getProperty("AWS_ACCESS_KEY_ID", null);
+        String accessKeyId = properties.get("AWS_ACCESS_KEY_ID");
 
         if (Objects.nonNull(accessKeyId)) {
-            return PipelineGeneratorUtil.getTemplate("ecr-docker-package");
+            return "ecr-docker-package";
         }
 
-        return PipelineGeneratorUtil.getTemplate("docker-package");
+        return "docker-package";
     }
 
-    private String getTemplate(String template, String jobId, String jobName, String imageTag) {
+    private String getTemplate(PipelineGeneratorMojo mojo, MetaData metaData, String stageName, Map<String, Object> stageVariables,
+                               String jobId, String jobName, String imageTag) {
 
         String needs = buildTemplateStageService.getJobId();
 
-        return template
-                .replace("package:", jobId + ":")
-                .replace("%JOB_NAME%", jobName)
-                .replace("%NEEDS%", needs)
-                .replace("$VERSION.$SHORT_SHA", imageTag);
+        String templateName = getSpecificTemplateName(mojo, stageName);
+
+        String jibModule = PipelineGeneratorUtil.findJibModule(mojo.getProject());
+
+        if (Objects.nonNull(jibModule) && StringUtils.equals(templateName, "docker-package")) {
+            return getJibTemplate(mojo, metaData, jibModule, stageVariables, jobId, jobName, imageTag);
+        }
+
+        String dockerCache = StringUtils.trimToEmpty(mojo.getDockerCache());
+
+        String dockerSetupSteps = StringUtils.EMPTY;
+
+        if (StringUtils.isNotEmpty(dockerCache)) {
+            dockerSetupSteps = PipelineGeneratorUtil.getSteps(PipelineGeneratorUtil.getTemplateRenderer("docker-buildx"));
+        }
+
+        // the gha cache backend reads the runtime token and url of the github actions cache from the environment
+        if (StringUtils.equals(dockerCache, "gha")) {
+            dockerSetupSteps += PipelineGeneratorUtil.getSteps(PipelineGeneratorUtil.getTemplateRenderer("docker-github-runtime"));
+        }
+
+        return PipelineGeneratorUtil.getTemplateRenderer(templateName)
+                .context(mojo.getWorkflowContext(metaData))
+                .with("JOB_ID", jobId)
+                .with("JOB_NAME", jobName)
+                .with("NEEDS", needs)
+                .with("IMAGE_TAG", imageTag)
+                .with("DOCKER_SETUP_STEPS", dockerSetupSteps)
+                .with("DOCKER_BUILD", getDockerBuild(dockerCache, templateName, stageName))
+                .overrides(stageVariables)
+                .render();
+    }
+
+    /**
+     * Daemonless jib build which pushes the layered image straight to the registry. It runs from the classes of the
+     * compile-artifact with compile-once, else from the jar of the build job, after the versions are set as in the
+     * build job. A jib module of a reactor first installs itself and the modules it depends on (-pl -am), as the
+     * package job has no local repository with the sibling SNAPSHOT modules; this compiles these modules again,
+     * unless their classes come from the compile-artifact and are up to date. Jib itself runs on the jib module only,
+     * the sibling modules do not configure the jib-maven-plugin.
+     */
+    private String getJibTemplate(PipelineGeneratorMojo mojo, MetaData metaData, String jibModule, Map<String, Object> stageVariables,
+                                  String jobId, String jobName, String imageTag) {
+
+        boolean compileOnce = mojo.isCompileOnce();
+
+        String compileArtifactSteps = StringUtils.EMPTY;
+
+        if (compileOnce) {
+            compileArtifactSteps = PipelineGeneratorUtil.getSteps(PipelineGeneratorUtil.getTemplateRenderer("compile-artifact-download"));
+        }
+
+        String jibDependencySteps = StringUtils.EMPTY;
+
+        if (StringUtils.isNotEmpty(jibModule)) {
+            jibDependencySteps = PipelineGeneratorUtil.getSteps(PipelineGeneratorUtil.getTemplateRenderer("jib-dependencies").with("JIB_MODULE", jibModule));
+        }
+
+        return PipelineGeneratorUtil.getTemplateRenderer("jib-package")
+                .context(mojo.getWorkflowContext(metaData))
+                .with("CACHE_STEPS", PipelineGeneratorUtil.getCacheSteps(Collections.singletonList(PipelineGeneratorUtil.getMavenCache(mojo.getProject()))))
+                .with("JOB_ID", jobId)
+                .with("JOB_NAME", jobName)
+                .with("NEEDS", buildTemplateStageService.getJobId())
+                .with("IMAGE_TAG", imageTag)
+                .with("VERSIONS_STEPS", compileOnce ? StringUtils.EMPTY : PipelineGeneratorUtil.getSteps(PipelineGeneratorUtil.getTemplateRenderer("versions")))
+                .with("COMPILE_ARTIFACT_STEPS", compileArtifactSteps)
+                .with("JIB_PROJECTS", StringUtils.isEmpty(jibModule) ? StringUtils.EMPTY : " -pl " + jibModule)
+                .with("JIB_DEPENDENCY_STEPS", jibDependencySteps)
+                .with("JIB_CONTAINERIZING_MODE", compileOnce ? "exploded" : "packaged")
+                .overrides(stageVariables)
+                .render();
+    }
+
+    /**
+     * Plain docker build, or a buildx build which loads the image for the push and caches its layers either
+     * in the registry next to the image (registry) or in the github actions cache (gha), per app and stage.
+     */
+    private static String getDockerBuild(String dockerCache, String templateName, String stageName) {
+
+        String cacheFrom;
+        String cacheTo;
+
+        String stageSuffix = StringUtils.isEmpty(stageName) ? StringUtils.EMPTY : "-" + stageName.toLowerCase();
+
+        switch (dockerCache) {
+            case "":
+                return "docker build";
+            case "registry":
+                boolean ecr = StringUtils.equals(templateName, "ecr-docker-package");
+                String cacheRef = (ecr ? "$ECR_REGISTRY" : "$DOCKER_REGISTRY") + "/$APP_NAME:buildcache" + stageSuffix;
+                cacheFrom = "type=registry,ref=" + cacheRef;
+                cacheTo = "type=registry,ref=" + cacheRef + ",mode=max" + (ecr ? ",image-manifest=true,oci-mediatypes=true" : StringUtils.EMPTY);
+                break;
+            case "gha":
+                String scope = "$APP_NAME" + stageSuffix;
+                cacheFrom = "type=gha,scope=" + scope;
+                cacheTo = "type=gha,scope=" + scope + ",mode=max";
+                break;
+            default:
+                throw new IllegalStateException("Unsupported docker cache: " + dockerCache + ", use registry or gha");
+        }
+
+        return "docker buildx build --load --cache-from " + cacheFrom + " --cache-to " + cacheTo;
     }
 }
@@ -10,7 +10,7 @@ import java.util.List;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
-public class PerformanceTestTemplateStageService implements TemplateStageService {
+public class PerformanceTestTemplateStageService implements MavenTemplateStageService {
 
     private final List<TemplateStageService> templateStageServices = new ArrayList<>();
 
@@ -55,21 +55,19 @@ public class PerformanceTestTemplateStageService implements TemplateStageService
 
         return stageNames.stream().map(it -> {
 
-            String defaultTemplate = PipelineGeneratorUtil.getTemplate(getTemplateName());
-
-            defaultTemplate = PipelineGeneratorUtil.applyProperties(defaultTemplate, it);
-
             String needs = templateStageServices.stream().filter(e -> e.access(mojo, metaData))
                     .map(e -> e.getJobIds(metaData, it))
                     .collect(Collectors.joining(", "));
 
-            boolean privateNetwork = PipelineGeneratorUtil.isPrivateNetwork(it);
+            boolean privateNetwork = PipelineGeneratorUtil.isPrivateNetwork(mojo.getProject(), it);
 
-            return defaultTemplate
-                    .replace("performance-test:", multipleStages ? "performance-test-" + it.toLowerCase() + ":" : "performance-test:")
-                    .replace("%JOB_NAME%", PipelineGeneratorUtil.getJobName("Performance Test", it, multipleStages))
-                    .replaceAll("%PRIVATE_NETWORK%", String.valueOf(privateNetwork))
-                    .replace("%NEEDS%", needs);
+            return getTemplateRenderer(mojo, metaData)
+                    .with("JOB_ID", multipleStages ? "performance-test-" + it.toLowerCase() : "performance-test")
+                    .with("JOB_NAME", PipelineGeneratorUtil.getJobName("Performance Test", it, multipleStages))
+                    .with("PRIVATE_NETWORK", String.valueOf(privateNetwork))
+                    .with("NEEDS", needs)
+                    .overrides(PipelineGeneratorUtil.getStageVariables(mojo.getProject(), it))
+                    .render();
 
         }).collect(Collectors.joining(System.lineSeparator()));
     }
@@ -50,20 +50,18 @@ public class PromoteTemplateStageService implements TemplateStageService {
 
         return stageNames.stream().map(it -> {
 
-            String defaultTemplate = PipelineGeneratorUtil.getTemplate(getTemplateName());
-
-            defaultTemplate = PipelineGeneratorUtil.applyProperties(defaultTemplate, it);
-
             String needs = packageTemplateStageService.getJobId();
 
             if (tagTemplateStageService.access(mojo, metaData)) {
                 needs = tagTemplateStageService.getJobId();
             }
 
-            return defaultTemplate
-                    .replace("promote:", multipleStages ? "promote-" + it.toLowerCase() + ":" : "promote:")
-                    .replace("%JOB_NAME%", PipelineGeneratorUtil.getJobName("Promote Env", it, multipleStages))
-                    .replace("%NEEDS%", needs);
+            return getTemplateRenderer(mojo, metaData)
+                    .with("JOB_ID", multipleStages ? "promote-" + it.toLowerCase() : "promote")
+                    .with("JOB_NAME", PipelineGeneratorUtil.getJobName("Promote Env", it, multipleStages))
+                    .with("NEEDS", needs)
+                    .overrides(PipelineGeneratorUtil.getStageVariables(mojo.getProject(), it))
+                    .render();
 
         }).collect(Collectors.joining("\n"));
     }
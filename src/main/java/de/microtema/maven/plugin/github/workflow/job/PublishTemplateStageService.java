@@ -7,7 +7,7 @@ import org.apache.commons.lang3.StringUtils;
 
 import java.util.stream.Stream;
 
-public class PublishTemplateStageService implements TemplateStageService {
+public class PublishTemplateStageService implements MavenTemplateStageService {
 
     private final BuildTemplateStageService buildTemplateStageService;
 
@@ -40,9 +40,6 @@ public class PublishTemplateStageService implements TemplateStageService {
             return null;
         }
 
-        String template = PipelineGeneratorUtil.getTemplate(getTemplateName());
-        template = PipelineGeneratorUtil.applyProperties(template, mojo.getVariables());
-
         String needs = buildTemplateStageService.getJobId();
 
         if (tagTemplateStageService.access(mojo, metaData)) {
@@ -50,6 +47,9 @@ public class PublishTemplateStageService implements TemplateStageService {
             needs = tagTemplateStageService.getJobId();
         }
 
-        return template.replace("%NEEDS%", needs);
+        return getTemplateRenderer(mojo, metaData)
+                .with("NEEDS", needs)
+                .overrides(mojo.getVariables())
+                .render();
     }
 }
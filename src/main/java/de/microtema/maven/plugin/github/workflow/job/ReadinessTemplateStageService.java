@@ -43,18 +43,16 @@ public class ReadinessTemplateStageService implements TemplateStageService {
 
         return stageNames.stream().map(it -> {
 
-            String defaultTemplate = PipelineGeneratorUtil.getTemplate(getTemplateName());
-
-            defaultTemplate = PipelineGeneratorUtil.applyProperties(defaultTemplate, it, mojo.getVariables());
-
             String needs = templateStageServices.stream().filter(e -> e.access(mojo, metaData))
                     .map(e -> e.getJobIds(metaData, it))
                     .collect(Collectors.joining(", "));
 
-            return defaultTemplate
-                    .replace("readiness:", multipleStages ? "readiness-" + it.toLowerCase() + ":" : "readiness:")
-                    .replace("%JOB_NAME%", PipelineGeneratorUtil.getJobName("Readiness Check", it, multipleStages))
-                    .replace("%NEEDS%", needs);
+            return getTemplateRenderer(mojo, metaData)
+                    .with("JOB_ID", multipleStages ? "readiness-" + it.toLowerCase() : "readiness")
+                    .with("JOB_NAME", PipelineGeneratorUtil.getJobName("Readiness Check", it, multipleStages))
+                    .with("NEEDS", needs)
+                    .overrides(PipelineGeneratorUtil.getStageVariables(mojo.getProject(), it, mojo.getVariables()))
+                    .render();
 
         }).collect(Collectors.joining("\n"));
     }
@@ -23,12 +23,12 @@ public class RollbackTemplateStageService implements TemplateStageService {
             return null;
         }
 
-        String template = PipelineGeneratorUtil.getTemplate(getTemplateName());
         String stageName = metaData.getStageName();
-        template = PipelineGeneratorUtil.applyProperties(template, stageName);
 
-        return template
-                .replace("%JOB_NAME%", "[" + stageName.toUpperCase() + "] Rollback")
-                .replace("%STAGE_NAME%", stageName);
+        return getTemplateRenderer(mojo, metaData)
+                .with("JOB_NAME", "[" + stageName.toUpperCase() + "] Rollback")
+                .with("STAGE_NAME", stageName)
+                .overrides(PipelineGeneratorUtil.getStageVariables(mojo.getProject(), stageName))
+                .render();
     }
 }
@@ -8,7 +8,7 @@ import org.apache.commons.lang3.StringUtils;
 import java.util.ArrayList;
 import java.util.List;
 
-public class SonarTemplateStageService implements TemplateStageService {
+public class SonarTemplateStageService implements MavenTemplateStageService {
 
     @Override
     public String getJobId() {
@@ -36,8 +36,6 @@ public class SonarTemplateStageService implements TemplateStageService {
             return null;
         }
 
-        String template = PipelineGeneratorUtil.getTemplate(getTemplateName());
-
         List<String> sonarExcludes = PipelineGeneratorUtil.getSonarExcludes(mojo.getProject());
 
         List<String> needs = new ArrayList<>();
@@ -49,15 +47,24 @@ public class SonarTemplateStageService implements TemplateStageService {
 
         String branchNameSupport = PipelineGeneratorUtil.getProperty(mojo.getProject(), "sonar.branch.name.support", "false");
 
+        String sonarBranch = StringUtils.EMPTY;
+
         if (StringUtils.equalsIgnoreCase(branchNameSupport, "true")) {
 
-            template = template.replace("$SONAR_TOKEN", "$SONAR_TOKEN -Dsonar.branch.name=${GITHUB_REF##*/}");
+            sonarBranch = " -Dsonar.branch.name=${GITHUB_REF##*/}";
         }
 
-        template = template.replaceFirst("%NEEDS%", String.join(", ", needs));
+        return getTemplateRenderer(mojo, metaData)
+                .with("NEEDS", String.join(", ", needs))
+                .with("SONAR_BRANCH", sonarBranch)
+                .with("SONAR_EXCLUDES", getSonarExcludes(sonarExcludes))
+                .render();
+    }
+
+    private String getSonarExcludes(List<String> sonarExcludes) {
 
         if (sonarExcludes.isEmpty()) {
-            return template;
+            return StringUtils.EMPTY;
         }
 
         StringBuilder excludes = new StringBuilder(" -pl ");
@@ -73,6 +80,6 @@ public class SonarTemplateStageService implements TemplateStageService {
             }
         }
 
-        return template.replaceFirst("sonar:sonar", "sonar:sonar" + excludes);
+        return excludes.toString();
     }
 }
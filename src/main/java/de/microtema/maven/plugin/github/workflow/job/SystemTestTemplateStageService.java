@@ -3,6 +3,7 @@ package de.microtema.maven.plugin.github.workflow.job;
 import de.microtema.maven.plugin.github.workflow.PipelineGeneratorMojo;
 import de.microtema.maven.plugin.github.workflow.PipelineGeneratorUtil;
 import de.microtema.maven.plugin.github.workflow.model.MetaData;
+import de.microtema.maven.plugin.github.workflow.template.TemplateRenderer;
 import org.apache.commons.lang3.StringUtils;
 
 import java.util.List;
@@ -11,7 +12,7 @@ import java.util.stream.Stream;
 
 import static de.microtema.maven.plugin.github.workflow.PipelineGeneratorUtil.parseTestType;
 
-public class SystemTestTemplateStageService implements TemplateStageService {
+public class SystemTestTemplateStageService implements MavenTemplateStageService {
 
     private final ReadinessTemplateStageService readinessTemplateStageService;
 
@@ -61,24 +62,50 @@ public class SystemTestTemplateStageService implements TemplateStageService {
 
         return stageNames.stream().map(it -> {
 
-            String defaultTemplate = regressionTestTypes.stream()
-                    .map(f -> getTemplate(f, it, regressionTestTypes.size() > 1, multipleStages))
-                    .collect(Collectors.joining("\n"));
-
             String needs = readinessTemplateStageService.getJobIds(metaData, it);
-            boolean privateNetwork = PipelineGeneratorUtil.isPrivateNetwork(it);
-
-            return defaultTemplate.replace("%NEEDS%", needs)
-                    .replaceAll("%PRIVATE_NETWORK%", String.valueOf(privateNetwork));
+            boolean privateNetwork = PipelineGeneratorUtil.isPrivateNetwork(mojo.getProject(), it);
+
+            if (mojo.isSystemTestMatrix()) {
+                return getMatrixTemplate(mojo, metaData, regressionTestTypes, it, multipleStages)
+                        .with("NEEDS", needs)
+                        .with("PRIVATE_NETWORK", String.valueOf(privateNetwork))
+                        .render();
+            }
+
+            return regressionTestTypes.stream()
+                    .map(f -> getTemplate(mojo, metaData, f, it, regressionTestTypes.size() > 1, multipleStages)
+                            .with("NEEDS", needs)
+                            .with("PRIVATE_NETWORK", String.valueOf(privateNetwork))
+                            .render())
+                    .collect(Collectors.joining("\n"));
 
         }).collect(Collectors.joining("\n"));
     }
 
-    private String getTemplate(String testType, String stageName, boolean multipleTests, boolean multipleStages) {
+    /**
+     * One job per stage with the same job id as the single test type job, running the test types as matrix.
+     */
+    private TemplateRenderer getMatrixTemplate(PipelineGeneratorMojo mojo, MetaData metaData, List<String> testTypes, String stageName, boolean multipleStages) {
 
-        String template = PipelineGeneratorUtil.getTemplate(getTemplateName());
+        String jobId = multipleStages ? "system-test-" + stageName.toLowerCase() : "system-test";
+
+        String maxParallel = mojo.getSystemTestMaxParallel() > 0 ? "\n    max-parallel: " + mojo.getSystemTestMaxParallel() : StringUtils.EMPTY;
+
+        String matrixInclude = testTypes.stream()
+                .map(it -> "        - source-type: " + it + "\n          test-type: " + parseTestType(it))
+                .collect(Collectors.joining("\n"));
+
+        return getTemplateRenderer(mojo, metaData, "system-test-matrix")
+                .with("JOB_ID", jobId)
+                .with("JOB_NAME", PipelineGeneratorUtil.getJobName("System Test (${{ matrix.test-type }})", stageName, multipleStages))
+                .with("FAIL_FAST", String.valueOf(mojo.isSystemTestFailFast()))
+                .with("MAX_PARALLEL", maxParallel)
+                .with("MATRIX_INCLUDE", matrixInclude)
+                .with("STAGE_NAME", stageName.toLowerCase())
+                .overrides(PipelineGeneratorUtil.getStageVariables(mojo.getProject(), stageName));
+    }
 
-        template = PipelineGeneratorUtil.applyProperties(template, stageName);
+    private TemplateRenderer getTemplate(PipelineGeneratorMojo mojo, MetaData metaData, String testType, String stageName, boolean multipleTests, boolean multipleStages) {
 
         String jobId = "system-test";
         String jobName = PipelineGeneratorUtil.getJobName("System Test", stageName, multipleStages);
@@ -92,11 +119,12 @@ public class SystemTestTemplateStageService implements TemplateStageService {
             jobName = PipelineGeneratorUtil.getJobName("System Test (" + testType.toUpperCase() + ")", stageName, multipleStages);
         }
 
-        return template
-                .replace("system-test:", jobId + ":")
-                .replace("%JOB_NAME%", PipelineGeneratorUtil.getJobName("System Test", jobName, multipleStages))
-                .replace("%TEST_TYPE%", parseTestType(testType))
-                .replace("%SOURCE_TYPE%", testType)
-                .replace("%STAGE_NAME%", stageName.toLowerCase());
+        return getTemplateRenderer(mojo, metaData)
+                .with("JOB_ID", jobId)
+                .with("JOB_NAME", PipelineGeneratorUtil.getJobName("System Test", jobName, multipleStages))
+                .with("TEST_TYPE", parseTestType(testType))
+                .with("SOURCE_TYPE", testType)
+                .with("STAGE_NAME", stageName.toLowerCase())
+                .overrides(PipelineGeneratorUtil.getStageVariables(mojo.getProject(), stageName));
     }
 }
@@ -32,17 +32,16 @@ public class TagTemplateStageService implements TemplateStageService {
             return null;
         }
 
-        String template = PipelineGeneratorUtil.getTemplate(getTemplateName());
-
-        String needs = getJobNeeds(mojo, metaData);
-
-        return template.replace("%NEEDS%", needs).replace("%APP_DISPLAY_NAME%", mojo.getAppDisplayName());
+        return getTemplateRenderer(mojo, metaData)
+                .with("NEEDS", getJobNeeds(mojo, metaData))
+                .with("APP_DISPLAY_NAME", mojo.getAppDisplayName())
+                .render();
     }
 
     private String getJobNeeds(PipelineGeneratorMojo mojo, MetaData metaData) {
 
         List<String> stageNames = metaData.getStageNames();
-        boolean sameDockerRegistry = PipelineGeneratorUtil.isSameDockerRegistry(stageNames);
+        boolean sameDockerRegistry = PipelineGeneratorUtil.isSameDockerRegistry(mojo.getProject(), stageNames);
 
         if (packageTemplateStageService.access(mojo, metaData)) {
 
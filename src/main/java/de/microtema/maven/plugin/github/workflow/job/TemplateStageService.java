@@ -4,10 +4,14 @@ import de.microtema.maven.plugin.github.workflow.PipelineGeneratorMojo;
 import de.microtema.maven.plugin.github.workflow.PipelineGeneratorUtil;
 import de.microtema.maven.plugin.github.workflow.model.JobData;
 import de.microtema.maven.plugin.github.workflow.model.MetaData;
+import de.microtema.maven.plugin.github.workflow.model.ProjectCache;
+import de.microtema.maven.plugin.github.workflow.model.WorkflowGraph;
+import de.microtema.maven.plugin.github.workflow.template.TemplateRenderer;
 import org.apache.commons.collections4.CollectionUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.text.WordUtils;
 
+import java.util.Collections;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -65,7 +69,53 @@ public interface TemplateStageService {
             return null;
         }
 
-        return PipelineGeneratorUtil.getTemplate(getTemplateName());
+        return getTemplateRenderer(mojo, metaData).render();
+    }
+
+    /**
+     * Add the jobs of this stage to the workflow graph.
+     *
+     * @param mojo          may not be null
+     * @param metaData      may not be null
+     * @param workflowGraph may not be null
+     */
+    default void contribute(PipelineGeneratorMojo mojo, MetaData metaData, WorkflowGraph workflowGraph) {
+
+        int index = workflowGraph.getJobs().size();
+
+        workflowGraph.addJobs(getTemplate(mojo, metaData));
+
+        List<ProjectCache> caches = getCaches(mojo, metaData);
+
+        workflowGraph.getJobs().subList(index, workflowGraph.getJobs().size()).forEach(it -> it.setCaches(caches));
+    }
+
+    /**
+     * @param mojo     may not be null
+     * @param metaData may not be null
+     * @return caches restored and saved by the jobs of this stage
+     */
+    default List<ProjectCache> getCaches(PipelineGeneratorMojo mojo, MetaData metaData) {
+
+        return Collections.emptyList();
+    }
+
+    default TemplateRenderer getTemplateRenderer(PipelineGeneratorMojo mojo, MetaData metaData) {
+
+        return getTemplateRenderer(mojo, metaData, getTemplateName());
+    }
+
+    /**
+     * @param mojo         may not be null
+     * @param metaData     may not be null
+     * @param templateName may not be null
+     * @return renderer of the given template with the workflow context and the steps shared by the jobs of this stage
+     */
+    default TemplateRenderer getTemplateRenderer(PipelineGeneratorMojo mojo, MetaData metaData, String templateName) {
+
+        return PipelineGeneratorUtil.getTemplateRenderer(templateName)
+                .context(mojo.getWorkflowContext(metaData))
+                .with("CACHE_STEPS", PipelineGeneratorUtil.getCacheSteps(getCaches(mojo, metaData)));
     }
 
     default boolean access(PipelineGeneratorMojo mojo, MetaData metaData) {
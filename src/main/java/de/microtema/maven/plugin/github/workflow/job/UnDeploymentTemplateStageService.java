@@ -55,17 +55,15 @@ public class UnDeploymentTemplateStageService implements TemplateStageService {
 
         return stageNames.stream().map(it -> {
 
-            String defaultTemplate = PipelineGeneratorUtil.getTemplate(getTemplateName());
-
-            defaultTemplate = PipelineGeneratorUtil.applyProperties(defaultTemplate, it, mojo.getVariables());
-
             String needs = readinessTemplateStageService.getJobIds(metaData, it);
 
-            return defaultTemplate
-                    .replace("undeploy:", multipleStages ? "undeploy-" + it.toLowerCase() + ":" : "undeploy:")
-                    .replace("%JOB_NAME%", PipelineGeneratorUtil.getJobName("Undeploy", it.toUpperCase(), multipleStages))
-                    .replace("%NEEDS%", needs)
-                    .replace("%WORKFLOW%", getUndeployPipelineName(it, mojo.getProject().getName()));
+            return getTemplateRenderer(mojo, metaData)
+                    .with("JOB_ID", multipleStages ? "undeploy-" + it.toLowerCase() : "undeploy")
+                    .with("JOB_NAME", PipelineGeneratorUtil.getJobName("Undeploy", it.toUpperCase(), multipleStages))
+                    .with("NEEDS", needs)
+                    .with("WORKFLOW", getUndeployPipelineName(it, mojo.getProject().getName()))
+                    .overrides(PipelineGeneratorUtil.getStageVariables(mojo.getProject(), it, mojo.getVariables()))
+                    .render();
 
         }).collect(Collectors.joining("\n"));
     }
@@ -3,12 +3,16 @@ package de.microtema.maven.plugin.github.workflow.job;
 import de.microtema.maven.plugin.github.workflow.PipelineGeneratorMojo;
 import de.microtema.maven.plugin.github.workflow.PipelineGeneratorUtil;
 import de.microtema.maven.plugin.github.workflow.model.MetaData;
+import de.microtema.maven.plugin.github.workflow.project.ProjectLayout;
+import de.microtema.maven.plugin.github.workflow.project.TestShards;
 
 import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
 
-public class UnitTestTemplateStageService implements TemplateStageService {
+public class UnitTestTemplateStageService implements MavenTemplateStageService {
+
+    private static final String SHARD_DIR = "artifact/jacoco/${{ matrix.shard }}";
 
     @Override
     public boolean access(PipelineGeneratorMojo mojo, MetaData metaData) {
@@ -27,7 +31,11 @@ public class UnitTestTemplateStageService implements TemplateStageService {
             return null;
         }
 
-        String template = PipelineGeneratorUtil.getTemplate(getTemplateName());
+        List<List<String>> shards = getShards(mojo);
+
+        if (shards.size() > 1) {
+            return getMatrixTemplate(mojo, metaData, shards);
+        }
 
         String mkdirCommand = "mkdir -p artifact/target/surefire-reports";
         String copyCommand = "cp -r target/surefire-reports/* artifact/target/surefire-reports/";
@@ -35,7 +43,12 @@ public class UnitTestTemplateStageService implements TemplateStageService {
 
         List<String> modules = new ArrayList<>(mojo.getProject().getModules());
 
-        if (!modules.isEmpty()) {
+        if (PipelineGeneratorUtil.isChangedModulesBuild(mojo, metaData)) {
+            // modules which are not changed have no reports
+            String padding = "        ";
+            copyCommand = modules.stream().map(it -> "if [ -d " + it + "/target/surefire-reports ]; then cp -r " + it + "/target/surefire-reports/. artifact/target/surefire-reports/; fi").collect(Collectors.joining(System.lineSeparator() + padding));
+            copyFileCommand = modules.stream().map(it -> "if [ -f " + it + "/target/jacoco.exec ]; then mv " + it + "/target/jacoco.exec artifact/target/surefire-reports/" + it + ".exec; fi").collect(Collectors.joining(System.lineSeparator() + padding));
+        } else if (!modules.isEmpty()) {
             String padding = "        ";
             copyCommand = modules.stream().map(it -> "cp -r " + it + "/target/surefire-reports/* artifact/target/surefire-reports/").collect(Collectors.joining(System.lineSeparator() + padding));
             copyFileCommand = modules.stream().map(it -> "mv " + it + "/target/jacoco.exec artifact/target/surefire-reports/" + it + ".exec").collect(Collectors.joining(System.lineSeparator() + padding));
@@ -44,8 +57,110 @@ public class UnitTestTemplateStageService implements TemplateStageService {
             copyFileCommand = "echo no jacoco.exec to copy";
         }
 
-        return template.replace("%MKDIR_COMMAND%", mkdirCommand)
-                .replace("%COPY_COMMAND%", copyCommand)
-                .replace("%COPY_FILE_COMMAND%", copyFileCommand);
+        return getTemplateRenderer(mojo, metaData)
+                .with("MKDIR_COMMAND", mkdirCommand)
+                .with("COPY_COMMAND", copyCommand)
+                .with("COPY_FILE_COMMAND", copyFileCommand)
+                .render();
+    }
+
+    /**
+     * @param mojo may not be null
+     * @return unit test classes per shard, a single shard if the unit tests are not split
+     */
+    List<List<String>> getShards(PipelineGeneratorMojo mojo) {
+
+        if (mojo.getUnitTestShards() < 2 || PipelineGeneratorUtil.isMavenPomRepo(mojo.getProject())) {
+            return new ArrayList<>();
+        }
+
+        List<String> classNames = ProjectLayout.of(mojo.getProject()).getTestSources().getUnitTestClasses();
+
+        if (classNames.size() < 2) {
+            return new ArrayList<>();
+        }
+
+        return TestShards.plan(classNames, mojo.getTestTimings(), mojo.getUnitTestShards());
+    }
+
+    /**
+     * Each shard but the last runs its test classes, the last shard runs all other test classes,
+     * so test classes added after the generation still run. The unit-test job merges the surefire reports
+     * and jacoco.exec files of the shards into the target-artifact.
+     */
+    private String getMatrixTemplate(PipelineGeneratorMojo mojo, MetaData metaData, List<List<String>> shards) {
+
+        String padding = "        ";
+
+        List<String> reportDirs = new ArrayList<>();
+        List<String> execFiles = new ArrayList<>();
+
+        List<String> modules = new ArrayList<>(mojo.getProject().getModules());
+
+        if (modules.isEmpty()) {
+            reportDirs.add("target/surefire-reports");
+            execFiles.add("jacoco.exec");
+        } else {
+            modules.forEach(it -> reportDirs.add(it + "/target/surefire-reports"));
+            modules.forEach(it -> execFiles.add(it + ".exec"));
+        }
+
+        String copyCommand = reportDirs.stream()
+                .map(it -> "if [ -d " + it + " ]; then cp -r " + it + "/. artifact/target/surefire-reports/; fi")
+                .collect(Collectors.joining(System.lineSeparator() + padding));
+
+        String copyFileCommand;
+
+        if (modules.isEmpty()) {
+            copyFileCommand = "if [ -f target/jacoco.exec ]; then cp target/jacoco.exec " + SHARD_DIR + "/jacoco.exec; fi";
+        } else {
+            copyFileCommand = modules.stream()
+                    .map(it -> "if [ -f " + it + "/target/jacoco.exec ]; then cp " + it + "/target/jacoco.exec " + SHARD_DIR + "/" + it + ".exec; fi")
+                    .collect(Collectors.joining(System.lineSeparator() + padding));
+        }
+
+        String jacocoVersion = PipelineGeneratorUtil.getProperty(mojo.getProject(), "jacoco.version", "0.8.8");
+
+        String mergeCommand = execFiles.stream()
+                .map(it -> "files=$(find shards/jacoco -name '" + it + "'); if [ -n \"$files\" ]; then java -jar target/jacoco-cli/org.jacoco.cli-" + jacocoVersion + "-nodeps.jar merge $files --destfile artifact/target/surefire-reports/" + it + "; fi")
+                .collect(Collectors.joining(System.lineSeparator() + padding));
+
+        return getTemplateRenderer(mojo, metaData, "unit-test-matrix")
+                .with("SHARD_COUNT", shards.size())
+                .with("MATRIX_INCLUDE", getMatrixInclude(shards))
+                .with("MKDIR_COMMAND", "mkdir -p artifact/target/surefire-reports " + SHARD_DIR)
+                .with("COPY_COMMAND", copyCommand)
+                .with("COPY_FILE_COMMAND", copyFileCommand)
+                .with("JACOCO_VERSION", jacocoVersion)
+                .with("MERGE_COMMAND", mergeCommand)
+                .render();
+    }
+
+    private static String getMatrixInclude(List<List<String>> shards) {
+
+        StringBuilder include = new StringBuilder();
+
+        List<String> otherClassNames = new ArrayList<>();
+
+        for (int index = 0; index < shards.size(); index++) {
+
+            String tests;
+
+            if (index < shards.size() - 1) {
+                tests = String.join(",", shards.get(index));
+                otherClassNames.addAll(shards.get(index));
+            } else {
+                tests = otherClassNames.stream().map(it -> "!" + it).collect(Collectors.joining(","));
+            }
+
+            if (index > 0) {
+                include.append("\n");
+            }
+
+            include.append("        - shard: ").append(index + 1).append("\n")
+                    .append("          tests: '").append(tests).append("'");
+        }
+
+        return include.toString();
     }
 }
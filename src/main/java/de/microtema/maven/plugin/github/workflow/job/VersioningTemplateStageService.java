@@ -5,7 +5,7 @@ import de.microtema.maven.plugin.github.workflow.PipelineGeneratorUtil;
 import de.microtema.maven.plugin.github.workflow.model.MetaData;
 import org.apache.commons.lang3.StringUtils;
 
-public class VersioningTemplateStageService implements TemplateStageService {
+public class VersioningTemplateStageService implements MavenTemplateStageService {
 
     @Override
     public boolean access(PipelineGeneratorMojo mojo, MetaData metaData) {
@@ -25,7 +25,7 @@ public class VersioningTemplateStageService implements TemplateStageService {
             return null;
         }
 
-        String template = PipelineGeneratorUtil.getTemplate(getTemplateName());
+        String template = getTemplateRenderer(mojo, metaData).render();
 
         if (StringUtils.equals(metaData.getBranchName(), "develop") || StringUtils.equals(metaData.getBranchName(), "feature")) {
 
@@ -39,14 +39,13 @@ public class BuildTemplateStageService implements TemplateStageService {
             return null;
         }
 
-        String defaultTemplate = PipelineGeneratorUtil.getTemplate(getTemplateName());
-
         String needs = templateStageServices.stream().filter(e -> e.access(mojo, metaData))
                 .map(e -> e.getJobIds(metaData, metaData.getStageName()))
                 .collect(Collectors.joining(", "));
 
-        String template = PipelineGeneratorUtil.applyProperties(defaultTemplate, metaData.getStageName(), mojo.getVariables());
-
-        return template.replace("%NEEDS%", needs);
+        return getTemplateRenderer(mojo, metaData)
+                .with("NEEDS", needs)
+                .overrides(PipelineGeneratorUtil.getStageVariables(mojo.getProject(), metaData.getStageName(), mojo.getVariables()))
+                .render();
     }
 }
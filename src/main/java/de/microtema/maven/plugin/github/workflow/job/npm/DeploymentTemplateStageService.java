@@ -45,13 +45,11 @@ public class DeploymentTemplateStageService implements TemplateStageService {
 
         return stageNames.stream().map(it -> {
 
-            String defaultTemplate = PipelineGeneratorUtil.getTemplate(getTemplateName());
-
-            defaultTemplate = PipelineGeneratorUtil.applyProperties(defaultTemplate, it, mojo.getVariables());
-
-            return defaultTemplate
-                    .replace("deployment:", multipleStages ? "deployment-" + it.toLowerCase() + ":" : "deployment:")
-                    .replace("%JOB_NAME%", PipelineGeneratorUtil.getJobName("Deployment", it.toUpperCase(), multipleStages));
+            return getTemplateRenderer(mojo, metaData)
+                    .with("JOB_ID", multipleStages ? "deployment-" + it.toLowerCase() : "deployment")
+                    .with("JOB_NAME", PipelineGeneratorUtil.getJobName("Deployment", it.toUpperCase(), multipleStages))
+                    .overrides(PipelineGeneratorUtil.getStageVariables(mojo.getProject(), it, mojo.getVariables()))
+                    .render();
 
         }).collect(Collectors.joining("\n"));
     }
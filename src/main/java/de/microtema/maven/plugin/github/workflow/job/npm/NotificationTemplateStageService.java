@@ -32,9 +32,9 @@ public class NotificationTemplateStageService implements TemplateStageService {
         }
 
         return metaData.getStageNames().stream()
-                .map(PipelineGeneratorUtil::findProperties)
+                .map(it -> PipelineGeneratorUtil.findProperties(mojo.getProject(), it))
                 .filter(Objects::nonNull)
-                .map(it -> it.getProperty(WEBHOOK_URL))
+                .map(it -> it.get(WEBHOOK_URL))
                 .anyMatch(StringUtils::isNotEmpty);
     }
 
@@ -51,18 +51,14 @@ public class NotificationTemplateStageService implements TemplateStageService {
 
         return stageNames.stream().map(it -> {
 
-                    Properties properties = PipelineGeneratorUtil.findProperties(it);
+                    Map<String, String> properties = PipelineGeneratorUtil.findProperties(mojo.getProject(), it);
 
-                    String notificationWebhookUrl = Optional.ofNullable(properties).map(p -> p.getProperty(WEBHOOK_URL)).orElse(null);
+                    String notificationWebhookUrl = Optional.ofNullable(properties).map(p -> p.get(WEBHOOK_URL)).orElse(null);
 
                     if (StringUtils.isEmpty(notificationWebhookUrl)) {
                         return null;
                     }
 
-                    String defaultTemplate = PipelineGeneratorUtil.getTemplate(getTemplateName());
-
-                    defaultTemplate = PipelineGeneratorUtil.applyProperties(defaultTemplate, it);
-
                     String needs = templateStageServices.stream()
                             .filter(e -> e.access(mojo, metaData))
                             .map(e -> e.getJobIds(metaData, it))
@@ -70,12 +66,14 @@ public class NotificationTemplateStageService implements TemplateStageService {
                             .filter(StringUtils::isNotEmpty)
                             .findFirst().orElseThrow(() -> new NoSuchElementException("Unable to find the job id!"));
 
-                    return defaultTemplate
-                            .replace("notification:", multipleStages ? "notification-" + it.toLowerCase() + ":" : "notification:")
-                            .replace("%JOB_NAME%", PipelineGeneratorUtil.getJobName("Notification", it, multipleStages))
-                            .replace("%" + WEBHOOK_URL + "%", notificationWebhookUrl)
-                            .replace("%STAGE_DISPLAY_NAME%", it.toUpperCase())
-                            .replace("%NEEDS%", needs);
+                    return getTemplateRenderer(mojo, metaData)
+                            .with("JOB_ID", multipleStages ? "notification-" + it.toLowerCase() : "notification")
+                            .with("JOB_NAME", PipelineGeneratorUtil.getJobName("Notification", it, multipleStages))
+                            .with(WEBHOOK_URL, notificationWebhookUrl)
+                            .with("STAGE_DISPLAY_NAME", it.toUpperCase())
+                            .with("NEEDS", needs)
+                            .overrides(PipelineGeneratorUtil.getStageVariables(mojo.getProject(), it))
+                            .render();
 
                 }).filter(Objects::nonNull)
                 .collect(Collectors.joining(System.lineSeparator()));
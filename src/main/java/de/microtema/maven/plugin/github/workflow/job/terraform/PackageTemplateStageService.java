@@ -2,13 +2,12 @@ package de.microtema.maven.plugin.github.workflow.job.terraform;
 
 import de.microtema.maven.plugin.github.workflow.PipelineGeneratorMojo;
 import de.microtema.maven.plugin.github.workflow.PipelineGeneratorUtil;
-import de.microtema.maven.plugin.github.workflow.job.TemplateStageService;
 import de.microtema.maven.plugin.github.workflow.model.MetaData;
 import org.apache.commons.lang3.StringUtils;
 
 import java.util.stream.Stream;
 
-public class PackageTemplateStageService implements TemplateStageService {
+public class PackageTemplateStageService implements TerraformTemplateStageService {
 
     @Override
     public String getTemplateName() {
@@ -37,15 +36,13 @@ public class PackageTemplateStageService implements TemplateStageService {
             return null;
         }
 
-        String defaultTemplate = PipelineGeneratorUtil.getTemplate(getTemplateName());
-
-        String template = PipelineGeneratorUtil.applyProperties(defaultTemplate, metaData.getStageName());
-
-        return template
-                .replace("%RUNS_ON%", "self-hosted")
-                .replace("%APP_NAME%", metaData.getApplicationName().toLowerCase())
-                .replaceAll("%STAGE_NAME%", metaData.getBranchName().toLowerCase())
-                .replace("%TERRAFORM_VERSION%", "v1.5.5")
-                .replace("%WORKING_DIRECTORY%", "./terraform");
+        return getTemplateRenderer(mojo, metaData)
+                .with("RUNS_ON", "self-hosted")
+                .with("APP_NAME", metaData.getApplicationName().toLowerCase())
+                .with("STAGE_NAME", metaData.getBranchName().toLowerCase())
+                .with("TERRAFORM_VERSION", "v1.5.5")
+                .with("WORKING_DIRECTORY", WORKING_DIRECTORY)
+                .overrides(PipelineGeneratorUtil.getStageVariables(mojo.getProject(), metaData.getStageName()))
+                .render();
     }
 }
@@ -1,7 +1,6 @@
 package de.microtema.maven.plugin.github.workflow.job.terraform;
 
 import de.microtema.maven.plugin.github.workflow.PipelineGeneratorMojo;
-import de.microtema.maven.plugin.github.workflow.PipelineGeneratorUtil;
 import de.microtema.maven.plugin.github.workflow.job.TemplateStageService;
 import de.microtema.maven.plugin.github.workflow.model.MetaData;
 import org.apache.commons.lang3.StringUtils;
@@ -10,9 +9,14 @@ import java.util.stream.Stream;
 
 public class PipelineTemplateStageService implements TemplateStageService {
 
+    @Override
+    public String getTemplateName() {
+        return "terraform/pipeline";
+    }
+
     @Override
     public String getTemplate(PipelineGeneratorMojo mojo, MetaData metaData) {
 
-        return PipelineGeneratorUtil.getTemplate("terraform/pipeline");
+        return getTemplateRenderer(mojo, metaData).render();
     }
 }
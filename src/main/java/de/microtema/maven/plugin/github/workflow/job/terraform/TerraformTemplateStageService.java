@@ -0,0 +1,38 @@
+package de.microtema.maven.plugin.github.workflow.job.terraform;
+
+import de.microtema.maven.plugin.github.workflow.PipelineGeneratorMojo;
+import de.microtema.maven.plugin.github.workflow.PipelineGeneratorUtil;
+import de.microtema.maven.plugin.github.workflow.job.TemplateStageService;
+import de.microtema.maven.plugin.github.workflow.model.MetaData;
+import de.microtema.maven.plugin.github.workflow.model.ProjectCache;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Stage whose jobs run terraform and therefore restore the provider plugin cache and the .terraform folder
+ * from the cache, so terraform init does not download the providers and modules again.
+ */
+public interface TerraformTemplateStageService extends TemplateStageService {
+
+    String WORKING_DIRECTORY = "./terraform";
+
+    @Override
+    default List<ProjectCache> getCaches(PipelineGeneratorMojo mojo, MetaData metaData) {
+
+        return Collections.singletonList(PipelineGeneratorUtil.getTerraformCache(getWorkingDirectory(mojo, metaData), metaData.getBranchName().toLowerCase()));
+    }
+
+    /**
+     * @param mojo     may not be null
+     * @param metaData may not be null
+     * @return terraform working directory of the stage
+     */
+    default String getWorkingDirectory(PipelineGeneratorMojo mojo, MetaData metaData) {
+
+        Object workingDirectory = PipelineGeneratorUtil.getStageVariables(mojo.getProject(), metaData.getStageName()).get("WORKING_DIRECTORY");
+
+        return Objects.isNull(workingDirectory) ? WORKING_DIRECTORY : String.valueOf(workingDirectory);
+    }
+}
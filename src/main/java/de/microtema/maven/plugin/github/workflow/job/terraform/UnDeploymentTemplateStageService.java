@@ -2,13 +2,12 @@ package de.microtema.maven.plugin.github.workflow.job.terraform;
 
 import de.microtema.maven.plugin.github.workflow.PipelineGeneratorMojo;
 import de.microtema.maven.plugin.github.workflow.PipelineGeneratorUtil;
-import de.microtema.maven.plugin.github.workflow.job.TemplateStageService;
 import de.microtema.maven.plugin.github.workflow.model.MetaData;
 import org.apache.commons.lang3.StringUtils;
 
 import java.util.stream.Stream;
 
-public class UnDeploymentTemplateStageService implements TemplateStageService {
+public class UnDeploymentTemplateStageService implements TerraformTemplateStageService {
 
     @Override
     public String getTemplateName() {
@@ -41,10 +40,9 @@ public class UnDeploymentTemplateStageService implements TemplateStageService {
             return null;
         }
 
-        String defaultTemplate = PipelineGeneratorUtil.getTemplate(getTemplateName());
-
-        String template = PipelineGeneratorUtil.applyProperties(defaultTemplate, metaData.getStageName());
-
-        return template.replace("%WORKING_DIRECTORY%", "./terraform");
+        return getTemplateRenderer(mojo, metaData)
+                .with("WORKING_DIRECTORY", WORKING_DIRECTORY)
+                .overrides(PipelineGeneratorUtil.getStageVariables(mojo.getProject(), metaData.getStageName()))
+                .render();
     }
 }
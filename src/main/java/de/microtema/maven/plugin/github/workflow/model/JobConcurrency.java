@@ -0,0 +1,47 @@
+package de.microtema.maven.plugin.github.workflow.model;
+
+import java.util.Objects;
+
+/**
+ * Job level concurrency group of a workflow job.
+ */
+public class JobConcurrency {
+
+    private final String group;
+
+    private final boolean cancelInProgress;
+
+    public JobConcurrency(String group, boolean cancelInProgress) {
+        this.group = group;
+        this.cancelInProgress = cancelInProgress;
+    }
+
+    public String getGroup() {
+        return group;
+    }
+
+    public boolean isCancelInProgress() {
+        return cancelInProgress;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+
+        if (this == o) {
+            return true;
+        }
+
+        if (!(o instanceof JobConcurrency)) {
+            return false;
+        }
+
+        JobConcurrency that = (JobConcurrency) o;
+
+        return cancelInProgress == that.cancelInProgress && Objects.equals(group, that.group);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(group, cancelInProgress);
+    }
+}
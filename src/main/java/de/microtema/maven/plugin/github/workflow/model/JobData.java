@@ -1,9 +1,10 @@
 package de.microtema.maven.plugin.github.workflow.model;
 
 
-import java.util.HashMap;
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
 
 public class JobData {
 
@@ -15,7 +16,19 @@ public class JobData {
 
     private List<String> needs;
 
-    private Map<String, Object> properties = new HashMap<>();
+    /**
+     * Job level if condition without ${{ }}
+     */
+    private String condition;
+
+    private JobConcurrency concurrency;
+
+    /**
+     * Top level properties of the job in the order they are written, including the typed ones
+     */
+    private List<JobProperty> properties = new ArrayList<>();
+
+    private List<ProjectCache> caches = new ArrayList<>();
 
     public String getId() {
         return id;
@@ -49,11 +62,44 @@ public class JobData {
         this.needs = needs;
     }
 
-    public Map<String, Object> getProperties() {
+    public String getCondition() {
+        return condition;
+    }
+
+    public void setCondition(String condition) {
+        this.condition = condition;
+    }
+
+    public JobConcurrency getConcurrency() {
+        return concurrency;
+    }
+
+    public void setConcurrency(JobConcurrency concurrency) {
+        this.concurrency = concurrency;
+    }
+
+    public List<JobProperty> getProperties() {
         return properties;
     }
 
-    public void setProperties(Map<String, Object> properties) {
+    public void setProperties(List<JobProperty> properties) {
         this.properties = properties;
     }
+
+    /**
+     * @param key may not be null
+     * @return first property with the given key, or null
+     */
+    public JobProperty getProperty(String key) {
+
+        return properties.stream().filter(it -> StringUtils.equals(it.getKey(), key)).findFirst().orElse(null);
+    }
+
+    public List<ProjectCache> getCaches() {
+        return caches;
+    }
+
+    public void setCaches(List<ProjectCache> caches) {
+        this.caches = caches;
+    }
 }
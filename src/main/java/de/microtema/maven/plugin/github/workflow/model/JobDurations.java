@@ -0,0 +1,122 @@
+package de.microtema.maven.plugin.github.workflow.model;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.math.NumberUtils;
+
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Estimated duration in minutes of a generated job.
+ * <p>
+ * A job id is looked up as it is first and then by its longest matching prefix, so "deployment" applies to
+ * "deployment-dev" as well. Durations given later (configuration, then timing file) override the defaults.
+ */
+public class JobDurations implements ToDoubleFunction<JobData> {
+
+    static final double DEFAULT_DURATION = 2;
+
+    private final Map<String, Double> durations = new LinkedHashMap<>();
+
+    public JobDurations() {
+
+        durations.put("initialize", 1d);
+        durations.put("versioning", 1d);
+        durations.put("compile", 3d);
+        durations.put("security-check", 3d);
+        durations.put("unit-test", 5d);
+        durations.put("it-test", 8d);
+        durations.put("quality-gate", 4d);
+        durations.put("build", 4d);
+        durations.put("package", 3d);
+        durations.put("tag", 1d);
+        durations.put("publish", 3d);
+        durations.put("db-migration", 2d);
+        durations.put("promote", 1d);
+        durations.put("deployment", 3d);
+        durations.put("readiness", 5d);
+        durations.put("system-test", 10d);
+        durations.put("performance-test", 15d);
+        durations.put("downstream", 1d);
+        durations.put("notification", 1d);
+        durations.put("rollback", 3d);
+        durations.put("undeploy", 3d);
+    }
+
+    /**
+     * @param durations job id or prefix to minutes, may be null
+     * @return this
+     */
+    public JobDurations with(Map<String, String> durations) {
+
+        if (Objects.isNull(durations)) {
+            return this;
+        }
+
+        durations.forEach((id, minutes) -> {
+
+            if (!NumberUtils.isNumber(StringUtils.trim(minutes))) {
+                throw new IllegalStateException("Invalid duration for job " + id + ": " + minutes);
+            }
+
+            this.durations.put(StringUtils.trim(id), NumberUtils.toDouble(StringUtils.trim(minutes)));
+        });
+
+        return this;
+    }
+
+    /**
+     * Apply the timing file of past runs, a properties file with one "&lt;job-id&gt;=&lt;minutes&gt;" entry per job.
+     *
+     * @param timingFile may be null
+     * @return this
+     */
+    public JobDurations with(File timingFile) {
+
+        if (Objects.isNull(timingFile)) {
+            return this;
+        }
+
+        Properties properties = new Properties();
+
+        try (Reader reader = new FileReader(timingFile)) {
+            properties.load(reader);
+        } catch (IOException e) {
+            throw new IllegalStateException("Unable to read timing file " + timingFile, e);
+        }
+
+        Map<String, String> timings = new LinkedHashMap<>();
+
+        properties.stringPropertyNames().forEach(it -> timings.put(it, properties.getProperty(it)));
+
+        return with(timings);
+    }
+
+    /**
+     * @param id may be null
+     * @return duration in minutes
+     */
+    public double getDuration(String id) {
+
+        if (Objects.isNull(id)) {
+            return 0;
+        }
+
+        String prefix = JobIds.getLongestPrefix(id, durations.keySet());
+
+        return Objects.isNull(prefix) ? DEFAULT_DURATION : durations.get(prefix);
+    }
+
+    @Override
+    public double applyAsDouble(JobData jobData) {
+
+        return getDuration(jobData.getId());
+    }
+}
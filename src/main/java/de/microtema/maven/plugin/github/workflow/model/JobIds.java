@@ -0,0 +1,58 @@
+package de.microtema.maven.plugin.github.workflow.model;
+
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.Collection;
+import java.util.Objects;
+
+/**
+ * Matches generated job ids against job id prefixes: a prefix applies to the job of the same id and to the jobs
+ * of each stage, so "deployment" applies to "deployment" and "deployment-dev", but not to "deployments".
+ */
+public class JobIds {
+
+    /**
+     * @param id     may be null
+     * @param prefix may be null
+     * @return true if the job id is the prefix or starts with the prefix and a dash
+     */
+    public static boolean hasPrefix(String id, String prefix) {
+
+        if (Objects.isNull(id) || Objects.isNull(prefix)) {
+            return false;
+        }
+
+        return StringUtils.equals(id, prefix) || id.startsWith(prefix + "-");
+    }
+
+    /**
+     * @param id       may be null
+     * @param prefixes may not be null
+     * @return true if any of the prefixes applies to the job id
+     */
+    public static boolean hasAnyPrefix(String id, Collection<String> prefixes) {
+
+        return prefixes.stream().anyMatch(it -> hasPrefix(id, it));
+    }
+
+    /**
+     * The job id itself is the longest prefix, so an exact entry wins over the entries of shorter prefixes.
+     *
+     * @param id       may be null
+     * @param prefixes may not be null
+     * @return longest of the prefixes which applies to the job id, or null
+     */
+    public static String getLongestPrefix(String id, Collection<String> prefixes) {
+
+        String longestPrefix = null;
+
+        for (String prefix : prefixes) {
+
+            if (hasPrefix(id, prefix) && (Objects.isNull(longestPrefix) || prefix.length() > longestPrefix.length())) {
+                longestPrefix = prefix;
+            }
+        }
+
+        return longestPrefix;
+    }
+}
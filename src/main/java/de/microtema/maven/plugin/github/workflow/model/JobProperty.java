@@ -0,0 +1,65 @@
+package de.microtema.maven.plugin.github.workflow.model;
+
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Top level property of a job as it is rendered, e.g. "steps:" with its nested lines.
+ * <p>
+ * The lines are relative to the indentation of the job properties, so the "&lt;key&gt;:" line starts at column 0.
+ * The typed properties of {@link JobData} (name, runs-on, needs, if, concurrency) keep the value they were
+ * parsed to, so an unchanged property is written as it was rendered.
+ */
+public class JobProperty {
+
+    private final String key;
+
+    private final List<String> lines;
+
+    private final Object value;
+
+    /**
+     * @param key   property key, null for lines which are not a property, e.g. comments
+     * @param lines may not be null
+     * @param value typed value the lines were parsed to, or null
+     */
+    JobProperty(String key, List<String> lines, Object value) {
+        this.key = key;
+        this.lines = Collections.unmodifiableList(lines);
+        this.value = value;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public List<String> getLines() {
+        return lines;
+    }
+
+    Object getValue() {
+        return value;
+    }
+
+    /**
+     * @return value on the "&lt;key&gt;:" line, empty for a block value
+     */
+    public String getInlineValue() {
+
+        if (lines.isEmpty()) {
+            return StringUtils.EMPTY;
+        }
+
+        return StringUtils.trim(StringUtils.substringAfter(lines.get(0), ":"));
+    }
+
+    /**
+     * @return lines nested below the "&lt;key&gt;:" line
+     */
+    public List<String> getBlock() {
+
+        return lines.isEmpty() ? lines : lines.subList(1, lines.size());
+    }
+}
@@ -0,0 +1,146 @@
+package de.microtema.maven.plugin.github.workflow.model;
+
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Runner class (e.g. large or small) of a generated job and the runs-on labels of each runner class,
+ * so cheap jobs like a notification do not occupy the runners the build needs.
+ * <p>
+ * A job id is looked up as it is first and then by its longest matching prefix, like the {@link JobDurations}.
+ * Runner classes given by the configuration override the default job weight table.
+ * A job keeps the runs-on of the workflow if its runner class has no labels.
+ */
+public class JobRunners {
+
+    static final String LARGE = "large";
+
+    static final String MEDIUM = "medium";
+
+    static final String SMALL = "small";
+
+    private final Map<String, String> runnerClasses = new LinkedHashMap<>();
+
+    private final Map<String, String> labels = new LinkedHashMap<>();
+
+    public JobRunners() {
+
+        runnerClasses.put("initialize", SMALL);
+        runnerClasses.put("versioning", SMALL);
+        runnerClasses.put("compile", LARGE);
+        runnerClasses.put("security-check", MEDIUM);
+        runnerClasses.put("unit-test", LARGE);
+        runnerClasses.put("it-test", LARGE);
+        runnerClasses.put("quality-gate", MEDIUM);
+        runnerClasses.put("build", LARGE);
+        runnerClasses.put("package", MEDIUM);
+        runnerClasses.put("tag", SMALL);
+        runnerClasses.put("publish", MEDIUM);
+        runnerClasses.put("db-migration", MEDIUM);
+        runnerClasses.put("promote", SMALL);
+        runnerClasses.put("deployment", MEDIUM);
+        runnerClasses.put("readiness", SMALL);
+        runnerClasses.put("system-test", LARGE);
+        runnerClasses.put("performance-test", LARGE);
+        runnerClasses.put("downstream", SMALL);
+        runnerClasses.put("notification", SMALL);
+        runnerClasses.put("rollback", MEDIUM);
+        runnerClasses.put("undeploy", MEDIUM);
+    }
+
+    /**
+     * @param runnerClasses job id or prefix to runner class, may be null
+     * @return this
+     */
+    public JobRunners withRunnerClasses(Map<String, String> runnerClasses) {
+
+        if (Objects.isNull(runnerClasses)) {
+            return this;
+        }
+
+        runnerClasses.forEach((id, runnerClass) -> this.runnerClasses.put(StringUtils.trim(id), StringUtils.trim(runnerClass)));
+
+        return this;
+    }
+
+    /**
+     * @param labels runner class to comma separated runs-on labels, may be null
+     * @return this
+     */
+    public JobRunners withLabels(Map<String, String> labels) {
+
+        if (Objects.isNull(labels)) {
+            return this;
+        }
+
+        labels.forEach((runnerClass, runsOn) -> {
+
+            if (StringUtils.isBlank(runsOn)) {
+                throw new IllegalStateException("Missing runs-on labels for runner class " + runnerClass);
+            }
+
+            this.labels.put(StringUtils.trim(runnerClass), Stream.of(runsOn.split(",")).map(StringUtils::trim).collect(Collectors.joining(", ")));
+        });
+
+        return this;
+    }
+
+    /**
+     * @param id may be null
+     * @return runner class, or null
+     */
+    public String getRunnerClass(String id) {
+
+        String prefix = JobIds.getLongestPrefix(id, runnerClasses.keySet());
+
+        return Objects.isNull(prefix) ? null : runnerClasses.get(prefix);
+    }
+
+    /**
+     * @param id may be null
+     * @return runs-on labels of the runner class of the job, or null
+     */
+    public String getRunsOn(String id) {
+
+        String runnerClass = getRunnerClass(id);
+
+        return Objects.isNull(runnerClass) ? null : labels.get(runnerClass);
+    }
+
+    /**
+     * Set the runs-on of the jobs of the given graph in place. Only jobs which run on the runs-on
+     * of the workflow are changed, a job with its own runner (e.g. self-hosted terraform jobs) is left as it is.
+     *
+     * @param workflowGraph may not be null
+     * @param runsOn        runs-on labels of the workflow, may not be null
+     */
+    public void apply(WorkflowGraph workflowGraph, String runsOn) {
+
+        List<String> workflowLabels = getLabels(runsOn);
+
+        for (String id : workflowGraph.getJobIds()) {
+
+            String jobRunsOn = getRunsOn(id);
+
+            if (Objects.isNull(jobRunsOn) || !Objects.equals(workflowGraph.getJob(id).getRunsOn(), workflowLabels)) {
+                continue;
+            }
+
+            workflowGraph.setRunsOn(id, getLabels(jobRunsOn));
+        }
+    }
+
+    private static List<String> getLabels(String runsOn) {
+
+        return Stream.of(StringUtils.defaultString(runsOn).split(","))
+                .map(StringUtils::trimToNull)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+}
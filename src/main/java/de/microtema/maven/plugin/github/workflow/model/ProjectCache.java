@@ -7,8 +7,12 @@ public class ProjectCache {
 
     private String key;
 
+    private String name;
+
     private List<String> paths = new ArrayList<>();
 
+    private List<String> restoreKeys = new ArrayList<>();
+
     public String getKey() {
         return key;
     }
@@ -17,6 +21,14 @@ public class ProjectCache {
         this.key = key;
     }
 
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
     public List<String> getPaths() {
         return paths;
     }
@@ -24,4 +36,12 @@ public class ProjectCache {
     public void setPaths(List<String> paths) {
         this.paths = paths;
     }
+
+    public List<String> getRestoreKeys() {
+        return restoreKeys;
+    }
+
+    public void setRestoreKeys(List<String> restoreKeys) {
+        this.restoreKeys = restoreKeys;
+    }
 }
@@ -0,0 +1,94 @@
+package de.microtema.maven.plugin.github.workflow.model;
+
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Concurrency groups which cancel superseded runs of a branch, while deployments stay serialized:
+ * <ul>
+ *     <li>a workflow without deploying jobs gets a workflow level group per branch, a new push cancels the run in progress</li>
+ *     <li>in a workflow with deploying jobs each other job gets a group per branch and job, a new push cancels the job in progress,
+ *     and the run in progress stops at its cancelled job</li>
+ *     <li>a deploying job gets a group per application and stage without cancel-in-progress, so deployments of a stage
+ *     run one after the other, also across workflows, and are never cancelled halfway</li>
+ * </ul>
+ * Jobs which run always() are never cancelled.
+ */
+public class WorkflowConcurrency {
+
+    static final String BRANCH_GROUP = "${{ github.workflow }}-${{ github.ref }}";
+
+    private static final List<String> DEPLOYING_JOB_PREFIXES = Arrays.asList("db-migration", "promote", "deployment", "rollback", "undeploy");
+
+    private final String appName;
+
+    private final String stageName;
+
+    /**
+     * @param appName   application name of the deployment groups, may not be null
+     * @param stageName stage of the deploying jobs without a stage in their id, may not be null
+     */
+    public WorkflowConcurrency(String appName, String stageName) {
+        this.appName = appName;
+        this.stageName = stageName;
+    }
+
+    /**
+     * @param workflowGraph may not be null
+     * @return workflow level concurrency block, or an empty string if the workflow has deploying jobs
+     */
+    public String getWorkflowConcurrency(WorkflowGraph workflowGraph) {
+
+        if (hasDeployingJobs(workflowGraph)) {
+            return StringUtils.EMPTY;
+        }
+
+        return "concurrency:\n  group: " + BRANCH_GROUP + "\n  cancel-in-progress: true";
+    }
+
+    /**
+     * Add the job level concurrency groups to the jobs of the given graph in place,
+     * nothing is added if the workflow has no deploying jobs.
+     *
+     * @param workflowGraph may not be null
+     */
+    public void apply(WorkflowGraph workflowGraph) {
+
+        if (!hasDeployingJobs(workflowGraph)) {
+            return;
+        }
+
+        for (String id : workflowGraph.getJobIds()) {
+
+            Optional<String> deployingPrefix = getDeployingPrefix(id);
+
+            if (deployingPrefix.isPresent()) {
+
+                String stage = StringUtils.equals(id, deployingPrefix.get()) ? stageName : StringUtils.removeStart(id, deployingPrefix.get() + "-");
+
+                workflowGraph.setConcurrency(id, getDeploymentGroup(stage), false);
+            } else if (!StringUtils.contains(workflowGraph.getCondition(id), "always()")) {
+
+                workflowGraph.setConcurrency(id, BRANCH_GROUP + "-" + id, true);
+            }
+        }
+    }
+
+    String getDeploymentGroup(String stage) {
+
+        return appName + "-" + StringUtils.lowerCase(stage) + "-deployment";
+    }
+
+    static boolean hasDeployingJobs(WorkflowGraph workflowGraph) {
+
+        return workflowGraph.getJobIds().stream().anyMatch(it -> getDeployingPrefix(it).isPresent());
+    }
+
+    static Optional<String> getDeployingPrefix(String id) {
+
+        return Optional.ofNullable(JobIds.getLongestPrefix(id, DEPLOYING_JOB_PREFIXES));
+    }
+}
@@ -0,0 +1,64 @@
+package de.microtema.maven.plugin.github.workflow.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class WorkflowEstimate {
+
+    private String workflowName;
+
+    private List<String> criticalPath = new ArrayList<>();
+
+    private double duration;
+
+    private double runnerMinutes;
+
+    private int maxConcurrency;
+
+    public String getWorkflowName() {
+        return workflowName;
+    }
+
+    public void setWorkflowName(String workflowName) {
+        this.workflowName = workflowName;
+    }
+
+    public List<String> getCriticalPath() {
+        return criticalPath;
+    }
+
+    public void setCriticalPath(List<String> criticalPath) {
+        this.criticalPath = criticalPath;
+    }
+
+    public double getDuration() {
+        return duration;
+    }
+
+    public void setDuration(double duration) {
+        this.duration = duration;
+    }
+
+    public double getRunnerMinutes() {
+        return runnerMinutes;
+    }
+
+    public void setRunnerMinutes(double runnerMinutes) {
+        this.runnerMinutes = runnerMinutes;
+    }
+
+    public int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+
+    public void setMaxConcurrency(int maxConcurrency) {
+        this.maxConcurrency = maxConcurrency;
+    }
+
+    @Override
+    public String toString() {
+
+        return String.format("%s: %.0f min critical path (%s), %.0f runner minutes, max concurrency %d",
+                workflowName, duration, String.join(" -> ", criticalPath), runnerMinutes, maxConcurrency);
+    }
+}
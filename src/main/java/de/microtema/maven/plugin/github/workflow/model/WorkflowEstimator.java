@@ -0,0 +1,112 @@
+package de.microtema.maven.plugin.github.workflow.model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Estimates a workflow run, assuming every job starts as soon as its needs are finished and a runner is free:
+ * <ul>
+ *     <li>critical path: the longest chain of needs and its duration</li>
+ *     <li>runner minutes: the billed minutes of all jobs, each job rounded up to a full minute</li>
+ *     <li>max concurrency: the highest number of jobs running at the same time</li>
+ * </ul>
+ * A job with a strategy matrix counts once per matrix job: each matrix job is billed on its own and occupies
+ * its own runner, and a matrix larger than its max-parallel runs in consecutive batches.
+ */
+public class WorkflowEstimator {
+
+    private final ToDoubleFunction<JobData> duration;
+
+    public WorkflowEstimator(ToDoubleFunction<JobData> duration) {
+        this.duration = duration;
+    }
+
+    /**
+     * @param workflowName  may not be null
+     * @param workflowGraph may not be null
+     * @return WorkflowEstimate
+     */
+    public WorkflowEstimate estimate(String workflowName, WorkflowGraph workflowGraph) {
+
+        ToDoubleFunction<JobData> wallDuration = it -> duration.applyAsDouble(it) * getBatches(workflowGraph, it.getId());
+
+        List<String> criticalPath = workflowGraph.getCriticalPath(wallDuration);
+
+        WorkflowEstimate workflowEstimate = new WorkflowEstimate();
+
+        workflowEstimate.setWorkflowName(workflowName);
+        workflowEstimate.setCriticalPath(criticalPath);
+        workflowEstimate.setDuration(workflowGraph.getDuration(criticalPath, wallDuration));
+        workflowEstimate.setRunnerMinutes(getRunnerMinutes(workflowGraph));
+        workflowEstimate.setMaxConcurrency(getMaxConcurrency(workflowGraph, wallDuration));
+
+        return workflowEstimate;
+    }
+
+    private double getRunnerMinutes(WorkflowGraph workflowGraph) {
+
+        return workflowGraph.getJobIds().stream()
+                .map(workflowGraph::getJob)
+                .mapToDouble(it -> workflowGraph.getMatrixSize(it.getId()) * Math.ceil(duration.applyAsDouble(it)))
+                .sum();
+    }
+
+    /**
+     * @return number of matrix jobs of the job running at the same time
+     */
+    private static int getRunners(WorkflowGraph workflowGraph, String id) {
+
+        int matrixSize = workflowGraph.getMatrixSize(id);
+        int maxParallel = workflowGraph.getMaxParallel(id);
+
+        return maxParallel > 0 ? Math.min(matrixSize, maxParallel) : matrixSize;
+    }
+
+    /**
+     * @return number of consecutive batches the matrix jobs of the job run in
+     */
+    private static int getBatches(WorkflowGraph workflowGraph, String id) {
+
+        int runners = getRunners(workflowGraph, id);
+
+        return (workflowGraph.getMatrixSize(id) + runners - 1) / runners;
+    }
+
+    /**
+     * Sweep over the start and finish times of the jobs, a job finishing at the time another one starts frees its runners.
+     */
+    private int getMaxConcurrency(WorkflowGraph workflowGraph, ToDoubleFunction<JobData> wallDuration) {
+
+        List<double[]> events = new ArrayList<>();
+
+        for (Map.Entry<String, Double> entry : workflowGraph.getFinishTimes(wallDuration).entrySet()) {
+
+            double jobDuration = wallDuration.applyAsDouble(workflowGraph.getJob(entry.getKey()));
+
+            if (jobDuration <= 0) {
+                continue;
+            }
+
+            int runners = getRunners(workflowGraph, entry.getKey());
+
+            events.add(new double[]{entry.getValue() - jobDuration, runners});
+            events.add(new double[]{entry.getValue(), -runners});
+        }
+
+        events.sort((left, right) -> left[0] == right[0] ? Double.compare(left[1], right[1]) : Double.compare(left[0], right[0]));
+
+        int concurrency = 0;
+        int maxConcurrency = 0;
+
+        for (double[] event : events) {
+
+            concurrency += (int) event[1];
+
+            maxConcurrency = Math.max(maxConcurrency, concurrency);
+        }
+
+        return maxConcurrency;
+    }
+}
@@ -0,0 +1,911 @@
+package de.microtema.maven.plugin.github.workflow.model;
+
+import de.microtema.maven.plugin.github.workflow.template.TemplateFragment;
+import org.apache.commons.collections4.CollectionUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.math.NumberUtils;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.function.ToDoubleFunction;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Jobs of one workflow in the order the stage services contributed them, linked by their needs.
+ * <p>
+ * Each rendered job is parsed once into its typed properties (name, runs-on, needs, if, concurrency), which the
+ * mutators change, and its other properties as they are rendered, e.g. its steps. The indentation of the job
+ * properties is taken from the job itself. The graph is written out in a single pass, where only the typed
+ * properties which have changed are rendered again, so the job templates are not re-formatted.
+ */
+public class WorkflowGraph {
+
+    private static final Pattern JOB_PATTERN = Pattern.compile("^([A-Za-z0-9_-]+):\\s*$");
+
+    private static final Pattern JOBS_PATTERN = Pattern.compile("^jobs:\\s*$");
+
+    private static final Pattern PROPERTY_PATTERN = Pattern.compile("^([A-Za-z0-9_-]+):(\\s.*)?$");
+
+    private static final String PROPERTY_INDENT = "  ";
+
+    private final List<JobData> jobs = new ArrayList<>();
+
+    private final Map<String, JobData> jobsById = new LinkedHashMap<>();
+
+    /**
+     * Add a job, a typed property without a rendered property is added to the properties of the job.
+     *
+     * @param jobData may not be null
+     */
+    public void addJob(JobData jobData) {
+
+        if (Objects.nonNull(jobData.getId())) {
+
+            addProperty(jobData, "name", jobData.getName());
+            addProperty(jobData, "runs-on", jobData.getRunsOn(), "name");
+            addProperty(jobData, "needs", CollectionUtils.isEmpty(jobData.getNeeds()) ? null : jobData.getNeeds(), "name", "runs-on");
+            addProperty(jobData, "if", jobData.getCondition(), "needs");
+            addProperty(jobData, "concurrency", jobData.getConcurrency(), "needs", "if");
+        }
+
+        jobs.add(jobData);
+
+        if (Objects.nonNull(jobData.getId())) {
+            jobsById.putIfAbsent(jobData.getId(), jobData);
+        }
+    }
+
+    /**
+     * Add the jobs of a rendered stage template, i.e. one or more "&lt;id&gt;:" blocks.
+     *
+     * @param template may be null
+     */
+    public void addJobs(String template) {
+
+        if (StringUtils.isEmpty(template)) {
+            return;
+        }
+
+        String id = null;
+
+        List<String> lines = new ArrayList<>();
+
+        for (String line : getLines(template)) {
+
+            Matcher jobMatcher = JOB_PATTERN.matcher(line);
+
+            if (jobMatcher.matches()) {
+
+                // keep lines in front of the first job as they are
+                if (Objects.nonNull(id) || !lines.isEmpty()) {
+                    addJob(parseJob(id, lines));
+                }
+
+                id = jobMatcher.group(1);
+                lines = new ArrayList<>();
+            } else {
+                lines.add(line);
+            }
+        }
+
+        if (Objects.nonNull(id) || !lines.isEmpty()) {
+            addJob(parseJob(id, lines));
+        }
+    }
+
+    /**
+     * Add the jobs of a generated workflow file, i.e. the block below its top level "jobs:" key.
+     *
+     * @param workflow may be null
+     */
+    public void addWorkflow(String workflow) {
+
+        if (StringUtils.isEmpty(workflow)) {
+            return;
+        }
+
+        StringBuilder template = new StringBuilder(workflow.length());
+
+        boolean jobsBlock = false;
+
+        int jobIndent = -1;
+
+        for (String line : getLines(workflow)) {
+
+            if (!StringUtils.startsWith(line, " ") && StringUtils.isNotBlank(line)) {
+                jobsBlock = JOBS_PATTERN.matcher(line).matches();
+            } else if (jobsBlock) {
+
+                if (jobIndent < 0 && StringUtils.isNotBlank(line)) {
+                    jobIndent = getIndent(line);
+                }
+
+                template.append(line.substring(Math.min(Math.max(jobIndent, 0), getIndent(line)))).append('\n');
+            }
+        }
+
+        addJobs(template.toString());
+    }
+
+    public List<JobData> getJobs() {
+        return Collections.unmodifiableList(jobs);
+    }
+
+    public Set<String> getJobIds() {
+        return Collections.unmodifiableSet(new LinkedHashSet<>(jobsById.keySet()));
+    }
+
+    public JobData getJob(String id) {
+        return jobsById.get(id);
+    }
+
+    public boolean isEmpty() {
+        return jobs.isEmpty();
+    }
+
+    /**
+     * @param id may not be null
+     * @return ids of the jobs the given job needs, or an empty list
+     */
+    public List<String> getNeeds(String id) {
+
+        JobData jobData = jobsById.get(id);
+
+        if (Objects.isNull(jobData) || Objects.isNull(jobData.getNeeds())) {
+            return Collections.emptyList();
+        }
+
+        return jobData.getNeeds();
+    }
+
+    /**
+     * @param id may not be null
+     * @return jobs which need the given job
+     */
+    public List<JobData> getDependents(String id) {
+
+        return jobs.stream()
+                .filter(it -> Objects.nonNull(it.getNeeds()) && it.getNeeds().contains(id))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * @param id may not be null
+     * @return ids of all jobs the given job needs directly or transitively
+     */
+    public Set<String> getAncestors(String id) {
+
+        Set<String> ancestors = new LinkedHashSet<>();
+
+        Deque<String> queue = new ArrayDeque<>(getNeeds(id));
+
+        while (!queue.isEmpty()) {
+
+            String need = queue.poll();
+
+            if (jobsById.containsKey(need) && ancestors.add(need)) {
+                queue.addAll(getNeeds(need));
+            }
+        }
+
+        return ancestors;
+    }
+
+    /**
+     * Replace the needs of a job. A job without needs gets them after its name and runs-on.
+     *
+     * @param id    may not be null
+     * @param needs may not be null
+     * @throws IllegalStateException if the job is unknown
+     */
+    public void setNeeds(String id, List<String> needs) {
+
+        JobData jobData = getJobData(id);
+
+        jobData.setNeeds(new ArrayList<>(needs));
+
+        if (!needs.isEmpty()) {
+            addProperty(jobData, "needs", jobData.getNeeds(), "name", "runs-on");
+        }
+    }
+
+    /**
+     * @param id may not be null
+     * @return job level if condition without ${{ }}, or null
+     */
+    public String getCondition(String id) {
+
+        JobData jobData = jobsById.get(id);
+
+        return Objects.isNull(jobData) ? null : jobData.getCondition();
+    }
+
+    /**
+     * Add a job level if condition, combined with an existing one by &amp;&amp;.
+     * A job without condition gets it after its needs.
+     *
+     * @param id        may not be null
+     * @param condition may not be null
+     * @throws IllegalStateException if the job is unknown or its condition is unreadable
+     */
+    public void addCondition(String id, String condition) {
+
+        JobData jobData = getJobData(id);
+
+        if (Objects.isNull(jobData.getProperty("if"))) {
+
+            jobData.setCondition(condition);
+
+            addProperty(jobData, "if", condition, "needs");
+
+            return;
+        }
+
+        if (StringUtils.isEmpty(jobData.getCondition())) {
+            throw new IllegalStateException("Unable to read the if condition of job " + id);
+        }
+
+        jobData.setCondition("(" + jobData.getCondition() + ") && " + condition);
+    }
+
+    /**
+     * Add a job level concurrency group, a job which already has one is left as it is.
+     * The concurrency goes after the needs and the condition of the job.
+     *
+     * @param id               may not be null
+     * @param group            may not be null
+     * @param cancelInProgress true to cancel the job in progress of the group
+     * @throws IllegalStateException if the job is unknown
+     */
+    public void setConcurrency(String id, String group, boolean cancelInProgress) {
+
+        JobData jobData = getJobData(id);
+
+        if (Objects.nonNull(jobData.getProperty("concurrency"))) {
+            return;
+        }
+
+        jobData.setConcurrency(new JobConcurrency(group, cancelInProgress));
+
+        addProperty(jobData, "concurrency", jobData.getConcurrency(), "needs", "if");
+    }
+
+    /**
+     * Replace the runs-on of a job, a job without runs-on is left as it is.
+     *
+     * @param id     may not be null
+     * @param runsOn may not be null
+     * @throws IllegalStateException if the job is unknown
+     */
+    public void setRunsOn(String id, List<String> runsOn) {
+
+        JobData jobData = getJobData(id);
+
+        if (Objects.nonNull(jobData.getProperty("runs-on"))) {
+            jobData.setRunsOn(new ArrayList<>(runsOn));
+        }
+    }
+
+    /**
+     * @param id may not be null
+     * @return lines of the job as they are written, starting with the "&lt;id&gt;:" line
+     * @throws IllegalStateException if the job is unknown
+     */
+    public List<String> getJobLines(String id) {
+
+        StringBuilder buffer = new StringBuilder();
+
+        try {
+            writeJob(getJobData(id), buffer, StringUtils.EMPTY, true);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+
+        return Arrays.asList(buffer.toString().split("\n", -1));
+    }
+
+    private JobData getJobData(String id) {
+
+        JobData jobData = jobsById.get(id);
+
+        if (Objects.isNull(jobData)) {
+            throw new IllegalStateException("Unknown job: " + id);
+        }
+
+        return jobData;
+    }
+
+    /**
+     * Add an empty property for a typed value, after the last of the given properties or as first property.
+     * The property is rendered from the typed value when the job is written.
+     */
+    private static void addProperty(JobData jobData, String key, Object value, String... predecessors) {
+
+        if (Objects.isNull(value) || Objects.nonNull(jobData.getProperty(key))) {
+            return;
+        }
+
+        List<JobProperty> properties = jobData.getProperties();
+
+        List<String> predecessorKeys = Arrays.asList(predecessors);
+
+        int position = 0;
+
+        for (int index = 0; index < properties.size(); index++) {
+
+            if (predecessorKeys.contains(properties.get(index).getKey())) {
+                position = index + 1;
+            }
+        }
+
+        properties.add(position, new JobProperty(key, Collections.emptyList(), null));
+    }
+
+    /**
+     * Longest chain of needs, weighted by the given job duration.
+     *
+     * @param duration may not be null
+     * @return job ids from the first to the last job of the critical path
+     */
+    public List<String> getCriticalPath(ToDoubleFunction<JobData> duration) {
+
+        Map<String, Double> finishTimes = new HashMap<>();
+        Map<String, String> predecessors = new HashMap<>();
+
+        String lastJob = null;
+
+        for (String id : jobsById.keySet()) {
+
+            double finishTime = getFinishTime(id, duration, finishTimes, predecessors, new HashSet<>());
+
+            if (Objects.isNull(lastJob) || finishTime > finishTimes.get(lastJob)) {
+                lastJob = id;
+            }
+        }
+
+        LinkedList<String> path = new LinkedList<>();
+
+        for (String id = lastJob; Objects.nonNull(id); id = predecessors.get(id)) {
+            path.addFirst(id);
+        }
+
+        return path;
+    }
+
+    /**
+     * Finish time of every job if each job starts as soon as all of its needs are finished.
+     *
+     * @param duration may not be null
+     * @return finish times by job id in the order of the jobs
+     */
+    public Map<String, Double> getFinishTimes(ToDoubleFunction<JobData> duration) {
+
+        Map<String, Double> finishTimes = new HashMap<>();
+
+        Map<String, Double> orderedFinishTimes = new LinkedHashMap<>();
+
+        for (String id : jobsById.keySet()) {
+            orderedFinishTimes.put(id, getFinishTime(id, duration, finishTimes, new HashMap<>(), new HashSet<>()));
+        }
+
+        return orderedFinishTimes;
+    }
+
+    /**
+     * @param path     may not be null
+     * @param duration may not be null
+     * @return sum of the durations of the given jobs
+     */
+    public double getDuration(List<String> path, ToDoubleFunction<JobData> duration) {
+
+        return path.stream().map(jobsById::get).filter(Objects::nonNull).mapToDouble(duration).sum();
+    }
+
+    /**
+     * Number of jobs the strategy matrix of the job expands to: the product of the sizes of the matrix
+     * dimensions less the excluded combinations, or the number of include entries for a matrix without
+     * dimensions. Include entries of a matrix with dimensions are assumed to extend existing combinations,
+     * and a dimension given as expression counts as a single value.
+     *
+     * @param id may not be null
+     * @return matrix size, 1 for a job without matrix
+     */
+    public int getMatrixSize(String id) {
+
+        List<String> matrixLines = getStrategyBlock(id, "matrix");
+
+        if (matrixLines.isEmpty()) {
+            return 1;
+        }
+
+        int indent = getIndent(matrixLines.get(0));
+
+        int product = 1;
+        int includes = 0;
+        int excludes = 0;
+        boolean dimensions = false;
+
+        for (int index = 0; index < matrixLines.size(); index++) {
+
+            String line = matrixLines.get(index);
+
+            if (getIndent(line) != indent) {
+                continue;
+            }
+
+            String key = StringUtils.substringBefore(line.trim(), ":");
+            String value = StringUtils.trim(StringUtils.substringAfter(line, ":"));
+
+            int size = StringUtils.isEmpty(value) ? getItemCount(matrixLines, index + 1, indent) : getInlineItemCount(value);
+
+            if (StringUtils.equals(key, "include")) {
+                includes = size;
+            } else if (StringUtils.equals(key, "exclude")) {
+                excludes = size;
+            } else {
+                dimensions = true;
+                product *= size;
+            }
+        }
+
+        int matrixSize = dimensions ? product - excludes : includes;
+
+        return Math.max(matrixSize, 1);
+    }
+
+    /**
+     * @param id may not be null
+     * @return max-parallel of the strategy of the job, 0 if not limited
+     */
+    public int getMaxParallel(String id) {
+
+        for (String line : getStrategyBlock(id, null)) {
+
+            if (StringUtils.equals(StringUtils.substringBefore(line.trim(), ":"), "max-parallel")) {
+                return NumberUtils.toInt(StringUtils.trim(StringUtils.substringAfter(line, ":")));
+            }
+        }
+
+        return 0;
+    }
+
+    /**
+     * @param id  may not be null
+     * @param key strategy key whose nested lines are returned, or null for the lines of the strategy itself
+     * @return lines of the block, empty if the job has no such block
+     */
+    private List<String> getStrategyBlock(String id, String key) {
+
+        JobData jobData = jobsById.get(id);
+
+        JobProperty strategy = Objects.isNull(jobData) ? null : jobData.getProperty("strategy");
+
+        if (Objects.isNull(strategy)) {
+            return Collections.emptyList();
+        }
+
+        List<String> block = getNestedLines(strategy.getLines(), 1, 0);
+
+        if (Objects.isNull(key)) {
+            return block;
+        }
+
+        for (int blockIndex = 0; blockIndex < block.size(); blockIndex++) {
+
+            String line = block.get(blockIndex);
+
+            if (StringUtils.equals(StringUtils.substringBefore(line.trim(), ":"), key)) {
+                return getNestedLines(block, blockIndex + 1, getIndent(line));
+            }
+        }
+
+        return Collections.emptyList();
+    }
+
+    private static List<String> getNestedLines(List<String> lines, int fromIndex, int indent) {
+
+        List<String> nestedLines = new ArrayList<>();
+
+        for (int index = fromIndex; index < lines.size(); index++) {
+
+            String line = lines.get(index);
+
+            if (StringUtils.isBlank(line)) {
+                continue;
+            }
+
+            if (getIndent(line) <= indent) {
+                break;
+            }
+
+            nestedLines.add(line);
+        }
+
+        return nestedLines;
+    }
+
+    private static int getItemCount(List<String> lines, int fromIndex, int indent) {
+
+        List<String> items = getNestedLines(lines, fromIndex, indent);
+
+        if (items.isEmpty()) {
+            return 0;
+        }
+
+        int itemIndent = getIndent(items.get(0));
+
+        return (int) items.stream().filter(it -> getIndent(it) == itemIndent && it.trim().startsWith("-")).count();
+    }
+
+    private static int getInlineItemCount(String value) {
+
+        if (!value.startsWith("[")) {
+            return 1;
+        }
+
+        return (int) Arrays.stream(StringUtils.removeEnd(value.substring(1), "]").split(","))
+                .map(StringUtils::trimToNull)
+                .filter(Objects::nonNull)
+                .count();
+    }
+
+    private static int getIndent(String line) {
+
+        return line.length() - StringUtils.stripStart(line, " ").length();
+    }
+
+    private double getFinishTime(String id, ToDoubleFunction<JobData> duration, Map<String, Double> finishTimes, Map<String, String> predecessors, Set<String> visiting) {
+
+        Double finishTime = finishTimes.get(id);
+
+        if (Objects.nonNull(finishTime)) {
+            return finishTime;
+        }
+
+        if (!visiting.add(id)) {
+            throw new IllegalStateException("Cyclic needs for job: " + id);
+        }
+
+        double startTime = 0;
+
+        String predecessor = null;
+
+        for (String need : getNeeds(id)) {
+
+            if (!jobsById.containsKey(need)) {
+                continue;
+            }
+
+            double needFinishTime = getFinishTime(need, duration, finishTimes, predecessors, visiting);
+
+            if (Objects.isNull(predecessor) || needFinishTime > startTime) {
+                startTime = needFinishTime;
+                predecessor = need;
+            }
+        }
+
+        if (Objects.nonNull(predecessor)) {
+            predecessors.put(id, predecessor);
+        }
+
+        visiting.remove(id);
+
+        finishTime = startTime + duration.applyAsDouble(jobsById.get(id));
+
+        finishTimes.put(id, finishTime);
+
+        return finishTime;
+    }
+
+    /**
+     * Write the jobs line by line, each line indented by the given padding and the job properties by 2 spaces.
+     *
+     * @param out     may not be null
+     * @param padding number of spaces
+     * @throws IOException if the target fails
+     */
+    public void write(Appendable out, int padding) throws IOException {
+
+        String paddingString = StringUtils.repeat(' ', padding);
+
+        boolean first = true;
+
+        for (JobData jobData : jobs) {
+
+            writeJob(jobData, out, paddingString, first);
+
+            first = false;
+        }
+    }
+
+    /**
+     * @param padding number of spaces
+     * @return the jobs as placeholder value which is streamed into the rendered workflow
+     */
+    public TemplateFragment toFragment(int padding) {
+
+        return out -> write(out, padding);
+    }
+
+    public String toYaml(int padding) {
+
+        StringBuilder buffer = new StringBuilder(jobs.size() * 1024);
+
+        try {
+            write(buffer, padding);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+
+        return buffer.toString();
+    }
+
+    private static void writeJob(JobData jobData, Appendable out, String padding, boolean first) throws IOException {
+
+        // lines in front of the first job are not job properties
+        String propertyIndent = Objects.isNull(jobData.getId()) ? StringUtils.EMPTY : PROPERTY_INDENT;
+
+        if (Objects.nonNull(jobData.getId())) {
+
+            writeLine(out, padding, jobData.getId() + ":", first);
+
+            first = false;
+        }
+
+        for (JobProperty property : jobData.getProperties()) {
+
+            for (String line : getPropertyLines(jobData, property)) {
+
+                writeLine(out, padding, StringUtils.isBlank(line) ? line : propertyIndent + line, first);
+
+                first = false;
+            }
+        }
+    }
+
+    private static void writeLine(Appendable out, String padding, String line, boolean first) throws IOException {
+
+        if (!first) {
+            out.append('\n');
+        }
+
+        out.append(padding).append(line);
+    }
+
+    /**
+     * @return lines of the property as rendered, or rendered again from the typed value if it has changed
+     */
+    private static List<String> getPropertyLines(JobData jobData, JobProperty property) {
+
+        String key = property.getKey();
+
+        if (Objects.isNull(key)) {
+            return property.getLines();
+        }
+
+        switch (key) {
+            case "name":
+                return Objects.equals(jobData.getName(), property.getValue()) ? property.getLines()
+                        : Collections.singletonList("name: " + jobData.getName());
+            case "runs-on":
+                return Objects.equals(jobData.getRunsOn(), property.getValue()) ? property.getLines()
+                        : Collections.singletonList("runs-on: " + getFlowList(jobData.getRunsOn()));
+            case "needs":
+                return Objects.equals(jobData.getNeeds(), property.getValue()) ? property.getLines()
+                        : Collections.singletonList("needs: " + getFlowList(jobData.getNeeds()));
+            case "if":
+                return Objects.equals(jobData.getCondition(), property.getValue()) ? property.getLines()
+                        : Collections.singletonList("if: ${{ " + jobData.getCondition() + " }}");
+            case "concurrency":
+
+                JobConcurrency concurrency = jobData.getConcurrency();
+
+                if (Objects.equals(concurrency, property.getValue()) || Objects.isNull(concurrency)) {
+                    return property.getLines();
+                }
+
+                return Arrays.asList("concurrency:", PROPERTY_INDENT + "group: " + concurrency.getGroup(), PROPERTY_INDENT + "cancel-in-progress: " + concurrency.isCancelInProgress());
+            default:
+                return property.getLines();
+        }
+    }
+
+    private static String getFlowList(List<String> values) {
+
+        return CollectionUtils.isEmpty(values) ? "[ ]" : "[ " + String.join(", ", values) + " ]";
+    }
+
+    /**
+     * Split the job into its top level properties, relative to the indentation of its first property,
+     * and read the typed properties.
+     *
+     * @param id    may be null for the lines in front of the first job
+     * @param lines lines of the job below the "&lt;id&gt;:" line
+     */
+    private static JobData parseJob(String id, List<String> lines) {
+
+        JobData jobData = new JobData();
+
+        jobData.setId(id);
+
+        if (Objects.isNull(id)) {
+
+            jobData.getProperties().add(new JobProperty(null, lines, null));
+
+            return jobData;
+        }
+
+        int indent = lines.stream().filter(StringUtils::isNotBlank).findFirst().map(WorkflowGraph::getIndent).orElse(0);
+
+        String key = null;
+
+        List<String> propertyLines = new ArrayList<>();
+
+        for (String line : lines) {
+
+            if (StringUtils.isBlank(line)) {
+                propertyLines.add(line);
+                continue;
+            }
+
+            String relativeLine = line.substring(Math.min(indent, getIndent(line)));
+
+            if (getIndent(relativeLine) == 0) {
+
+                if (!propertyLines.isEmpty()) {
+                    jobData.getProperties().add(parseProperty(jobData, key, propertyLines));
+                }
+
+                Matcher propertyMatcher = PROPERTY_PATTERN.matcher(relativeLine);
+
+                key = propertyMatcher.matches() ? propertyMatcher.group(1) : null;
+                propertyLines = new ArrayList<>();
+            }
+
+            propertyLines.add(relativeLine);
+        }
+
+        if (!propertyLines.isEmpty()) {
+            jobData.getProperties().add(parseProperty(jobData, key, propertyLines));
+        }
+
+        return jobData;
+    }
+
+    private static JobProperty parseProperty(JobData jobData, String key, List<String> lines) {
+
+        JobProperty property = new JobProperty(key, lines, null);
+
+        switch (StringUtils.defaultString(key)) {
+            case "name":
+                jobData.setName(property.getInlineValue());
+                return new JobProperty(key, lines, jobData.getName());
+            case "runs-on":
+                jobData.setRunsOn(getList(property));
+                return new JobProperty(key, lines, getList(property));
+            case "needs":
+                jobData.setNeeds(getList(property));
+                return new JobProperty(key, lines, getList(property));
+            case "if":
+                jobData.setCondition(getExpression(getPropertyValue(property)));
+                return new JobProperty(key, lines, jobData.getCondition());
+            case "concurrency":
+                jobData.setConcurrency(getConcurrency(property));
+                return new JobProperty(key, lines, jobData.getConcurrency());
+            default:
+                return property;
+        }
+    }
+
+    /**
+     * @return value of the property joined with its continuation lines, e.g. of a folded "if: &gt;-"
+     */
+    private static String getPropertyValue(JobProperty property) {
+
+        String propertyValue = property.getInlineValue();
+
+        if (propertyValue.startsWith("|") || propertyValue.startsWith(">")) {
+            propertyValue = StringUtils.EMPTY;
+        }
+
+        String continuation = property.getBlock().stream()
+                .map(StringUtils::trimToNull)
+                .filter(Objects::nonNull)
+                .collect(Collectors.joining(" "));
+
+        return StringUtils.trim(propertyValue + " " + continuation);
+    }
+
+    private static JobConcurrency getConcurrency(JobProperty property) {
+
+        String group = property.getInlineValue();
+
+        boolean cancelInProgress = false;
+
+        for (String line : property.getBlock()) {
+
+            String key = StringUtils.substringBefore(line.trim(), ":");
+            String value = StringUtils.trim(StringUtils.substringAfter(line, ":"));
+
+            if (StringUtils.equals(key, "group")) {
+                group = value;
+            } else if (StringUtils.equals(key, "cancel-in-progress")) {
+                cancelInProgress = Boolean.parseBoolean(value);
+            }
+        }
+
+        return new JobConcurrency(group, cancelInProgress);
+    }
+
+    private static String getExpression(String value) {
+
+        String expression = StringUtils.trim(value);
+
+        if (expression.startsWith("${{") && expression.endsWith("}}")) {
+            expression = StringUtils.trim(expression.substring(3, expression.length() - 2));
+        }
+
+        return expression;
+    }
+
+    /**
+     * @return items of a flow list "[ a, b ]", of a block list "- a", or the single value
+     */
+    private static List<String> getList(JobProperty property) {
+
+        String value = property.getInlineValue();
+
+        if (StringUtils.isEmpty(value)) {
+
+            return property.getBlock().stream()
+                    .map(StringUtils::trim)
+                    .filter(it -> it.startsWith("-"))
+                    .map(it -> StringUtils.trim(it.substring(1)))
+                    .collect(Collectors.toList());
+        }
+
+        if (!value.startsWith("[")) {
+            return new ArrayList<>(Collections.singletonList(value));
+        }
+
+        return Arrays.stream(StringUtils.removeEnd(value.substring(1), "]").split(","))
+                .map(StringUtils::trimToNull)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Split like {@link java.io.BufferedReader#readLine()}, a trailing line break does not start a new line.
+     */
+    private static List<String> getLines(String template) {
+
+        List<String> lines = new ArrayList<>();
+
+        int start = 0;
+        int length = template.length();
+
+        for (int index = 0; index < length; index++) {
+
+            char c = template.charAt(index);
+
+            if (c == '\n' || c == '\r') {
+
+                lines.add(template.substring(start, index));
+
+                if (c == '\r' && index + 1 < length && template.charAt(index + 1) == '\n') {
+                    index++;
+                }
+
+                start = index + 1;
+            }
+        }
+
+        if (start < length) {
+            lines.add(template.substring(start));
+        }
+
+        return lines;
+    }
+}
@@ -0,0 +1,232 @@
+package de.microtema.maven.plugin.github.workflow.model;
+
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.*;
+import java.util.function.ToDoubleFunction;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Widens the needs of a workflow graph without changing what has to happen before a job may run:
+ * <ul>
+ *     <li>a job keeps the jobs whose artifacts it downloads and the jobs whose outputs it reads (needs.&lt;id&gt;)</li>
+ *     <li>a job with side effects (package, publish, deployment, ...) keeps every job it waited for before</li>
+ *     <li>a side effect free job (e.g. build) no longer waits for quality gates and tests,
+ *     those gates still have to pass before any job with side effects that follows it</li>
+ * </ul>
+ * Redundant and transitive needs are removed afterwards, except the ones whose outputs are read
+ * and the needs of jobs which run always().
+ */
+public class WorkflowGraphOptimizer {
+
+    /**
+     * Jobs which only produce artifacts for later jobs
+     */
+    private static final Set<String> SIDE_EFFECT_FREE_JOBS = new HashSet<>(Arrays.asList("initialize", "versioning", "compile", "build"));
+
+    private static final List<String> GATE_JOB_PREFIXES = Arrays.asList("quality-gate", "security-check", "readiness");
+
+    private static final Pattern GATE_JOB_PATTERN = Pattern.compile("^.*-test(-.*)?$");
+
+    private static final Pattern ARTIFACT_PATTERN = Pattern.compile("^\\s*(?:-\\s+)?uses:\\s*actions/(upload|download)-artifact@.*$");
+
+    private static final Pattern ARTIFACT_NAME_PATTERN = Pattern.compile("^\\s+name:\\s*['\"]?([^'\"\\s]+)['\"]?\\s*$");
+
+    private static final Pattern OUTPUT_PATTERN = Pattern.compile("needs\\.([A-Za-z0-9_-]+)\\.");
+
+    /**
+     * Optimize the needs of the given graph in place.
+     *
+     * @param workflowGraph may not be null
+     * @param duration      job duration used for the critical path
+     * @return before/after critical path report
+     */
+    public String optimize(WorkflowGraph workflowGraph, ToDoubleFunction<JobData> duration) {
+
+        List<String> criticalPathBefore = workflowGraph.getCriticalPath(duration);
+
+        Map<String, Set<String>> requiredAncestors = new LinkedHashMap<>();
+        Map<String, Set<String>> pinnedNeeds = new HashMap<>();
+
+        for (String id : workflowGraph.getJobIds()) {
+
+            pinnedNeeds.put(id, getOutputNeeds(workflowGraph, id));
+
+            requiredAncestors.put(id, getRequiredAncestors(workflowGraph, id, pinnedNeeds.get(id)));
+        }
+
+        Map<String, List<String>> needs = reduce(workflowGraph, requiredAncestors, pinnedNeeds);
+
+        needs.forEach((id, jobNeeds) -> {
+
+            if (!jobNeeds.equals(workflowGraph.getNeeds(id))) {
+                workflowGraph.setNeeds(id, jobNeeds);
+            }
+        });
+
+        List<String> criticalPathAfter = workflowGraph.getCriticalPath(duration);
+
+        return "Critical path before: " + format(workflowGraph, criticalPathBefore, duration) + "\n"
+                + "Critical path after:  " + format(workflowGraph, criticalPathAfter, duration);
+    }
+
+    static boolean isGateJob(String id) {
+
+        return GATE_JOB_PATTERN.matcher(id).matches() || GATE_JOB_PREFIXES.stream().anyMatch(id::startsWith);
+    }
+
+    static boolean isSideEffectFree(String id) {
+
+        return SIDE_EFFECT_FREE_JOBS.contains(id);
+    }
+
+    private Set<String> getRequiredAncestors(WorkflowGraph workflowGraph, String id, Set<String> outputNeeds) {
+
+        Set<String> ancestors = workflowGraph.getAncestors(id);
+
+        if (!isSideEffectFree(id)) {
+            return ancestors;
+        }
+
+        Set<String> downloads = getArtifacts(workflowGraph.getJob(id), "download");
+
+        Set<String> requiredAncestors = new LinkedHashSet<>();
+
+        for (String ancestor : ancestors) {
+
+            boolean artifactProducer = getArtifacts(workflowGraph.getJob(ancestor), "upload").stream().anyMatch(downloads::contains);
+
+            if (!isGateJob(ancestor) || artifactProducer || outputNeeds.contains(ancestor)) {
+                requiredAncestors.add(ancestor);
+            }
+        }
+
+        return requiredAncestors;
+    }
+
+    /**
+     * Keep only the required ancestors which are not reachable through another required ancestor.
+     */
+    private Map<String, List<String>> reduce(WorkflowGraph workflowGraph, Map<String, Set<String>> requiredAncestors, Map<String, Set<String>> pinnedNeeds) {
+
+        Map<String, Set<String>> closure = new HashMap<>();
+
+        for (String id : requiredAncestors.keySet()) {
+            getClosure(id, requiredAncestors, closure);
+        }
+
+        Map<String, List<String>> needs = new LinkedHashMap<>();
+
+        for (Map.Entry<String, Set<String>> entry : requiredAncestors.entrySet()) {
+
+            String id = entry.getKey();
+            Set<String> ancestors = entry.getValue();
+
+            List<String> jobNeeds = workflowGraph.getJobIds().stream()
+                    .filter(ancestors::contains)
+                    .filter(it -> pinnedNeeds.get(id).contains(it) || ancestors.stream().noneMatch(other -> !other.equals(it) && closure.get(other).contains(it)))
+                    .collect(Collectors.toList());
+
+            needs.put(id, jobNeeds);
+        }
+
+        return needs;
+    }
+
+    private Set<String> getClosure(String id, Map<String, Set<String>> requiredAncestors, Map<String, Set<String>> closure) {
+
+        Set<String> ancestors = closure.get(id);
+
+        if (Objects.nonNull(ancestors)) {
+            return ancestors;
+        }
+
+        ancestors = new HashSet<>();
+
+        for (String ancestor : requiredAncestors.getOrDefault(id, Collections.emptySet())) {
+            ancestors.add(ancestor);
+            ancestors.addAll(getClosure(ancestor, requiredAncestors, closure));
+        }
+
+        closure.put(id, ancestors);
+
+        return ancestors;
+    }
+
+    /**
+     * @return needs whose outputs or results the job reads, all needs for jobs running always() or reading needs.*
+     */
+    private static Set<String> getOutputNeeds(WorkflowGraph workflowGraph, String id) {
+
+        Set<String> outputNeeds = new HashSet<>();
+
+        if (StringUtils.contains(workflowGraph.getCondition(id), "always()")) {
+            outputNeeds.addAll(workflowGraph.getNeeds(id));
+        }
+
+        for (String line : workflowGraph.getJobLines(id)) {
+
+            if (line.contains("needs.*")) {
+                outputNeeds.addAll(workflowGraph.getNeeds(id));
+                continue;
+            }
+
+            Matcher matcher = OUTPUT_PATTERN.matcher(line);
+
+            while (matcher.find()) {
+                if (workflowGraph.getNeeds(id).contains(matcher.group(1))) {
+                    outputNeeds.add(matcher.group(1));
+                }
+            }
+        }
+
+        return outputNeeds;
+    }
+
+    /**
+     * @param jobData   may be null
+     * @param direction upload or download
+     * @return names of the artifacts the job uploads or downloads
+     */
+    static Set<String> getArtifacts(JobData jobData, String direction) {
+
+        if (Objects.isNull(jobData)) {
+            return Collections.emptySet();
+        }
+
+        Set<String> artifacts = new HashSet<>();
+
+        boolean artifactStep = false;
+
+        List<String> lines = jobData.getProperties().stream()
+                .flatMap(it -> it.getLines().stream())
+                .collect(Collectors.toList());
+
+        for (String line : lines) {
+
+            Matcher artifactMatcher = ARTIFACT_PATTERN.matcher(line);
+
+            if (artifactMatcher.matches()) {
+                artifactStep = StringUtils.equals(artifactMatcher.group(1), direction);
+                continue;
+            }
+
+            Matcher nameMatcher = ARTIFACT_NAME_PATTERN.matcher(line);
+
+            if (artifactStep && nameMatcher.matches()) {
+                artifacts.add(nameMatcher.group(1));
+                artifactStep = false;
+            }
+        }
+
+        return artifacts;
+    }
+
+    private static String format(WorkflowGraph workflowGraph, List<String> criticalPath, ToDoubleFunction<JobData> duration) {
+
+        return String.format("%.0f (%s)", workflowGraph.getDuration(criticalPath, duration), Stream.of(criticalPath.toArray(new String[0])).collect(Collectors.joining(" -> ")));
+    }
+}
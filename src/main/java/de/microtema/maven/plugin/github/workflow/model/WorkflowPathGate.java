@@ -0,0 +1,102 @@
+package de.microtema.maven.plugin.github.workflow.model;
+
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Skips the jobs which build, test or release the code if a push did not change the code paths,
+ * so e.g. a helm values change only deploys again:
+ * <ul>
+ *     <li>a gated job needs the initialize job and runs only if its code-changed output is true</li>
+ *     <li>a job after a gated job runs unless a job before it failed or the workflow was cancelled,
+ *     i.e. it also runs after skipped jobs</li>
+ * </ul>
+ * Jobs which run always() are left as they are. If every commit builds its own image (the image tag ends with the
+ * short commit id), the package and deployment jobs and the jobs they need are not gated, as a deployment of a commit
+ * without its image would fail.
+ */
+public class WorkflowPathGate {
+
+    static final String INITIALIZE_JOB = "initialize";
+
+    static final String CODE_CHANGED = "needs.initialize.outputs.code-changed == 'true'";
+
+    static final String NOT_FAILED = "!failure() && !cancelled() && !contains(needs.*.result, 'cancelled')";
+
+    private static final List<String> GATED_JOB_PREFIXES = Arrays.asList("compile", "security-check", "unit-test", "it-test",
+            "quality-gate", "build", "package", "publish", "tag", "db-migration", "system-test", "performance-test");
+
+    private static final List<String> IMAGE_JOB_PREFIXES = Arrays.asList("package", "deployment");
+
+    private final boolean commitImageTag;
+
+    public WorkflowPathGate() {
+        this(false);
+    }
+
+    /**
+     * @param commitImageTag true if every commit builds its own image
+     */
+    public WorkflowPathGate(boolean commitImageTag) {
+        this.commitImageTag = commitImageTag;
+    }
+
+    /**
+     * Gate the jobs of the given graph in place, nothing is gated if the graph has no initialize job.
+     *
+     * @param workflowGraph may not be null
+     * @return ids of the gated jobs
+     */
+    public Set<String> apply(WorkflowGraph workflowGraph) {
+
+        if (!workflowGraph.getJobIds().contains(INITIALIZE_JOB)) {
+            return Collections.emptySet();
+        }
+
+        Set<String> gatedIds = workflowGraph.getJobIds().stream()
+                .filter(WorkflowPathGate::isGated)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+
+        if (commitImageTag) {
+
+            for (String id : workflowGraph.getJobIds()) {
+
+                if (JobIds.hasAnyPrefix(id, IMAGE_JOB_PREFIXES)) {
+                    gatedIds.remove(id);
+                    gatedIds.removeAll(workflowGraph.getAncestors(id));
+                }
+            }
+        }
+
+        for (String id : workflowGraph.getJobIds()) {
+
+            if (StringUtils.contains(workflowGraph.getCondition(id), "always()")) {
+                continue;
+            }
+
+            if (gatedIds.contains(id)) {
+
+                List<String> needs = new ArrayList<>(workflowGraph.getNeeds(id));
+
+                if (!needs.contains(INITIALIZE_JOB)) {
+                    needs.add(INITIALIZE_JOB);
+                    workflowGraph.setNeeds(id, needs);
+                }
+
+                workflowGraph.addCondition(id, CODE_CHANGED);
+            } else if (workflowGraph.getAncestors(id).stream().anyMatch(gatedIds::contains)) {
+
+                workflowGraph.addCondition(id, NOT_FAILED);
+            }
+        }
+
+        return gatedIds;
+    }
+
+    static boolean isGated(String id) {
+
+        return JobIds.hasAnyPrefix(id, GATED_JOB_PREFIXES);
+    }
+}
@@ -0,0 +1,116 @@
+package de.microtema.maven.plugin.github.workflow.project;
+
+import org.apache.commons.lang3.StringUtils;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Stage properties from the .github/env/.&lt;stage&gt; files of the project root, loaded once.
+ * <p>
+ * A numbered stage without its own file (e.g. prod2) is derived from its root stage (prod)
+ * by replacing the upper case root stage name in every value, the derived view is built once per stage.
+ */
+public class EnvironmentRegistry {
+
+    public static final String ENV_FOLDER = ".github/env";
+
+    private final Map<String, Map<String, String>> stageProperties;
+
+    private final Map<String, Optional<Map<String, String>>> derivedProperties = new ConcurrentHashMap<>();
+
+    private EnvironmentRegistry(Map<String, Map<String, String>> stageProperties) {
+        this.stageProperties = stageProperties;
+    }
+
+    public static EnvironmentRegistry load(String rootPath) {
+
+        File envDir = new File(rootPath, ENV_FOLDER);
+
+        File[] files = Optional.ofNullable(envDir.listFiles(it -> it.isFile() && it.getName().startsWith("."))).orElseGet(() -> new File[0]);
+
+        Map<String, Map<String, String>> stageProperties = new HashMap<>();
+
+        for (File file : files) {
+            stageProperties.put(file.getName().substring(1), loadProperties(file));
+        }
+
+        return new EnvironmentRegistry(stageProperties);
+    }
+
+    private static Map<String, String> loadProperties(File file) {
+
+        Properties properties = new Properties();
+
+        try (InputStream inputStream = new FileInputStream(file)) {
+            properties.load(inputStream);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+
+        Map<String, String> map = new LinkedHashMap<>();
+
+        properties.stringPropertyNames().stream().sorted().forEach(it -> map.put(it, properties.getProperty(it)));
+
+        return Collections.unmodifiableMap(map);
+    }
+
+    public Set<String> getStageNames() {
+
+        return Collections.unmodifiableSet(new TreeSet<>(stageProperties.keySet()));
+    }
+
+    /**
+     * @param stageName may be null
+     * @return properties of the .github/env/.&lt;stage&gt; file or null
+     */
+    public Map<String, String> findProperties(String stageName) {
+
+        if (StringUtils.isEmpty(stageName)) {
+            return null;
+        }
+
+        return stageProperties.get(stageName.toLowerCase());
+    }
+
+    /**
+     * @param stageName may be null
+     * @return properties of the stage, or derived from the root stage for numbered stages, or null
+     */
+    public Map<String, String> getProperties(String stageName) {
+
+        Map<String, String> properties = findProperties(stageName);
+
+        if (Objects.nonNull(properties) || StringUtils.isEmpty(stageName)) {
+            return properties;
+        }
+
+        return derivedProperties.computeIfAbsent(stageName, this::deriveProperties).orElse(null);
+    }
+
+    private Optional<Map<String, String>> deriveProperties(String stageName) {
+
+        char lastChar = stageName.charAt(stageName.length() - 1);
+
+        if (!Character.isDigit(lastChar)) {
+            return Optional.empty();
+        }
+
+        String rootStageName = stageName.substring(0, stageName.length() - 1);
+
+        Map<String, String> properties = findProperties(rootStageName);
+
+        if (Objects.isNull(properties)) {
+            return Optional.empty();
+        }
+
+        Map<String, String> derived = new LinkedHashMap<>();
+
+        properties.forEach((key, value) -> derived.put(key, value.replaceAll(rootStageName.toUpperCase(), stageName.toUpperCase())));
+
+        return Optional.of(Collections.unmodifiableMap(derived));
+    }
+}
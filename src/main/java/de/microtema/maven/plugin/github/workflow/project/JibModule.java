@@ -0,0 +1,132 @@
+package de.microtema.maven.plugin.github.workflow.project;
+
+import org.apache.commons.collections4.CollectionUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.maven.model.Build;
+import org.apache.maven.model.Model;
+import org.apache.maven.model.Plugin;
+import org.apache.maven.model.PluginManagement;
+import org.apache.maven.model.io.xpp3.MavenXpp3Reader;
+import org.apache.maven.project.MavenProject;
+
+import java.io.File;
+import java.io.FileReader;
+import java.io.Reader;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+
+/**
+ * Finds the project which builds the image with the jib-maven-plugin.
+ * <p>
+ * The modules are checked with their effective model from the reactor, so a plugin inherited from a parent counts,
+ * and with their pom as written if the reactor projects are not available, e.g. in the batch goal. A module with
+ * jib in build.plugins wins over one which configures jib in its pluginManagement only, which mvn jib:build
+ * uses as well. The root project counts if jib is in its build.plugins, or in its pluginManagement without
+ * modules, e.g. from a corporate parent.
+ */
+class JibModule {
+
+    static final String ARTIFACT_ID = "jib-maven-plugin";
+
+    /**
+     * @param project  may not be null
+     * @param rootPath may not be null
+     * @param modules  module paths relative to the root path
+     * @return empty string if the root project builds the image, else the first module which does, or null
+     */
+    static String resolve(MavenProject project, String rootPath, List<String> modules) {
+
+        if (hasJibPlugin(project.getBuildPlugins())) {
+            return StringUtils.EMPTY;
+        }
+
+        Map<String, Model> models = getModuleModels(project, rootPath, modules);
+
+        for (Map.Entry<String, Model> entry : models.entrySet()) {
+
+            if (hasJibPlugin(getBuild(entry.getValue()).getPlugins())) {
+                return entry.getKey();
+            }
+        }
+
+        for (Map.Entry<String, Model> entry : models.entrySet()) {
+
+            if (hasJibPlugin(getPluginManagementPlugins(getBuild(entry.getValue())))) {
+                return entry.getKey();
+            }
+        }
+
+        if (modules.isEmpty() && hasJibPlugin(getPluginManagementPlugins(project.getBuild()))) {
+            return StringUtils.EMPTY;
+        }
+
+        return null;
+    }
+
+    /**
+     * @return effective model of each module from the reactor, or the model of its pom file, by module path
+     */
+    private static Map<String, Model> getModuleModels(MavenProject project, String rootPath, List<String> modules) {
+
+        Path root = Paths.get(rootPath).toAbsolutePath().normalize();
+
+        Map<String, Model> collectedModels = new HashMap<>();
+
+        for (Object it : CollectionUtils.emptyIfNull(project.getCollectedProjects())) {
+
+            MavenProject collectedProject = (MavenProject) it;
+
+            if (Objects.nonNull(collectedProject.getBasedir())) {
+                collectedModels.put(collectedProject.getBasedir().toPath().toAbsolutePath().normalize().toString(), collectedProject.getModel());
+            }
+        }
+
+        Map<String, Model> models = new LinkedHashMap<>();
+
+        for (String module : modules) {
+
+            Path moduleDir = root.resolve(module).normalize();
+
+            Model model = collectedModels.get(moduleDir.toString());
+
+            if (Objects.isNull(model)) {
+                model = readModel(moduleDir.resolve("pom.xml").toFile());
+            }
+
+            if (Objects.nonNull(model)) {
+                models.put(module, model);
+            }
+        }
+
+        return models;
+    }
+
+    private static Model readModel(File pomFile) {
+
+        if (!pomFile.isFile()) {
+            return null;
+        }
+
+        try (Reader reader = new FileReader(pomFile)) {
+            return new MavenXpp3Reader().read(reader);
+        } catch (Exception e) {
+            throw new IllegalStateException("Unable to read " + pomFile, e);
+        }
+    }
+
+    private static Build getBuild(Model model) {
+
+        return Optional.ofNullable(model.getBuild()).orElseGet(Build::new);
+    }
+
+    private static List<Plugin> getPluginManagementPlugins(Build build) {
+
+        return Optional.ofNullable(build).map(Build::getPluginManagement).map(PluginManagement::getPlugins).orElse(Collections.emptyList());
+    }
+
+    private static boolean hasJibPlugin(Collection<Plugin> plugins) {
+
+        return CollectionUtils.emptyIfNull(plugins).stream().anyMatch(it -> StringUtils.equals(it.getArtifactId(), ARTIFACT_ID));
+    }
+}
@@ -0,0 +1,290 @@
+package de.microtema.maven.plugin.github.workflow.project;
+
+import org.apache.commons.collections4.CollectionUtils;
+import org.apache.maven.project.MavenProject;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Snapshot of the files and folders the stage services ask for, taken once per mojo execution
+ * for the project root and each of its modules.
+ */
+public class ProjectLayout {
+
+    private static final List<String> ROOT_PATHS = Arrays.asList(
+            ".git",
+            ".mvn",
+            "Dockerfile",
+            "helm",
+            "terraform",
+            "terraform/main.tf",
+            "settings.xml",
+            "package.json",
+            "e2e",
+            "src/main.ts",
+            "src/main/resources/db/changelog",
+            "src/main/resources/db/migration",
+            "src/test/jmeter");
+
+    private static final List<String> SOURCE_PATHS = Arrays.asList(
+            "src/main/java",
+            "src/main/kotlin",
+            "src/test/java",
+            "src/test/kotlin",
+            "src/test/groovy");
+
+    /**
+     * Keyed by the canonical base directory, since MavenProject#equals compares the GAV only
+     * and two projects with the same coordinates may live in different folders. A mojo execution takes its
+     * snapshot with refresh and drops it with release, so the batch goal does not keep the layout of every
+     * repository it has processed.
+     */
+    private static final Map<String, ProjectLayout> LAYOUTS = new ConcurrentHashMap<>();
+
+    private final String rootPath;
+
+    private final List<String> modules;
+
+    private final Set<String> paths;
+
+    private volatile TestSourceIndex testSources;
+
+    private volatile EnvironmentRegistry environments;
+
+    private final MavenProject project;
+
+    private volatile Optional<String> jibModule;
+
+    private ProjectLayout(MavenProject project, String rootPath, List<String> modules, Set<String> paths) {
+        this.project = project;
+        this.rootPath = rootPath;
+        this.modules = Collections.unmodifiableList(modules);
+        this.paths = Collections.unmodifiableSet(paths);
+    }
+
+    public static ProjectLayout of(MavenProject project) {
+
+        return LAYOUTS.computeIfAbsent(getKey(project), it -> scan(project));
+    }
+
+    /**
+     * Take a new snapshot, e.g. at the start of a mojo execution.
+     *
+     * @param project may not be null
+     * @return ProjectLayout
+     */
+    public static ProjectLayout refresh(MavenProject project) {
+
+        ProjectLayout layout = scan(project);
+
+        LAYOUTS.put(getKey(project), layout);
+
+        return layout;
+    }
+
+    /**
+     * Drop the snapshot together with its test source index, environments and jib module, e.g. at the end of a
+     * mojo execution. A later lookup scans the project again.
+     *
+     * @param project may not be null
+     */
+    public static void release(MavenProject project) {
+
+        LAYOUTS.remove(getKey(project));
+    }
+
+    private static String getKey(MavenProject project) {
+
+        File basedir = project.getBasedir();
+
+        String key;
+
+        try {
+            key = basedir.getCanonicalPath();
+        } catch (IOException e) {
+            key = basedir.getAbsolutePath();
+        }
+
+        return Objects.toString(key, basedir.getPath());
+    }
+
+    public static ProjectLayout scan(MavenProject project) {
+
+        String rootPath = project.getBasedir().getPath();
+
+        List<String> modules = new ArrayList<>(CollectionUtils.emptyIfNull(project.getModules()));
+
+        Set<String> paths = new HashSet<>();
+
+        Stream.concat(ROOT_PATHS.stream(), SOURCE_PATHS.stream())
+                .filter(it -> new File(rootPath, it).exists())
+                .forEach(paths::add);
+
+        for (String module : modules) {
+
+            File moduleDir = new File(rootPath, module);
+
+            SOURCE_PATHS.stream()
+                    .filter(it -> new File(moduleDir, it).exists())
+                    .forEach(it -> paths.add(module + "/" + it));
+        }
+
+        return new ProjectLayout(project, rootPath, modules, paths);
+    }
+
+    public String getRootPath() {
+        return rootPath;
+    }
+
+    public List<String> getModules() {
+        return modules;
+    }
+
+    /**
+     * Module folders resolved against the root folder, e.g. "./api/" as "api". Modules outside the root folder,
+     * e.g. "../shared", are left out, as paths of a workflow may not leave the repository.
+     *
+     * @return module folders relative to the root folder
+     */
+    public List<String> getModulePaths() {
+
+        Path root = Paths.get(rootPath).toAbsolutePath().normalize();
+
+        List<String> modulePaths = new ArrayList<>();
+
+        for (String module : modules) {
+
+            Path moduleDir = root.resolve(module).normalize();
+
+            if (!moduleDir.startsWith(root) || moduleDir.equals(root)) {
+                continue;
+            }
+
+            modulePaths.add(root.relativize(moduleDir).toString().replace(File.separatorChar, '/'));
+        }
+
+        return modulePaths;
+    }
+
+    /**
+     * @return probed paths which exist, sorted by name
+     */
+    public List<String> getPaths() {
+
+        List<String> sortedPaths = new ArrayList<>(paths);
+
+        Collections.sort(sortedPaths);
+
+        return sortedPaths;
+    }
+
+    /**
+     * The test sources are indexed on first use, since only some stage services ask for them.
+     *
+     * @return TestSourceIndex
+     */
+    public TestSourceIndex getTestSources() {
+
+        TestSourceIndex index = testSources;
+
+        if (Objects.isNull(index)) {
+
+            synchronized (this) {
+
+                index = testSources;
+
+                if (Objects.isNull(index)) {
+                    index = TestSourceIndex.scan(rootPath, modules);
+                    testSources = index;
+                }
+            }
+        }
+
+        return index;
+    }
+
+    public EnvironmentRegistry getEnvironments() {
+
+        EnvironmentRegistry registry = environments;
+
+        if (Objects.isNull(registry)) {
+
+            synchronized (this) {
+
+                registry = environments;
+
+                if (Objects.isNull(registry)) {
+                    registry = EnvironmentRegistry.load(rootPath);
+                    environments = registry;
+                }
+            }
+        }
+
+        return registry;
+    }
+
+    /**
+     * The poms of the modules are read on first use, since only the package job asks for the jib module.
+     *
+     * @return empty string if the root project builds the image with jib, else the first jib module, or null
+     */
+    public String getJibModule() {
+
+        Optional<String> module = jibModule;
+
+        if (Objects.isNull(module)) {
+
+            synchronized (this) {
+
+                module = jibModule;
+
+                if (Objects.isNull(module)) {
+                    module = Optional.ofNullable(JibModule.resolve(project, rootPath, modules));
+                    jibModule = module;
+                }
+            }
+        }
+
+        return module.orElse(null);
+    }
+
+    public boolean exists(String path) {
+
+        return paths.contains(path);
+    }
+
+    public boolean exists(String module, String path) {
+
+        return paths.contains(module + "/" + path);
+    }
+
+    public boolean hasSourceCode() {
+
+        if (exists("src/main/java") || exists("src/main/kotlin") || exists("src/main.ts")) {
+            return true;
+        }
+
+        return modules.stream().anyMatch(this::hasModuleSourceCode);
+    }
+
+    public boolean hasModuleSourceCode(String module) {
+
+        return exists(module, "src/main/java") || exists(module, "src/main/kotlin");
+    }
+
+    public boolean hasUnitTests() {
+
+        if (modules.isEmpty()) {
+
+            return Stream.of("java", "kotlin", "groovy").anyMatch(it -> exists("src/test/" + it));
+        }
+
+        return modules.stream().anyMatch(it -> Stream.of("java", "kotlin", "groovy").anyMatch(m -> exists(it, "src/test/" + m)));
+    }
+}
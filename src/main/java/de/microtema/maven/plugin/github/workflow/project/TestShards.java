@@ -0,0 +1,57 @@
+package de.microtema.maven.plugin.github.workflow.project;
+
+import java.util.*;
+
+/**
+ * Splits test classes into shards of about the same duration: the longest class goes to the shard
+ * with the least total duration first. Classes without timing count with the average measured duration,
+ * or with 1 if nothing has been measured, which balances the shards by class count.
+ */
+public class TestShards {
+
+    /**
+     * @param classNames may not be null
+     * @param timings    may not be null
+     * @param shardCount number of shards, at most one shard per class
+     * @return class names per shard, each sorted by name
+     */
+    public static List<List<String>> plan(List<String> classNames, TestTimings timings, int shardCount) {
+
+        int count = Math.max(1, Math.min(shardCount, classNames.size()));
+
+        double defaultSeconds = timings.getTimings().values().stream().mapToDouble(Double::doubleValue).average().orElse(1);
+
+        Map<String, Double> durations = new HashMap<>();
+
+        classNames.forEach(it -> durations.put(it, Optional.ofNullable(timings.getSeconds(it)).orElse(defaultSeconds)));
+
+        List<String> sortedClassNames = new ArrayList<>(new TreeSet<>(classNames));
+
+        sortedClassNames.sort(Comparator.comparing((String it) -> durations.get(it)).reversed());
+
+        List<List<String>> shards = new ArrayList<>();
+        double[] shardDurations = new double[count];
+
+        for (int index = 0; index < count; index++) {
+            shards.add(new ArrayList<>());
+        }
+
+        for (String className : sortedClassNames) {
+
+            int shard = 0;
+
+            for (int index = 1; index < count; index++) {
+                if (shardDurations[index] < shardDurations[shard]) {
+                    shard = index;
+                }
+            }
+
+            shards.get(shard).add(className);
+            shardDurations[shard] += durations.get(className);
+        }
+
+        shards.forEach(Collections::sort);
+
+        return shards;
+    }
+}
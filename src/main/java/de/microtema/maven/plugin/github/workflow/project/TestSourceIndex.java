@@ -0,0 +1,254 @@
+package de.microtema.maven.plugin.github.workflow.project;
+
+import org.apache.commons.lang3.StringUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.*;
+import java.util.regex.Pattern;
+
+/**
+ * Index of the src/test/&lt;type&gt;/java source sets of a project and its modules, built with a single
+ * {@link Files#walkFileTree} pass per src/test folder.
+ * <p>
+ * Only the test suffix of each *.java file is kept, i.e. the trailing run of upper case letters,
+ * digits and underscores of the class name (FooIT.java -&gt; IT, FooE2E.java -&gt; E2E).
+ * For the unit tests below src/test/java the class names matching the surefire default includes are kept.
+ */
+public class TestSourceIndex {
+
+    private static final String JAVA_FOLDER = "java";
+
+    private static final String JAVA_SUFFIX = ".java";
+
+    private static final Pattern UNIT_TEST_PATTERN = Pattern.compile("^(Test.*|.*Test|.*Tests|.*TestCase)\\.java$");
+
+    private final List<String> modules;
+
+    /**
+     * module (empty for the project root) -&gt; source set -&gt; test suffixes
+     */
+    private final Map<String, Map<String, Set<String>>> testSuffixes;
+
+    /**
+     * module (empty for the project root) -&gt; fully qualified unit test class names
+     */
+    private final Map<String, List<String>> unitTestClasses;
+
+    private TestSourceIndex(List<String> modules, Map<String, Map<String, Set<String>>> testSuffixes, Map<String, List<String>> unitTestClasses) {
+        this.modules = modules;
+        this.testSuffixes = testSuffixes;
+        this.unitTestClasses = unitTestClasses;
+    }
+
+    public static TestSourceIndex scan(String rootPath, List<String> modules) {
+
+        Map<String, Map<String, Set<String>>> testSuffixes = new HashMap<>();
+        Map<String, List<String>> unitTestClasses = new HashMap<>();
+
+        unitTestClasses.put(StringUtils.EMPTY, new ArrayList<>());
+        testSuffixes.put(StringUtils.EMPTY, scanTestFolder(new File(rootPath, "src/test").toPath(), unitTestClasses.get(StringUtils.EMPTY)));
+
+        for (String module : modules) {
+            unitTestClasses.put(module, new ArrayList<>());
+            testSuffixes.put(module, scanTestFolder(new File(new File(rootPath, module), "src/test").toPath(), unitTestClasses.get(module)));
+        }
+
+        unitTestClasses.values().forEach(Collections::sort);
+
+        return new TestSourceIndex(modules, testSuffixes, unitTestClasses);
+    }
+
+    private static Map<String, Set<String>> scanTestFolder(Path testDir, List<String> unitTestClasses) {
+
+        Map<String, Set<String>> sourceSets = new TreeMap<>();
+
+        if (!Files.isDirectory(testDir)) {
+            return sourceSets;
+        }
+
+        try {
+            Files.walkFileTree(testDir, new SimpleFileVisitor<Path>() {
+
+                @Override
+                public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+
+                    Path relativePath = testDir.relativize(dir);
+
+                    int depth = StringUtils.isEmpty(relativePath.toString()) ? 0 : relativePath.getNameCount();
+
+                    if (depth < 2) {
+                        return FileVisitResult.CONTINUE;
+                    }
+
+                    if (depth == 2) {
+
+                        if (isUnitTestFolder(relativePath)) {
+                            return FileVisitResult.CONTINUE;
+                        }
+
+                        if (!StringUtils.equals(relativePath.getFileName().toString(), JAVA_FOLDER)) {
+                            return FileVisitResult.SKIP_SUBTREE;
+                        }
+
+                        sourceSets.computeIfAbsent(relativePath.getName(0).toString(), it -> new HashSet<>());
+                    }
+
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+
+                    Path relativePath = testDir.relativize(file);
+
+                    if (isUnitTestFolder(relativePath)) {
+
+                        if (UNIT_TEST_PATTERN.matcher(file.getFileName().toString()).matches()) {
+                            unitTestClasses.add(getClassName(relativePath.subpath(1, relativePath.getNameCount())));
+                        }
+
+                        return FileVisitResult.CONTINUE;
+                    }
+
+                    if (relativePath.getNameCount() < 3) {
+                        return FileVisitResult.CONTINUE;
+                    }
+
+                    String testSuffix = getTestSuffix(file.getFileName().toString());
+
+                    if (StringUtils.isNotEmpty(testSuffix)) {
+                        sourceSets.get(relativePath.getName(0).toString()).add(testSuffix);
+                    }
+
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFileFailed(Path file, IOException exc) {
+
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+        } catch (IOException e) {
+            // unreadable test folders are treated as empty
+        }
+
+        return sourceSets;
+    }
+
+    /**
+     * @return true for src/test/java/.. except src/test/java/java/.. which is the java folder of the "java" source set
+     */
+    private static boolean isUnitTestFolder(Path relativePath) {
+
+        if (relativePath.getNameCount() < 2 || !StringUtils.equals(relativePath.getName(0).toString(), JAVA_FOLDER)) {
+            return false;
+        }
+
+        return !StringUtils.equals(relativePath.getName(1).toString(), JAVA_FOLDER);
+    }
+
+    private static String getClassName(Path sourceFile) {
+
+        List<String> names = new ArrayList<>();
+
+        sourceFile.forEach(it -> names.add(it.toString()));
+
+        return StringUtils.removeEnd(String.join(".", names), JAVA_SUFFIX);
+    }
+
+    static String getTestSuffix(String fileName) {
+
+        if (!fileName.endsWith(JAVA_SUFFIX)) {
+            return null;
+        }
+
+        String className = StringUtils.removeEnd(fileName, JAVA_SUFFIX);
+
+        int index = className.length();
+
+        while (index > 0 && isSuffixChar(className.charAt(index - 1))) {
+            index--;
+        }
+
+        return className.substring(index);
+    }
+
+    private static boolean isSuffixChar(char c) {
+
+        return Character.isUpperCase(c) || Character.isDigit(c) || c == '_';
+    }
+
+    /**
+     * @return source sets with a java folder below the project root src/test, sorted by name
+     */
+    public List<String> getSourceSets() {
+
+        return new ArrayList<>(testSuffixes.get(StringUtils.EMPTY).keySet());
+    }
+
+    /**
+     * @param module may be empty for the project root
+     * @return test suffixes per source set of the module, sorted by source set
+     */
+    public Map<String, Set<String>> getTestSuffixes(String module) {
+
+        return Collections.unmodifiableMap(testSuffixes.getOrDefault(module, Collections.emptyMap()));
+    }
+
+    /**
+     * @param module may be empty for the project root
+     * @return fully qualified names of the unit test classes below src/test/java of the module, sorted by name
+     */
+    public List<String> getUnitTestClasses(String module) {
+
+        return Collections.unmodifiableList(unitTestClasses.getOrDefault(module, Collections.emptyList()));
+    }
+
+    /**
+     * @return unit test classes of the project root, or of all modules for multi module projects
+     */
+    public List<String> getUnitTestClasses() {
+
+        if (modules.isEmpty()) {
+            return getUnitTestClasses(StringUtils.EMPTY);
+        }
+
+        List<String> classNames = new ArrayList<>();
+
+        modules.forEach(it -> classNames.addAll(getUnitTestClasses(it)));
+
+        return classNames;
+    }
+
+    /**
+     * Check for *&lt;testSuffix&gt;.java files below src/test/&lt;sourceSet&gt;/java of the project root,
+     * or of any module for multi module projects.
+     *
+     * @param sourceSet  may not be null
+     * @param testSuffix may not be null
+     * @return true if at least one test class exists
+     */
+    public boolean hasTests(String sourceSet, String testSuffix) {
+
+        if (modules.isEmpty()) {
+            return hasTests(StringUtils.EMPTY, sourceSet, testSuffix);
+        }
+
+        return modules.stream().anyMatch(it -> hasTests(it, sourceSet, testSuffix));
+    }
+
+    public boolean hasTests(String module, String sourceSet, String testSuffix) {
+
+        Set<String> suffixes = testSuffixes.getOrDefault(module, Collections.emptyMap()).get(sourceSet);
+
+        if (Objects.isNull(suffixes) || StringUtils.isEmpty(testSuffix)) {
+            return false;
+        }
+
+        return suffixes.stream().anyMatch(it -> it.endsWith(testSuffix));
+    }
+}
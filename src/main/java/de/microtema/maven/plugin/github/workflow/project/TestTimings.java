@@ -0,0 +1,142 @@
+package de.microtema.maven.plugin.github.workflow.project;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.math.NumberUtils;
+
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Measured seconds per test class of past runs, read from either
+ * <ul>
+ *     <li>a folder with surefire reports (TEST-*.xml, searched recursively), or</li>
+ *     <li>a properties file with one "&lt;class name&gt;=&lt;seconds&gt;" entry per test class</li>
+ * </ul>
+ */
+public class TestTimings {
+
+    private static final Pattern TEST_SUITE_PATTERN = Pattern.compile("<testsuite\\s[^>]*>");
+
+    private static final Pattern NAME_PATTERN = Pattern.compile("\\sname=\"([^\"]+)\"");
+
+    private static final Pattern TIME_PATTERN = Pattern.compile("\\stime=\"([^\"]+)\"");
+
+    private final Map<String, Double> timings;
+
+    private TestTimings(Map<String, Double> timings) {
+        this.timings = timings;
+    }
+
+    public static TestTimings empty() {
+
+        return new TestTimings(Collections.emptyMap());
+    }
+
+    /**
+     * @param source surefire reports folder or properties file, may be null
+     * @return TestTimings
+     */
+    public static TestTimings load(File source) {
+
+        if (Objects.isNull(source)) {
+            return empty();
+        }
+
+        if (source.isDirectory()) {
+            return new TestTimings(readReports(source));
+        }
+
+        if (source.isFile()) {
+            return new TestTimings(readProperties(source));
+        }
+
+        throw new IllegalStateException("Unable to find test timings " + source);
+    }
+
+    private static Map<String, Double> readReports(File reportsDir) {
+
+        Map<String, Double> timings = new TreeMap<>();
+
+        for (File reportFile : FileUtils.listFiles(reportsDir, new String[]{"xml"}, true)) {
+
+            if (!reportFile.getName().startsWith("TEST-")) {
+                continue;
+            }
+
+            String report;
+
+            try {
+                report = FileUtils.readFileToString(reportFile, StandardCharsets.UTF_8);
+            } catch (IOException e) {
+                throw new IllegalStateException("Unable to read surefire report " + reportFile, e);
+            }
+
+            Matcher testSuiteMatcher = TEST_SUITE_PATTERN.matcher(report);
+
+            if (!testSuiteMatcher.find()) {
+                continue;
+            }
+
+            Matcher nameMatcher = NAME_PATTERN.matcher(testSuiteMatcher.group());
+            Matcher timeMatcher = TIME_PATTERN.matcher(testSuiteMatcher.group());
+
+            if (nameMatcher.find() && timeMatcher.find()) {
+                timings.merge(nameMatcher.group(1), NumberUtils.toDouble(timeMatcher.group(1).replace(",", "")), Double::sum);
+            }
+        }
+
+        return timings;
+    }
+
+    private static Map<String, Double> readProperties(File propertiesFile) {
+
+        Properties properties = new Properties();
+
+        try (Reader reader = new FileReader(propertiesFile)) {
+            properties.load(reader);
+        } catch (IOException e) {
+            throw new IllegalStateException("Unable to read test timings " + propertiesFile, e);
+        }
+
+        Map<String, Double> timings = new TreeMap<>();
+
+        for (String className : properties.stringPropertyNames()) {
+
+            String seconds = StringUtils.trim(properties.getProperty(className));
+
+            if (!NumberUtils.isNumber(seconds)) {
+                throw new IllegalStateException("Invalid test timing for " + className + ": " + seconds);
+            }
+
+            timings.put(StringUtils.trim(className), NumberUtils.toDouble(seconds));
+        }
+
+        return timings;
+    }
+
+    public boolean isEmpty() {
+        return timings.isEmpty();
+    }
+
+    /**
+     * @param className may not be null
+     * @return seconds, or null if the class has not been measured
+     */
+    public Double getSeconds(String className) {
+        return timings.get(className);
+    }
+
+    /**
+     * @return measured seconds by class name, sorted by class name
+     */
+    public Map<String, Double> getTimings() {
+        return Collections.unmodifiableMap(timings);
+    }
+}
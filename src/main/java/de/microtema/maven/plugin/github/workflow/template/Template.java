@@ -0,0 +1,180 @@
+package de.microtema.maven.plugin.github.workflow.template;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Immutable, pre-tokenized form of a *.template.yaml resource.
+ * <p>
+ * Every '%' that opens a %PLACEHOLDER% candidate is recorded together with its closing '%'.
+ * Candidates may overlap (e.g. date formats like '+%Y%m%d'), rendering resolves them left to right
+ * and keeps unresolved candidates verbatim, the same way a chain of String.replace calls would.
+ */
+public class Template {
+
+    private final String name;
+
+    private final String text;
+
+    private final int[] placeholderStarts;
+
+    private final int[] placeholderEnds;
+
+    private final String[] placeholders;
+
+    private final Set<String> placeholderNames;
+
+    private Template(String name, String text, int[] placeholderStarts, int[] placeholderEnds) {
+        this.name = name;
+        this.text = text;
+        this.placeholderStarts = placeholderStarts;
+        this.placeholderEnds = placeholderEnds;
+
+        this.placeholders = new String[placeholderStarts.length];
+
+        for (int index = 0; index < placeholderStarts.length; index++) {
+            placeholders[index] = text.substring(placeholderStarts[index] + 1, placeholderEnds[index]);
+        }
+
+        this.placeholderNames = Collections.unmodifiableSet(new LinkedHashSet<>(Arrays.asList(placeholders)));
+    }
+
+    public static Template parse(String name, String text) {
+
+        Objects.requireNonNull(text, "text");
+
+        List<int[]> positions = new ArrayList<>();
+
+        int start = text.indexOf('%');
+
+        while (start >= 0) {
+
+            int end = start + 1;
+
+            while (end < text.length() && isNameChar(text.charAt(end))) {
+                end++;
+            }
+
+            if (end < text.length() && end > start + 1 && text.charAt(end) == '%') {
+                positions.add(new int[]{start, end});
+            }
+
+            start = text.indexOf('%', start + 1);
+        }
+
+        int[] starts = new int[positions.size()];
+        int[] ends = new int[positions.size()];
+
+        for (int index = 0; index < positions.size(); index++) {
+            starts[index] = positions.get(index)[0];
+            ends[index] = positions.get(index)[1];
+        }
+
+        return new Template(name, text, starts, ends);
+    }
+
+    static boolean isNameChar(char c) {
+
+        return Character.isLetterOrDigit(c) || c == '_' || c == '.' || c == '-';
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    public Set<String> getPlaceholderNames() {
+        return placeholderNames;
+    }
+
+    public int getPlaceholderCount() {
+        return placeholderStarts.length;
+    }
+
+    public boolean hasPlaceholder(String placeholderName) {
+        return placeholderNames.contains(placeholderName);
+    }
+
+    /**
+     * Render the template in a single pass straight into the given buffer.
+     *
+     * @param context may not be null
+     * @param buffer  may not be null
+     */
+    public void render(VariableContext context, StringBuilder buffer) {
+
+        render(context, (Appendable) buffer);
+    }
+
+    /**
+     * Render the template in a single pass straight into the given target, {@link TemplateFragment} values
+     * write themselves into the target.
+     *
+     * @param context may not be null
+     * @param out     may not be null
+     */
+    public void render(VariableContext context, Appendable out) {
+
+        try {
+            int position = 0;
+
+            for (int index = 0; index < placeholderStarts.length; index++) {
+
+                int start = placeholderStarts[index];
+
+                if (start < position) {
+                    continue;
+                }
+
+                Object value = context.resolve(placeholders[index]);
+
+                if (Objects.isNull(value)) {
+                    continue;
+                }
+
+                out.append(text, position, start);
+
+                if (value instanceof TemplateFragment) {
+                    ((TemplateFragment) value).appendTo(out);
+                } else {
+                    out.append(String.valueOf(value));
+                }
+
+                position = placeholderEnds[index] + 1;
+            }
+
+            out.append(text, position, text.length());
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public String render(VariableContext context) {
+
+        StringBuilder buffer = new StringBuilder(text.length() + 64);
+
+        render(context, buffer);
+
+        return buffer.toString();
+    }
+
+    public String render(Map<String, ?> variables) {
+
+        return render(VariableContext.of(variables));
+    }
+
+    @Override
+    public String toString() {
+        return text;
+    }
+}
@@ -0,0 +1,12 @@
+package de.microtema.maven.plugin.github.workflow.template;
+
+import java.io.IOException;
+
+/**
+ * Placeholder value which is written straight into the render target instead of being converted to a String first,
+ * e.g. the jobs of a workflow.
+ */
+public interface TemplateFragment {
+
+    void appendTo(Appendable out) throws IOException;
+}
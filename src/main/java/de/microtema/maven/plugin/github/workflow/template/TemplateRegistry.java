@@ -0,0 +1,203 @@
+package de.microtema.maven.plugin.github.workflow.template;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.StringUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.JarURLConnection;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Enumeration;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Loads every *.template.yaml resource (including npm/ and terraform/) once and keeps
+ * the pre-tokenized {@link Template} for the lifetime of the class loader.
+ */
+public class TemplateRegistry {
+
+    public static final String TEMPLATE_SUFFIX = ".template.yaml";
+
+    private static final String ANCHOR_TEMPLATE = "pipeline" + TEMPLATE_SUFFIX;
+
+    private static volatile TemplateRegistry instance;
+
+    private final ClassLoader classLoader;
+
+    private final Map<String, Template> templates = new ConcurrentHashMap<>();
+
+    private final Map<String, AtomicLong> hits = new ConcurrentHashMap<>();
+
+    private final long loadTimeMillis;
+
+    public TemplateRegistry(ClassLoader classLoader) {
+
+        this.classLoader = classLoader;
+
+        long start = System.nanoTime();
+
+        preload();
+
+        this.loadTimeMillis = (System.nanoTime() - start) / 1_000_000;
+    }
+
+    public static TemplateRegistry getInstance() {
+
+        TemplateRegistry registry = instance;
+
+        if (Objects.isNull(registry)) {
+
+            synchronized (TemplateRegistry.class) {
+
+                registry = instance;
+
+                if (Objects.isNull(registry)) {
+                    registry = new TemplateRegistry(TemplateRegistry.class.getClassLoader());
+                    instance = registry;
+                }
+            }
+        }
+
+        return registry;
+    }
+
+    public Template getTemplate(String templateName) {
+
+        Template template = templates.computeIfAbsent(templateName, this::loadTemplate);
+
+        hits.computeIfAbsent(templateName, it -> new AtomicLong()).incrementAndGet();
+
+        return template;
+    }
+
+    public TemplateRenderer getRenderer(String templateName) {
+
+        return new TemplateRenderer(getTemplate(templateName));
+    }
+
+    public Set<String> getTemplateNames() {
+
+        return new TreeSet<>(templates.keySet());
+    }
+
+    public long getHitCount(String templateName) {
+
+        AtomicLong count = hits.get(templateName);
+
+        return Objects.isNull(count) ? 0 : count.get();
+    }
+
+    public long getLoadTimeMillis() {
+
+        return loadTimeMillis;
+    }
+
+    public String getReport() {
+
+        Map<String, Long> sortedHits = new TreeMap<>();
+
+        templates.keySet().forEach(it -> sortedHits.put(it, getHitCount(it)));
+
+        long totalHits = sortedHits.values().stream().mapToLong(Long::longValue).sum();
+
+        String header = "Template registry: " + templates.size() + " templates loaded in " + loadTimeMillis + " ms, " + totalHits + " hits";
+
+        String lines = sortedHits.entrySet().stream()
+                .map(it -> "  " + it.getKey() + ": " + it.getValue())
+                .collect(Collectors.joining(System.lineSeparator()));
+
+        return StringUtils.isEmpty(lines) ? header : header + System.lineSeparator() + lines;
+    }
+
+    private void preload() {
+
+        URL anchor = classLoader.getResource(ANCHOR_TEMPLATE);
+
+        if (Objects.isNull(anchor)) {
+            return;
+        }
+
+        try {
+            if (StringUtils.equals(anchor.getProtocol(), "file")) {
+                preloadDirectory(Paths.get(anchor.toURI()).getParent());
+            } else if (StringUtils.equals(anchor.getProtocol(), "jar")) {
+                preloadJar(anchor);
+            }
+        } catch (IOException | URISyntaxException e) {
+            // templates are loaded lazily if the class path can not be scanned
+        }
+    }
+
+    private void preloadDirectory(Path rootDir) throws IOException {
+
+        try (Stream<Path> paths = Files.walk(rootDir)) {
+
+            paths.filter(Files::isRegularFile)
+                    .map(it -> rootDir.relativize(it).toString().replace(File.separatorChar, '/'))
+                    .filter(it -> it.endsWith(TEMPLATE_SUFFIX))
+                    .forEach(it -> registerTemplate(StringUtils.removeEnd(it, TEMPLATE_SUFFIX)));
+        }
+    }
+
+    private void preloadJar(URL anchor) throws IOException {
+
+        URLConnection connection = anchor.openConnection();
+
+        if (!(connection instanceof JarURLConnection)) {
+            return;
+        }
+
+        connection.setUseCaches(false);
+
+        try (JarFile jarFile = ((JarURLConnection) connection).getJarFile()) {
+
+            Enumeration<JarEntry> entries = jarFile.entries();
+
+            while (entries.hasMoreElements()) {
+
+                String entryName = entries.nextElement().getName();
+
+                if (entryName.endsWith(TEMPLATE_SUFFIX)) {
+                    registerTemplate(StringUtils.removeEnd(entryName, TEMPLATE_SUFFIX));
+                }
+            }
+        }
+    }
+
+    private void registerTemplate(String templateName) {
+
+        templates.computeIfAbsent(templateName, this::loadTemplate);
+    }
+
+    private Template loadTemplate(String templateName) {
+
+        try (InputStream inputStream = classLoader.getResourceAsStream(templateName + TEMPLATE_SUFFIX)) {
+
+            if (Objects.isNull(inputStream)) {
+                throw new IllegalStateException("Unable to get template: " + templateName);
+            }
+
+            return Template.parse(templateName, IOUtils.toString(inputStream, Charset.defaultCharset()));
+
+        } catch (IOException e) {
+            throw new IllegalStateException("Unable to get template: " + templateName, e);
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package de.microtema.maven.plugin.github.workflow.template;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Short-lived renderer handed out by the {@link TemplateRegistry} for a single job or workflow.
+ * <p>
+ * Values set with {@link #with(String, Object)} form the job layer on top of the given base context,
+ * values set with {@link #overrides(Map)} (e.g. .github/env stage properties) take precedence over the job layer.
+ */
+public class TemplateRenderer {
+
+    private final Template template;
+
+    private final Map<String, Object> variables = new LinkedHashMap<>();
+
+    private final Map<String, Object> overrides = new LinkedHashMap<>();
+
+    private VariableContext context = VariableContext.empty();
+
+    TemplateRenderer(Template template) {
+        this.template = template;
+    }
+
+    public Template getTemplate() {
+        return template;
+    }
+
+    public TemplateRenderer context(VariableContext context) {
+
+        this.context = context;
+
+        return this;
+    }
+
+    public TemplateRenderer with(String name, Object value) {
+
+        variables.put(name, value);
+
+        return this;
+    }
+
+    public TemplateRenderer withAll(Map<String, ?> values) {
+
+        variables.putAll(values);
+
+        return this;
+    }
+
+    public TemplateRenderer overrides(Map<String, ?> values) {
+
+        overrides.putAll(values);
+
+        return this;
+    }
+
+    public VariableContext getVariableContext() {
+
+        return context.with(variables).with(overrides);
+    }
+
+    public void renderTo(StringBuilder buffer) {
+
+        template.render(getVariableContext(), buffer);
+    }
+
+    public void renderTo(Appendable out) {
+
+        template.render(getVariableContext(), out);
+    }
+
+    public String render() {
+
+        return template.render(getVariableContext());
+    }
+}
@@ -0,0 +1,64 @@
+package de.microtema.maven.plugin.github.workflow.template;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Immutable, layered lookup for %PLACEHOLDER% values.
+ * <p>
+ * Each {@link #with(Map)} call returns a new context whose layer takes precedence over all layers below it,
+ * so a workflow context can be shared by every job while job and stage values are stacked on top.
+ */
+public class VariableContext {
+
+    private static final VariableContext EMPTY = new VariableContext(null, Collections.emptyMap());
+
+    private final VariableContext parent;
+
+    private final Map<String, ?> variables;
+
+    private VariableContext(VariableContext parent, Map<String, ?> variables) {
+        this.parent = parent;
+        this.variables = variables;
+    }
+
+    public static VariableContext empty() {
+
+        return EMPTY;
+    }
+
+    public static VariableContext of(Map<String, ?> variables) {
+
+        return EMPTY.with(variables);
+    }
+
+    public VariableContext with(Map<String, ?> layer) {
+
+        if (Objects.isNull(layer) || layer.isEmpty()) {
+            return this;
+        }
+
+        return new VariableContext(this, Collections.unmodifiableMap(new LinkedHashMap<>(layer)));
+    }
+
+    public VariableContext with(String name, Object value) {
+
+        return with(Collections.singletonMap(name, value));
+    }
+
+    public Object resolve(String name) {
+
+        for (VariableContext context = this; Objects.nonNull(context); context = context.parent) {
+
+            Object value = context.variables.get(name);
+
+            if (Objects.nonNull(value)) {
+                return value;
+            }
+        }
+
+        return null;
+    }
+}
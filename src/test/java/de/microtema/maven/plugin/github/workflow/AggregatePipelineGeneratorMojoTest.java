@@ -0,0 +1,154 @@
+package de.microtema.maven.plugin.github.workflow;
+
+import org.apache.maven.project.MavenProject;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.File;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class AggregatePipelineGeneratorMojoTest {
+
+    @InjectMocks
+    AggregatePipelineGeneratorMojo sut;
+
+    @Mock
+    MavenProject rootProject;
+
+    @Mock
+    MavenProject moduleProject;
+
+    @BeforeEach
+    void setUp() {
+
+        sut.reactorProjects = Arrays.asList(rootProject, moduleProject);
+    }
+
+    @Test
+    void getGitRootProjects() {
+
+        when(rootProject.getBasedir()).thenReturn(new File("."));
+        when(moduleProject.getBasedir()).thenReturn(new File("./src"));
+
+        List<MavenProject> answer = sut.getGitRootProjects();
+
+        assertEquals(Collections.singletonList(rootProject), answer);
+    }
+
+    @Test
+    void createMojo() {
+
+        sut.stages.put("dev", "develop");
+        sut.variables.put("JAVA_VERSION", "17.x");
+        sut.runsOn = "self-hosted";
+
+        PipelineGeneratorMojo answer = sut.createMojo(rootProject);
+
+        assertSame(rootProject, answer.project);
+        assertEquals(sut.stages, answer.stages);
+        assertNotSame(sut.variables, answer.variables);
+        assertEquals(sut.variables, answer.variables);
+        assertEquals("self-hosted", answer.runsOn);
+    }
+
+    @Test
+    void createMojoWithEveryParameter() throws IllegalAccessException {
+
+        for (Field field : getParameterFields()) {
+            field.set(sut, getValue(field));
+        }
+
+        PipelineGeneratorMojo answer = sut.createMojo(moduleProject);
+
+        assertSame(moduleProject, answer.project);
+
+        for (Field field : getParameterFields()) {
+
+            if (field.getName().equals("project")) {
+                continue;
+            }
+
+            assertEquals(field.get(sut), field.get(answer), field.getName());
+        }
+    }
+
+    @Test
+    void npmMojoWithEveryParameter() throws IllegalAccessException {
+
+        for (Field field : getParameterFields()) {
+            field.set(sut, getValue(field));
+        }
+
+        when(rootProject.getName()).thenReturn("my-app");
+
+        PipelineGeneratorMojo answer = new NpmPipelineGeneratorMojo(sut);
+
+        for (Field field : getParameterFields()) {
+            assertEquals(field.get(sut), field.get(answer), field.getName());
+        }
+    }
+
+    /**
+     * Every instance field of the generate goal but the internal state of an execution.
+     */
+    private static List<Field> getParameterFields() {
+
+        List<String> internalFields = Arrays.asList("workflowFilePostFixName", "fingerprintFileName", "appName", "workflowWriter");
+
+        List<Field> fields = new ArrayList<>();
+
+        for (Field field : PipelineGeneratorMojo.class.getDeclaredFields()) {
+
+            if (Modifier.isStatic(field.getModifiers()) || Modifier.isFinal(field.getModifiers()) || internalFields.contains(field.getName())) {
+                continue;
+            }
+
+            field.setAccessible(true);
+
+            fields.add(field);
+        }
+
+        return fields;
+    }
+
+    private Object getValue(Field field) {
+
+        Class<?> type = field.getType();
+
+        if (type == boolean.class) {
+            return true;
+        }
+
+        if (type == int.class) {
+            return 3;
+        }
+
+        if (type == String.class) {
+            return field.getName() + "-value";
+        }
+
+        if (type == File.class) {
+            return new File(field.getName());
+        }
+
+        if (type == Map.class) {
+            return new LinkedHashMap<>(Collections.singletonMap(field.getName(), "value"));
+        }
+
+        if (type == MavenProject.class) {
+            return rootProject;
+        }
+
+        throw new IllegalStateException("Unsupported parameter type " + type + " of " + field.getName());
+    }
+}
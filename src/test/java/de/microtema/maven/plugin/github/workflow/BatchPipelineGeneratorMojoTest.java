@@ -0,0 +1,190 @@
+package de.microtema.maven.plugin.github.workflow;
+
+import org.apache.maven.project.MavenProject;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BatchPipelineGeneratorMojoTest {
+
+    @TempDir
+    Path rootDir;
+
+    BatchPipelineGeneratorMojo sut;
+
+    @BeforeEach
+    void setUp() throws IOException {
+
+        sut = new BatchPipelineGeneratorMojo();
+
+        sut.repositoriesDir = rootDir.toFile();
+        sut.localRepository = rootDir.resolve("m2").toFile();
+
+        // parent pom at the default relative path of the repositories
+        Files.write(rootDir.resolve("pom.xml"), ("<project>" +
+                "<modelVersion>4.0.0</modelVersion>" +
+                "<groupId>de.microtema</groupId><artifactId>parent</artifactId><version>1.0.0-SNAPSHOT</version><packaging>pom</packaging>" +
+                "<properties><java.version>17.x</java.version></properties>" +
+                "<build><pluginManagement><plugins><plugin>" +
+                "<groupId>de.microtema</groupId><artifactId>github-workflows-maven-plugin</artifactId>" +
+                "<configuration><variables><JAVA_VERSION>${java.version}</JAVA_VERSION></variables></configuration>" +
+                "</plugin></plugins></pluginManagement></build>" +
+                "</project>").getBytes(StandardCharsets.UTF_8));
+
+        createRepository("repo-a", "<stages><develop>develop</develop></stages><runsOn>self-hosted</runsOn>");
+        createRepository("repo-b", "<stages><master>master</master></stages>");
+
+        Files.createDirectories(rootDir.resolve("no-repo"));
+    }
+
+    @Test
+    void getRepositories() {
+
+        assertEquals(Arrays.asList(rootDir.resolve("repo-a").toFile(), rootDir.resolve("repo-b").toFile()), sut.getRepositories());
+    }
+
+    @Test
+    void createMojo() {
+
+        MavenProject project = BatchPipelineGeneratorMojo.readProject(rootDir.resolve("repo-a/pom.xml").toFile(), sut.localRepository);
+
+        PipelineGeneratorMojo answer = sut.createMojo(project);
+
+        assertEquals("repo-a", answer.project.getArtifactId());
+        assertEquals("1.0.0-SNAPSHOT", answer.project.getVersion());
+        assertEquals(rootDir.resolve("repo-a").toFile(), answer.project.getBasedir());
+        assertEquals(Collections.singletonMap("develop", "develop"), answer.stages);
+        assertEquals("self-hosted", answer.runsOn);
+        assertEquals(1, answer.renderThreads);
+        assertEquals(Collections.singletonMap("JAVA_VERSION", "17.x"), answer.variables);
+        assertEquals("17.x", answer.project.getProperties().getProperty("java.version"));
+    }
+
+    @Test
+    void readProjectWithParentFromLocalRepository() throws IOException {
+
+        Path parentDir = Files.createDirectories(rootDir.resolve("m2/de/microtema/parent/1.0.0-SNAPSHOT"));
+
+        Files.move(rootDir.resolve("pom.xml"), parentDir.resolve("parent-1.0.0-SNAPSHOT.pom"));
+
+        MavenProject answer = BatchPipelineGeneratorMojo.readProject(rootDir.resolve("repo-a/pom.xml").toFile(), sut.localRepository);
+
+        assertEquals("17.x", answer.getProperties().getProperty("java.version"));
+    }
+
+    @Test
+    void readProjectWithUnresolvableParent() throws IOException {
+
+        Files.delete(rootDir.resolve("pom.xml"));
+
+        IllegalStateException answer = assertThrows(IllegalStateException.class,
+                () -> BatchPipelineGeneratorMojo.readProject(rootDir.resolve("repo-a/pom.xml").toFile(), sut.localRepository));
+
+        assertEquals("Unable to read " + rootDir.resolve("repo-a/pom.xml").toFile(), answer.getMessage());
+    }
+
+    @Test
+    void createMojoWithEveryParameter() throws IOException {
+
+        createRepository("repo-c", "<variables><JAVA_VERSION>17.x</JAVA_VERSION></variables>" +
+                "<stages><dev>develop</dev></stages>" +
+                "<downStreams><dev>my-e2e</dev></downStreams>" +
+                "<runsOn>self-hosted</runsOn>" +
+                "<runnerLabels><large>large-runner</large></runnerLabels>" +
+                "<jobRunnerClasses><deployment>large</deployment></jobRunnerClasses>" +
+                "<generateRollback>true</generateRollback>" +
+                "<undeploy>true</undeploy>" +
+                "<optimizeNeeds>true</optimizeNeeds>" +
+                "<jobDurations><compile>4</compile></jobDurations>" +
+                "<timingFile>timings.properties</timingFile>" +
+                "<unitTestShards>3</unitTestShards>" +
+                "<testTimings>target/surefire-reports</testTimings>" +
+                "<systemTestMatrix>true</systemTestMatrix>" +
+                "<systemTestMaxParallel>2</systemTestMaxParallel>" +
+                "<systemTestFailFast>true</systemTestFailFast>" +
+                "<compileOnce>true</compileOnce>" +
+                "<changedModules>true</changedModules>" +
+                "<pathFilters>true</pathFilters>" +
+                "<dockerCache>registry</dockerCache>" +
+                "<concurrency>true</concurrency>");
+
+        sut.force = true;
+        sut.pluginVersion = "2.0.0";
+
+        PipelineGeneratorMojo answer = sut.createMojo(BatchPipelineGeneratorMojo.readProject(rootDir.resolve("repo-c/pom.xml").toFile(), sut.localRepository));
+
+        assertEquals(Collections.singletonMap("JAVA_VERSION", "17.x"), answer.variables);
+        assertEquals(Collections.singletonMap("dev", "develop"), answer.stages);
+        assertEquals(Collections.singletonMap("dev", "my-e2e"), answer.downStreams);
+        assertEquals("self-hosted", answer.runsOn);
+        assertEquals(Collections.singletonMap("large", "large-runner"), answer.runnerLabels);
+        assertEquals(Collections.singletonMap("deployment", "large"), answer.jobRunnerClasses);
+        assertTrue(answer.generateRollback);
+        assertTrue(answer.undeploy);
+        assertEquals(1, answer.renderThreads);
+        assertTrue(answer.optimizeNeeds);
+        assertEquals(Collections.singletonMap("compile", "4"), answer.jobDurations);
+        assertEquals(rootDir.resolve("repo-c/timings.properties").toFile(), answer.timingFile);
+        assertEquals(3, answer.unitTestShards);
+        assertEquals(rootDir.resolve("repo-c/target/surefire-reports").toFile(), answer.testTimings);
+        assertTrue(answer.systemTestMatrix);
+        assertEquals(2, answer.systemTestMaxParallel);
+        assertTrue(answer.systemTestFailFast);
+        assertTrue(answer.compileOnce);
+        assertTrue(answer.changedModules);
+        assertTrue(answer.pathFilters);
+        assertEquals("registry", answer.dockerCache);
+        assertTrue(answer.concurrency);
+        assertTrue(answer.force);
+        assertEquals("2.0.0", answer.pluginVersion);
+    }
+
+    @Test
+    void execute() {
+
+        sut.execute();
+
+        assertTrue(rootDir.resolve("repo-a/.github/workflows/develop-workflow.yaml").toFile().exists());
+        assertTrue(rootDir.resolve("repo-b/.github/workflows/master-workflow.yaml").toFile().exists());
+    }
+
+    @Test
+    void executeWillReportFailedRepositories() throws IOException {
+
+        Files.write(rootDir.resolve("repo-b/pom.xml"), "<project>".getBytes(StandardCharsets.UTF_8));
+
+        IllegalStateException answer = assertThrows(IllegalStateException.class, sut::execute);
+
+        assertEquals("1 of 2 repositories failed: repo-b", answer.getMessage());
+        assertTrue(rootDir.resolve("repo-a/.github/workflows/develop-workflow.yaml").toFile().exists());
+    }
+
+    private void createRepository(String name, String configuration) throws IOException {
+
+        Path repository = Files.createDirectories(rootDir.resolve(name));
+
+        Files.createDirectories(repository.resolve(".git"));
+
+        String pom = "<project>" +
+                "<modelVersion>4.0.0</modelVersion>" +
+                "<parent><groupId>de.microtema</groupId><artifactId>parent</artifactId><version>1.0.0-SNAPSHOT</version></parent>" +
+                "<artifactId>" + name + "</artifactId>" +
+                "<build><plugins><plugin>" +
+                "<groupId>de.microtema</groupId><artifactId>github-workflows-maven-plugin</artifactId>" +
+                "<configuration>" + configuration + "</configuration>" +
+                "</plugin></plugins></build>" +
+                "</project>";
+
+        Files.write(repository.resolve("pom.xml"), pom.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,62 @@
+package de.microtema.maven.plugin.github.workflow;
+
+import de.microtema.maven.plugin.github.workflow.model.WorkflowEstimate;
+import org.apache.maven.project.MavenProject;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class EstimatePipelineGeneratorMojoTest {
+
+    @InjectMocks
+    EstimatePipelineGeneratorMojo sut;
+
+    @Mock
+    MavenProject project;
+
+    @Mock
+    Properties properties;
+
+    @TempDir
+    Path workflowsDir;
+
+    @BeforeEach
+    void setUp() {
+
+        sut.project = project;
+
+        sut.githubWorkflowsDir = workflowsDir.resolve("workflows").toString();
+
+        sut.runsOn = "self-hosted,azure-runners";
+    }
+
+    @Test
+    void getEstimates() {
+
+        when(project.getBasedir()).thenReturn(new File("."));
+        when(project.getName()).thenReturn("github-workflows-maven-plugin Maven Mojo");
+        when(project.getArtifactId()).thenReturn("github-workflows-maven-plugin");
+        when(project.getProperties()).thenReturn(properties);
+
+        sut.stages.put("dev", "develop");
+
+        List<WorkflowEstimate> answer = sut.getEstimates();
+
+        assertEquals(1, answer.size());
+        assertTrue(answer.get(0).toString().contains("develop-workflow.yaml"), answer.get(0).toString());
+        assertFalse(workflowsDir.resolve("workflows").toFile().exists());
+    }
+}
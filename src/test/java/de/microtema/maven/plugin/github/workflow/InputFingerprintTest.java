@@ -0,0 +1,81 @@
+package de.microtema.maven.plugin.github.workflow;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InputFingerprintTest {
+
+    @TempDir
+    Path rootDir;
+
+    File workflowsDir;
+
+    File fingerprintFile;
+
+    InputFingerprint sut;
+
+    @BeforeEach
+    void setUp() throws IOException {
+
+        workflowsDir = Files.createDirectories(rootDir.resolve(".github/workflows")).toFile();
+        fingerprintFile = rootDir.resolve("target/github-workflows.fingerprint").toFile();
+
+        Files.createFile(workflowsDir.toPath().resolve("develop-workflow.yaml"));
+
+        sut = new InputFingerprint().add("stages", Collections.singletonMap("dev", "develop"));
+    }
+
+    @Test
+    void matchesStoredFingerprint() {
+
+        assertFalse(sut.matches(fingerprintFile, workflowsDir, "-workflow.yaml"));
+
+        sut.store(fingerprintFile, workflowsDir, "-workflow.yaml");
+
+        assertTrue(sut.matches(fingerprintFile, workflowsDir, "-workflow.yaml"));
+    }
+
+    @Test
+    void changedInputs() {
+
+        sut.store(fingerprintFile, workflowsDir, "-workflow.yaml");
+
+        InputFingerprint answer = new InputFingerprint().add("stages", Collections.singletonMap("dev", "feature/*"));
+
+        assertFalse(answer.matches(fingerprintFile, workflowsDir, "-workflow.yaml"));
+    }
+
+    @Test
+    void changedFile() throws IOException {
+
+        File pomFile = Files.write(rootDir.resolve("pom.xml"), "<project/>".getBytes(StandardCharsets.UTF_8)).toFile();
+
+        sut.addFile("pom", pomFile).store(fingerprintFile, workflowsDir, "-workflow.yaml");
+
+        Files.write(pomFile.toPath(), "<project><build><plugins><plugin><artifactId>jib-maven-plugin</artifactId></plugin></plugins></build></project>".getBytes(StandardCharsets.UTF_8));
+
+        InputFingerprint answer = new InputFingerprint().add("stages", Collections.singletonMap("dev", "develop")).addFile("pom", pomFile);
+
+        assertFalse(answer.matches(fingerprintFile, workflowsDir, "-workflow.yaml"));
+    }
+
+    @Test
+    void deletedWorkflowFile() {
+
+        sut.store(fingerprintFile, workflowsDir, "-workflow.yaml");
+
+        assertTrue(new File(workflowsDir, "develop-workflow.yaml").delete());
+
+        assertFalse(sut.matches(fingerprintFile, workflowsDir, "-workflow.yaml"));
+    }
+}
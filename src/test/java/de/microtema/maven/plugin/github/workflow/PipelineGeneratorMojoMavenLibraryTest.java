@@ -5,17 +5,23 @@ import org.apache.maven.project.MavenProject;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Properties;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -53,6 +59,53 @@ class PipelineGeneratorMojoMavenLibraryTest {
         assertEquals("${KUBERNETES_VERSION:-1.11}", answer);
     }
 
+    @Test
+    void executeSkipsModuleWithoutGitRepo(@TempDir Path moduleDir) {
+
+        when(project.getBasedir()).thenReturn(moduleDir.toFile());
+        when(project.getName()).thenReturn("my-module");
+
+        sut.execute();
+
+        assertFalse(moduleDir.resolve("target").toFile().exists());
+    }
+
+    @Test
+    void getPushPathsWithModules(@TempDir Path rootDir) throws IOException {
+
+        Files.createDirectories(rootDir.resolve("api/src/main/java"));
+        Files.createFile(rootDir.resolve("Dockerfile"));
+
+        when(project.getBasedir()).thenReturn(rootDir.toFile());
+        when(project.getArtifactId()).thenReturn("my-service");
+        when(project.getProperties()).thenReturn(properties);
+        when(project.getModules()).thenReturn(Arrays.asList("./api/", "../shared"));
+
+        sut.pathFilters = true;
+
+        sut.applyDefaultVariables();
+
+        assertEquals("\n    paths:\n      - '.github/**'\n      - 'src/**'\n      - 'pom.xml'\n      - 'Dockerfile'\n      - 'api/**'", sut.getPushPaths());
+    }
+
+    @Test
+    void getPushPathsWithConfiguredCodePaths(@TempDir Path rootDir) throws IOException {
+
+        Files.createFile(rootDir.resolve("Dockerfile"));
+
+        when(project.getBasedir()).thenReturn(rootDir.toFile());
+        when(project.getArtifactId()).thenReturn("my-service");
+        when(project.getProperties()).thenReturn(properties);
+
+        sut.pathFilters = true;
+        sut.variables.put("CODE_PATHS", "app/** pom.xml");
+
+        sut.applyDefaultVariables();
+
+        assertEquals("app/** pom.xml", sut.defaultVariables.get("CODE_PATHS"));
+        assertEquals("\n    paths:\n      - 'app/**'\n      - 'pom.xml'", sut.getPushPaths());
+    }
+
     @Test
     void generateDevelopWorkflowFile() throws Exception {
 
@@ -0,0 +1,40 @@
+package de.microtema.maven.plugin.github.workflow;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class WorkflowOutputTest {
+
+    AtomicReference<byte[]> content = new AtomicReference<>();
+
+    @Test
+    void removeEmptyLines() throws IOException {
+
+        String pipeline = "\nname: develop\n\n  \njobs:\n  compile:\n    run: mvn compile\n\n";
+
+        try (WorkflowOutput sut = new WorkflowOutput(false, content::set)) {
+            sut.append(pipeline);
+        }
+
+        String answer = new String(content.get(), Charset.defaultCharset());
+
+        assertEquals(PipelineGeneratorUtil.removeEmptyLines(pipeline) + System.lineSeparator(), answer);
+    }
+
+    @Test
+    void replaceMavenWithWrapper() throws IOException {
+
+        try (WorkflowOutput sut = new WorkflowOutput(true, content::set)) {
+            sut.append("jobs:\n").append("  compile:\n").append("    run: mvn compile");
+        }
+
+        String answer = new String(content.get(), Charset.defaultCharset());
+
+        assertEquals("jobs:\n  compile:\n    run: ./mvnw compile" + System.lineSeparator(), answer);
+    }
+}
@@ -0,0 +1,52 @@
+package de.microtema.maven.plugin.github.workflow;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WorkflowRenderExecutorTest {
+
+    @Test
+    void invokeAll() {
+
+        Set<Integer> answer = ConcurrentHashMap.newKeySet();
+
+        List<Runnable> tasks = new ArrayList<>();
+
+        for (int index = 0; index < 10; index++) {
+            int value = index;
+            tasks.add(() -> answer.add(value));
+        }
+
+        WorkflowRenderExecutor.invokeAll(tasks, 4);
+
+        assertEquals(10, answer.size());
+    }
+
+    @Test
+    void invokeAllWillRethrowTaskException() {
+
+        List<Runnable> tasks = Arrays.asList(() -> {
+        }, () -> {
+            throw new IllegalStateException("boom");
+        });
+
+        IllegalStateException answer = assertThrows(IllegalStateException.class, () -> WorkflowRenderExecutor.invokeAll(tasks, 2));
+
+        assertEquals("boom", answer.getMessage());
+    }
+
+    @Test
+    void getThreads() {
+
+        assertEquals(1, WorkflowRenderExecutor.getThreads(1, 0));
+        assertEquals(2, WorkflowRenderExecutor.getThreads(5, 2));
+        assertEquals(3, WorkflowRenderExecutor.getThreads(3, 8));
+    }
+}
@@ -0,0 +1,113 @@
+package de.microtema.maven.plugin.github.workflow;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledOnOs;
+import org.junit.jupiter.api.condition.OS;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WorkflowWriterTest {
+
+    @TempDir
+    Path rootDir;
+
+    WorkflowWriter sut;
+
+    @BeforeEach
+    void setUp() {
+
+        sut = new WorkflowWriter(rootDir.toFile(), "-workflow.yaml");
+    }
+
+    @Test
+    void writeNewWorkflow() throws IOException {
+
+        boolean answer = sut.write("develop-workflow.yaml", "name: develop");
+
+        assertTrue(answer);
+        assertEquals("name: develop" + System.lineSeparator(), readFile("develop-workflow.yaml"));
+        assertEquals(1, sut.getWritten());
+    }
+
+    @Test
+    @DisabledOnOs(OS.WINDOWS)
+    void writeNewWorkflowWithDefaultPermissions() throws IOException {
+
+        sut.write("develop-workflow.yaml", "name: develop");
+
+        assertEquals("rw-r--r--", PosixFilePermissions.toString(Files.getPosixFilePermissions(rootDir.resolve("develop-workflow.yaml"))));
+    }
+
+    @Test
+    @DisabledOnOs(OS.WINDOWS)
+    void replaceChangedWorkflowKeepsPermissions() throws IOException {
+
+        Path workflowFile = rootDir.resolve("develop-workflow.yaml");
+
+        Files.write(workflowFile, "name: old".getBytes(Charset.defaultCharset()));
+        Files.setPosixFilePermissions(workflowFile, PosixFilePermissions.fromString("rw-rw-r--"));
+
+        sut.write("develop-workflow.yaml", "name: develop");
+
+        assertEquals("rw-rw-r--", PosixFilePermissions.toString(Files.getPosixFilePermissions(workflowFile)));
+    }
+
+    @Test
+    void skipUnchangedWorkflow() throws IOException {
+
+        Path workflowFile = rootDir.resolve("develop-workflow.yaml");
+
+        Files.write(workflowFile, ("name: develop" + System.lineSeparator()).getBytes(Charset.defaultCharset()));
+
+        long lastModified = workflowFile.toFile().lastModified();
+
+        boolean answer = sut.write("develop-workflow.yaml", "name: develop");
+
+        assertFalse(answer);
+        assertEquals(lastModified, workflowFile.toFile().lastModified());
+        assertEquals(1, sut.getUnchanged());
+        assertEquals(0, sut.getWritten());
+    }
+
+    @Test
+    void replaceChangedWorkflow() throws IOException {
+
+        Files.write(rootDir.resolve("develop-workflow.yaml"), "name: old".getBytes(Charset.defaultCharset()));
+
+        boolean answer = sut.write("develop-workflow.yaml", "name: develop");
+
+        assertTrue(answer);
+        assertEquals("name: develop" + System.lineSeparator(), readFile("develop-workflow.yaml"));
+    }
+
+    @Test
+    void removeStaleWorkflows() throws IOException {
+
+        Files.createFile(rootDir.resolve("develop-workflow.yaml"));
+        Files.createFile(rootDir.resolve("feature-workflow.yaml"));
+        Files.createFile(rootDir.resolve("custom.yaml"));
+
+        sut.write("develop-workflow.yaml", "name: develop");
+
+        sut.removeStaleWorkflows();
+
+        assertTrue(new File(rootDir.toFile(), "develop-workflow.yaml").exists());
+        assertFalse(new File(rootDir.toFile(), "feature-workflow.yaml").exists());
+        assertTrue(new File(rootDir.toFile(), "custom.yaml").exists());
+        assertEquals("Workflows: 1 written, 0 unchanged, 1 removed", sut.getSummary());
+    }
+
+    private String readFile(String fileName) throws IOException {
+
+        return new String(Files.readAllBytes(rootDir.resolve(fileName)), Charset.defaultCharset());
+    }
+}
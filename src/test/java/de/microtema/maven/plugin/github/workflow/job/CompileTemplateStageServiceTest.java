@@ -0,0 +1,147 @@
+package de.microtema.maven.plugin.github.workflow.job;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
+import de.microtema.maven.plugin.github.workflow.PipelineGeneratorMojo;
+import de.microtema.maven.plugin.github.workflow.PipelineGeneratorUtil;
+import de.microtema.maven.plugin.github.workflow.model.MetaData;
+import de.microtema.maven.plugin.github.workflow.model.ProjectCache;
+import de.microtema.maven.plugin.github.workflow.template.VariableContext;
+import de.microtema.model.builder.util.FieldInjectionUtil;
+import org.apache.maven.project.MavenProject;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.inject.Inject;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CompileTemplateStageServiceTest {
+
+    @Inject
+    CompileTemplateStageService sut;
+
+    @Mock
+    PipelineGeneratorMojo mojo;
+
+    @Mock
+    MavenProject project;
+
+    @TempDir
+    Path rootDir;
+
+    @BeforeEach
+    void setUp() {
+
+        FieldInjectionUtil.injectFields(this);
+    }
+
+    @Test
+    void getCaches() {
+
+        when(mojo.getProject()).thenReturn(project);
+        when(project.getBasedir()).thenReturn(new File("."));
+        when(project.getModules()).thenReturn(Arrays.asList("api", "service"));
+
+        List<ProjectCache> answer = sut.getCaches(mojo, new MetaData());
+
+        assertEquals(1, answer.size());
+
+        ProjectCache projectCache = answer.get(0);
+
+        assertEquals("maven", projectCache.getName());
+        assertEquals(Collections.singletonList("~/.m2/repository"), projectCache.getPaths());
+        assertEquals("${{ runner.os }}-maven-${{ hashFiles('pom.xml', 'api/pom.xml', 'service/pom.xml') }}", projectCache.getKey());
+        assertEquals(Collections.singletonList("${{ runner.os }}-maven-"), projectCache.getRestoreKeys());
+    }
+
+    @Test
+    void getTemplateWithChangedModules() throws IOException {
+
+        Map<String, Object> variables = new HashMap<>();
+
+        variables.put("RUNS_ON", "ubuntu-latest");
+        variables.put("POM_ARTIFACT", "'false'");
+
+        MetaData metaData = new MetaData();
+
+        metaData.setBranchName("feature");
+
+        when(mojo.getProject()).thenReturn(project);
+        when(project.getBasedir()).thenReturn(rootDir.toFile());
+        when(project.getModules()).thenReturn(Arrays.asList("api", "service"));
+        when(mojo.isChangedModules()).thenReturn(true);
+        when(mojo.getWorkflowContext(metaData)).thenReturn(VariableContext.of(variables));
+
+        String answer = sut.getTemplate(mojo, metaData);
+
+        JsonNode job = new ObjectMapper(new YAMLFactory()).readTree(answer).get("compile");
+
+        assertEquals("initialize", job.get("needs").get(1).asText());
+        assertEquals("mvn compile" + MavenTemplateStageService.CHANGED_MODULES + " $MAVEN_CLI_OPTS", job.get("steps").get(job.get("steps").size() - 1).get("run").asText());
+    }
+
+    @Test
+    void getChangedModulesSteps() {
+
+        MetaData metaData = new MetaData();
+
+        metaData.setBranchName("develop");
+
+        when(project.getBasedir()).thenReturn(rootDir.toFile());
+        when(project.getModules()).thenReturn(Arrays.asList("./api", "service.impl/", "lib+(x)", "../shared"));
+
+        String answer = PipelineGeneratorUtil.getChangedModulesSteps(project, metaData);
+
+        assertTrue(answer.startsWith("\n    - name: 'Git: changed modules'"));
+        assertTrue(answer.contains("git fetch --no-tags --depth=100 origin master"));
+        assertTrue(answer.contains("grep -qE '(^|/)pom\\.xml$|^\\.mvn/'"));
+        assertTrue(answer.contains("grep -oE '^(api|service\\.impl|lib\\+\\(x\\))/'"), answer);
+    }
+
+    @Test
+    void getCompilePaths() {
+
+        when(project.getBasedir()).thenReturn(rootDir.toFile());
+        when(project.getModules()).thenReturn(Arrays.asList("api", "./service/", "../shared"));
+
+        List<String> answer = PipelineGeneratorUtil.getCompilePaths(project);
+
+        assertEquals(Arrays.asList("pom.xml", "target", "api/pom.xml", "api/target", "service/pom.xml", "service/target"), answer);
+    }
+
+    @Test
+    void getCacheSteps() {
+
+        ProjectCache projectCache = new ProjectCache();
+
+        projectCache.setName("maven");
+        projectCache.setPaths(Arrays.asList("~/.m2/repository", "~/.m2/wrapper"));
+        projectCache.setKey("maven-key");
+        projectCache.setRestoreKeys(Collections.singletonList("maven-"));
+
+        String answer = PipelineGeneratorUtil.getCacheSteps(Collections.singletonList(projectCache));
+
+        assertEquals("    - name: 'Cache: maven'\n" +
+                "      uses: actions/cache@v3\n" +
+                "      with:\n" +
+                "        path: |\n" +
+                "          ~/.m2/repository\n" +
+                "          ~/.m2/wrapper\n" +
+                "        key: maven-key\n" +
+                "        restore-keys: |\n" +
+                "          maven-", answer);
+    }
+}
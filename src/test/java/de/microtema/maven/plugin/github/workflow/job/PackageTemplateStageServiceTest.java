@@ -0,0 +1,175 @@
+package de.microtema.maven.plugin.github.workflow.job;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
+import de.microtema.maven.plugin.github.workflow.PipelineGeneratorMojo;
+import de.microtema.maven.plugin.github.workflow.model.MetaData;
+import de.microtema.maven.plugin.github.workflow.template.VariableContext;
+import org.apache.maven.project.MavenProject;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class PackageTemplateStageServiceTest {
+
+    PackageTemplateStageService sut;
+
+    @Mock
+    BuildTemplateStageService buildTemplateStageService;
+
+    @Mock
+    PipelineGeneratorMojo mojo;
+
+    @Mock
+    MavenProject project;
+
+    @TempDir
+    Path rootDir;
+
+    MetaData metaData = new MetaData();
+
+    Map<String, Object> variables = new HashMap<>();
+
+    @BeforeEach
+    void setUp() throws IOException {
+
+        sut = new PackageTemplateStageService(buildTemplateStageService);
+
+        Files.createDirectories(rootDir.resolve("src/main/java"));
+        Files.createFile(rootDir.resolve("Dockerfile"));
+
+        metaData.setBranchName("develop");
+        metaData.setStageName("dev");
+        metaData.setStageNames(Collections.singletonList("dev"));
+
+        variables.put("RUNS_ON", "ubuntu-latest");
+        variables.put("DOCKER_REGISTRY", "docker.registry.local");
+        variables.put("DOCKER_REGISTRY_USER", "${{ secrets.DOCKER_REGISTRY_USER }}");
+        variables.put("DOCKER_REGISTRY_PASSWORD", "${{ secrets.DOCKER_REGISTRY_PASSWORD }}");
+    }
+
+    @Test
+    void getTemplateWithRegistryCache() throws IOException {
+
+        when(buildTemplateStageService.getJobId()).thenReturn("build");
+        when(mojo.getProject()).thenReturn(project);
+        when(project.getBasedir()).thenReturn(rootDir.toFile());
+        when(mojo.getDockerCache()).thenReturn("registry");
+        when(mojo.getWorkflowContext(metaData)).thenReturn(VariableContext.of(variables));
+
+        JsonNode steps = getSteps(sut.getTemplate(mojo, metaData));
+
+        assertEquals("docker/setup-buildx-action@v2", steps.get(4).get("uses").asText());
+        assertTrue(steps.findValuesAsText("uses").stream().noneMatch(it -> it.startsWith("crazy-max/ghaction-github-runtime")));
+        assertEquals("docker buildx build --load --cache-from type=registry,ref=$DOCKER_REGISTRY/$APP_NAME:buildcache-dev " +
+                "--cache-to type=registry,ref=$DOCKER_REGISTRY/$APP_NAME:buildcache-dev,mode=max -t $DOCKER_REGISTRY/$APP_NAME:$VERSION .", steps.get(6).get("run").asText());
+    }
+
+    @Test
+    void getTemplateWithGhaCache() throws IOException {
+
+        when(buildTemplateStageService.getJobId()).thenReturn("build");
+        when(mojo.getProject()).thenReturn(project);
+        when(project.getBasedir()).thenReturn(rootDir.toFile());
+        when(mojo.getDockerCache()).thenReturn("gha");
+        when(mojo.getWorkflowContext(metaData)).thenReturn(VariableContext.of(variables));
+
+        JsonNode steps = getSteps(sut.getTemplate(mojo, metaData));
+
+        assertEquals("crazy-max/ghaction-github-runtime@v2", steps.get(5).get("uses").asText());
+        assertFalse(steps.get(5).has("if"));
+        assertEquals("docker buildx build --load --cache-from type=gha,scope=$APP_NAME-dev " +
+                "--cache-to type=gha,scope=$APP_NAME-dev,mode=max -t $DOCKER_REGISTRY/$APP_NAME:$VERSION .", steps.get(7).get("run").asText());
+    }
+
+    @Test
+    void getTemplateWithJibModule() throws IOException {
+
+        // service depends on the api SNAPSHOT module of the same reactor
+        Files.createDirectories(rootDir.resolve("api"));
+        Files.write(rootDir.resolve("api/pom.xml"), ("<project><modelVersion>4.0.0</modelVersion><artifactId>api</artifactId>" +
+                "</project>").getBytes(StandardCharsets.UTF_8));
+        Files.createDirectories(rootDir.resolve("service"));
+        Files.write(rootDir.resolve("service/pom.xml"), ("<project><modelVersion>4.0.0</modelVersion><artifactId>service</artifactId>" +
+                "<dependencies><dependency><groupId>de.microtema</groupId><artifactId>api</artifactId><version>1.0.0-SNAPSHOT</version></dependency></dependencies>" +
+                "<build><plugins><plugin><groupId>com.google.cloud.tools</groupId><artifactId>jib-maven-plugin</artifactId></plugin></plugins></build>" +
+                "</project>").getBytes(StandardCharsets.UTF_8));
+
+        when(buildTemplateStageService.getJobId()).thenReturn("build");
+        when(mojo.getProject()).thenReturn(project);
+        when(project.getBasedir()).thenReturn(rootDir.toFile());
+        when(project.getModules()).thenReturn(Arrays.asList("api", "service"));
+        when(mojo.getWorkflowContext(metaData)).thenReturn(VariableContext.of(variables));
+
+        JsonNode steps = getSteps(sut.getTemplate(mojo, metaData));
+
+        assertTrue(steps.findValuesAsText("name").contains("Maven: versions:set"));
+
+        JsonNode installStep = steps.get(steps.size() - 2);
+
+        assertEquals("mvn install -pl service -am -Dmaven.test.skip=true $MAVEN_CLI_OPTS", installStep.get("run").asText());
+
+        JsonNode jibStep = steps.get(steps.size() - 1);
+
+        assertEquals("Jib: build", jibStep.get("name").asText());
+        assertEquals("mvn jib:build -pl service -Djib.containerizingMode=packaged -Dimage=$DOCKER_REGISTRY/$APP_NAME:$VERSION " +
+                "-Djib.to.auth.username=$DOCKER_REGISTRY_USER -Djib.to.auth.password=$DOCKER_REGISTRY_PASSWORD $MAVEN_CLI_OPTS", jibStep.get("run").asText());
+    }
+
+    @Test
+    void getTemplateWithJibModuleInPluginManagement() throws IOException {
+
+        Files.createDirectories(rootDir.resolve("api"));
+        Files.write(rootDir.resolve("api/pom.xml"), ("<project><modelVersion>4.0.0</modelVersion><artifactId>api</artifactId>" +
+                "</project>").getBytes(StandardCharsets.UTF_8));
+        Files.createDirectories(rootDir.resolve("service"));
+        Files.write(rootDir.resolve("service/pom.xml"), ("<project><modelVersion>4.0.0</modelVersion><artifactId>service</artifactId>" +
+                "<build><pluginManagement><plugins><plugin><groupId>com.google.cloud.tools</groupId><artifactId>jib-maven-plugin</artifactId></plugin></plugins></pluginManagement></build>" +
+                "</project>").getBytes(StandardCharsets.UTF_8));
+
+        when(buildTemplateStageService.getJobId()).thenReturn("build");
+        when(mojo.getProject()).thenReturn(project);
+        when(project.getBasedir()).thenReturn(rootDir.toFile());
+        when(project.getModules()).thenReturn(Arrays.asList("api", "service"));
+        when(mojo.getWorkflowContext(metaData)).thenReturn(VariableContext.of(variables));
+
+        JsonNode steps = getSteps(sut.getTemplate(mojo, metaData));
+
+        JsonNode jibStep = steps.get(steps.size() - 1);
+
+        assertTrue(jibStep.get("run").asText().startsWith("mvn jib:build -pl service "));
+    }
+
+    @Test
+    void getTemplateWithUnsupportedCache() {
+
+        when(buildTemplateStageService.getJobId()).thenReturn("build");
+        when(mojo.getProject()).thenReturn(project);
+        when(project.getBasedir()).thenReturn(rootDir.toFile());
+        when(mojo.getDockerCache()).thenReturn("local");
+
+        assertThrows(IllegalStateException.class, () -> sut.getTemplate(mojo, metaData));
+    }
+
+    private static JsonNode getSteps(String template) throws IOException {
+
+        return new ObjectMapper(new YAMLFactory()).readTree(template).get("package").get("steps");
+    }
+}
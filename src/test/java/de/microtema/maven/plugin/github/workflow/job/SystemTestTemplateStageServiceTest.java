@@ -1,18 +1,39 @@
 package de.microtema.maven.plugin.github.workflow.job;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
+import de.microtema.maven.plugin.github.workflow.PipelineGeneratorMojo;
+import de.microtema.maven.plugin.github.workflow.model.MetaData;
+import de.microtema.maven.plugin.github.workflow.template.VariableContext;
 import de.microtema.model.builder.util.FieldInjectionUtil;
+import org.apache.maven.project.MavenProject;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 import javax.inject.Inject;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 
 class SystemTestTemplateStageServiceTest {
 
     @Inject
     SystemTestTemplateStageService sut;
 
+    @TempDir
+    Path rootDir;
+
     @BeforeEach
     void setUp() {
 
@@ -26,4 +47,67 @@ class SystemTestTemplateStageServiceTest {
 
         assertEquals("system-test", answer);
     }
+
+    @Test
+    void getTemplateWithMatrix() throws IOException {
+
+        createFile("src/test/e2e/java/de/microtema/FooE2E.java");
+        createFile("src/test/st/java/de/microtema/FooST.java");
+
+        Map<String, Object> variables = new HashMap<>();
+
+        variables.put("RUNS_ON", "ubuntu-latest");
+        variables.put("API_KEY", "${{ secrets.API_KEY }}");
+        variables.put("SERVICE_URL", "http://localhost:8080");
+        variables.put("AKS_NAMESPACE", "microtema");
+        variables.put("AKS_CREDENTIALS", "${{ secrets.AKS_CREDENTIALS }}");
+        variables.put("AKS_CLUSTER_NAME", "microtema");
+        variables.put("AKS_RESOURCE_GROUP", "microtema");
+
+        MetaData metaData = new MetaData();
+
+        metaData.setBranchName("develop");
+        metaData.setDeployable(true);
+        metaData.setStageNames(Arrays.asList("dev", "stage"));
+
+        MavenProject project = mock(MavenProject.class);
+        PipelineGeneratorMojo mojo = mock(PipelineGeneratorMojo.class);
+
+        when(mojo.getProject()).thenReturn(project);
+        when(project.getBasedir()).thenReturn(rootDir.toFile());
+        when(project.getProperties()).thenReturn(new Properties());
+        when(mojo.isSystemTestMatrix()).thenReturn(true);
+        when(mojo.getSystemTestMaxParallel()).thenReturn(1);
+        when(mojo.getWorkflowContext(metaData)).thenReturn(VariableContext.of(variables));
+
+        String answer = sut.getTemplate(mojo, metaData);
+
+        JsonNode jobs = new ObjectMapper(new YAMLFactory()).readTree(answer);
+
+        assertEquals(2, jobs.size());
+
+        JsonNode job = jobs.get("system-test-dev");
+
+        assertEquals("readiness-dev", job.get("needs").get(0).asText());
+        assertEquals(1, job.get("strategy").get("max-parallel").asInt());
+        assertEquals(false, job.get("strategy").get("fail-fast").asBoolean());
+
+        JsonNode include = job.get("strategy").get("matrix").get("include");
+
+        assertEquals(2, include.size());
+        assertEquals("e2e", include.get(0).get("source-type").asText());
+        assertEquals("E2E", include.get(0).get("test-type").asText());
+        assertEquals("st", include.get(1).get("source-type").asText());
+        assertEquals("ST", include.get(1).get("test-type").asText());
+
+        assertEquals("readiness-stage", jobs.get("system-test-stage").get("needs").get(0).asText());
+    }
+
+    private void createFile(String path) throws IOException {
+
+        File file = rootDir.resolve(path).toFile();
+
+        Files.createDirectories(file.getParentFile().toPath());
+        Files.createFile(file.toPath());
+    }
 }
@@ -0,0 +1,124 @@
+package de.microtema.maven.plugin.github.workflow.job;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
+import de.microtema.maven.plugin.github.workflow.PipelineGeneratorMojo;
+import de.microtema.maven.plugin.github.workflow.model.MetaData;
+import de.microtema.maven.plugin.github.workflow.project.TestTimings;
+import de.microtema.maven.plugin.github.workflow.template.VariableContext;
+import org.apache.maven.project.MavenProject;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class UnitTestTemplateStageServiceTest {
+
+    UnitTestTemplateStageService sut = new UnitTestTemplateStageService();
+
+    @Mock
+    PipelineGeneratorMojo mojo;
+
+    @Mock
+    MavenProject project;
+
+    @TempDir
+    Path rootDir;
+
+    MetaData metaData = new MetaData();
+
+    @BeforeEach
+    void setUp() throws IOException {
+
+        createFile("src/main/java/de/microtema/Foo.java");
+        createFile("src/test/java/de/microtema/ATest.java");
+        createFile("src/test/java/de/microtema/BTest.java");
+        createFile("src/test/java/de/microtema/CTest.java");
+    }
+
+    @Test
+    void getTemplateWithShards() throws IOException {
+
+        Map<String, Object> variables = new HashMap<>();
+
+        variables.put("RUNS_ON", "ubuntu-latest");
+        variables.put("POM_ARTIFACT", "'false'");
+
+        when(mojo.getProject()).thenReturn(project);
+        when(project.getBasedir()).thenReturn(rootDir.toFile());
+        when(project.getProperties()).thenReturn(new Properties());
+        when(mojo.getUnitTestShards()).thenReturn(2);
+        when(mojo.getTestTimings()).thenReturn(TestTimings.empty());
+        when(mojo.getWorkflowContext(metaData)).thenReturn(VariableContext.of(variables));
+
+        String answer = sut.getTemplate(mojo, metaData);
+
+        JsonNode jobs = new ObjectMapper(new YAMLFactory()).readTree(answer);
+
+        JsonNode include = jobs.get("unit-test-shards").get("strategy").get("matrix").get("include");
+
+        assertEquals(2, include.size());
+        assertEquals("de.microtema.ATest,de.microtema.CTest", include.get(0).get("tests").asText());
+        assertEquals("!de.microtema.ATest,!de.microtema.CTest", include.get(1).get("tests").asText());
+        assertEquals("unit-test-shards", jobs.get("unit-test").get("needs").get(0).asText());
+    }
+
+    @Test
+    void getTemplateWithCompileOnce() throws IOException {
+
+        Map<String, Object> variables = new HashMap<>();
+
+        variables.put("RUNS_ON", "ubuntu-latest");
+        variables.put("POM_ARTIFACT", "'false'");
+
+        when(mojo.getProject()).thenReturn(project);
+        when(project.getBasedir()).thenReturn(rootDir.toFile());
+        when(mojo.isCompileOnce()).thenReturn(true);
+        when(mojo.getWorkflowContext(metaData)).thenReturn(VariableContext.of(variables));
+
+        String answer = sut.getTemplate(mojo, metaData);
+
+        JsonNode steps = new ObjectMapper(new YAMLFactory()).readTree(answer).get("unit-test").get("steps");
+
+        List<String> stepNames = new ArrayList<>();
+
+        steps.forEach(it -> stepNames.add(it.get("name").asText()));
+
+        assertFalse(stepNames.contains("Maven: versions:set"));
+        assertEquals(stepNames.indexOf("Artifact: download compile") + 1, stepNames.indexOf("Artifact: extract compile"));
+        assertEquals("mvn test -Dmaven.main.skip=true $MAVEN_CLI_OPTS", steps.get(stepNames.indexOf("Maven: test")).get("run").asText());
+    }
+
+    @Test
+    void getShardsWithoutShards() {
+
+        assertEquals(Collections.emptyList(), sut.getShards(mojo));
+    }
+
+    private void createFile(String path) throws IOException {
+
+        File file = rootDir.resolve(path).toFile();
+
+        Files.createDirectories(file.getParentFile().toPath());
+        Files.createFile(file.toPath());
+    }
+}
@@ -0,0 +1,76 @@
+package de.microtema.maven.plugin.github.workflow.job.terraform;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
+import de.microtema.maven.plugin.github.workflow.PipelineGeneratorMojo;
+import de.microtema.maven.plugin.github.workflow.model.MetaData;
+import de.microtema.maven.plugin.github.workflow.template.VariableContext;
+import org.apache.maven.project.MavenProject;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class UnDeploymentTemplateStageServiceTest {
+
+    UnDeploymentTemplateStageService sut = new UnDeploymentTemplateStageService();
+
+    @Mock
+    PipelineGeneratorMojo mojo;
+
+    @Mock
+    MavenProject project;
+
+    @TempDir
+    Path rootDir;
+
+    MetaData metaData = new MetaData();
+
+    Map<String, String> variables = new HashMap<>();
+
+    @BeforeEach
+    void setUp() throws IOException {
+
+        Files.createDirectories(rootDir.resolve("terraform"));
+        Files.createFile(rootDir.resolve("terraform/main.tf"));
+
+        metaData.setApplicationName("my-app");
+        metaData.setBranchName("develop");
+        metaData.setStageName("dev");
+        metaData.setStageNames(Collections.singletonList("dev"));
+
+        variables.put("AWS_REGION", "eu-central-1");
+        variables.put("AWS_ACCESS_KEY_ID", "${{ secrets.AWS_ACCESS_KEY_ID }}");
+        variables.put("AWS_SECRET_ACCESS_KEY", "${{ secrets.AWS_SECRET_ACCESS_KEY }}");
+    }
+
+    @Test
+    void getTemplate() throws IOException {
+
+        when(mojo.isUnDeploy()).thenReturn(true);
+        when(mojo.getProject()).thenReturn(project);
+        when(project.getBasedir()).thenReturn(rootDir.toFile());
+        when(mojo.getWorkflowContext(metaData)).thenReturn(VariableContext.of(variables));
+
+        JsonNode steps = new ObjectMapper(new YAMLFactory()).readTree(sut.getTemplate(mojo, metaData)).get("undeploy").get("steps");
+
+        JsonNode destroyStep = steps.get(steps.size() - 1);
+
+        assertEquals("Terraform Destroy", destroyStep.get("name").asText());
+        assertEquals("mkdir -p $TF_PLUGIN_CACHE_DIR\nterraform destroy\n", destroyStep.get("run").asText());
+    }
+}
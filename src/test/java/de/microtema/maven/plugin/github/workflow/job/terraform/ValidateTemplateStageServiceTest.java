@@ -0,0 +1,89 @@
+package de.microtema.maven.plugin.github.workflow.job.terraform;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
+import de.microtema.maven.plugin.github.workflow.PipelineGeneratorMojo;
+import de.microtema.maven.plugin.github.workflow.model.MetaData;
+import de.microtema.maven.plugin.github.workflow.template.VariableContext;
+import org.apache.maven.project.MavenProject;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ValidateTemplateStageServiceTest {
+
+    ValidateTemplateStageService sut = new ValidateTemplateStageService();
+
+    @Mock
+    PipelineGeneratorMojo mojo;
+
+    @Mock
+    MavenProject project;
+
+    @TempDir
+    Path rootDir;
+
+    MetaData metaData = new MetaData();
+
+    @BeforeEach
+    void setUp() throws IOException {
+
+        Files.createDirectories(rootDir.resolve("terraform"));
+
+        metaData.setApplicationName("my-app");
+        metaData.setBranchName("develop");
+        metaData.setStageName("dev");
+        metaData.setStageNames(Collections.singletonList("dev"));
+    }
+
+    @Test
+    void getTemplate() throws IOException {
+
+        when(mojo.getProject()).thenReturn(project);
+        when(project.getBasedir()).thenReturn(rootDir.toFile());
+        when(mojo.getWorkflowContext(metaData)).thenReturn(VariableContext.of(Collections.emptyMap()));
+
+        JsonNode job = new ObjectMapper(new YAMLFactory()).readTree(sut.getTemplate(mojo, metaData)).get("validate");
+
+        assertEquals("${{ github.workspace }}/.terraform.d/plugin-cache", job.get("env").get("TF_PLUGIN_CACHE_DIR").asText());
+
+        JsonNode cacheStep = job.get("steps").get(1);
+
+        assertEquals("Cache: terraform", cacheStep.get("name").asText());
+        assertEquals("${{ env.TF_PLUGIN_CACHE_DIR }}\nterraform/.terraform\n", cacheStep.get("with").get("path").asText());
+        assertEquals("${{ runner.os }}-terraform-develop-${{ hashFiles('terraform/.terraform.lock.hcl', 'terraform/**/*.tf', '!terraform/.terraform/**') }}", cacheStep.get("with").get("key").asText());
+    }
+
+    @Test
+    void getTemplateWithStageWorkingDirectory() throws IOException {
+
+        Files.createDirectories(rootDir.resolve(".github/env"));
+        Files.write(rootDir.resolve(".github/env/.dev"), "WORKING_DIRECTORY=./infra/aws\n".getBytes(StandardCharsets.UTF_8));
+
+        when(mojo.getProject()).thenReturn(project);
+        when(project.getBasedir()).thenReturn(rootDir.toFile());
+        when(mojo.getWorkflowContext(metaData)).thenReturn(VariableContext.of(Collections.emptyMap()));
+
+        JsonNode job = new ObjectMapper(new YAMLFactory()).readTree(sut.getTemplate(mojo, metaData)).get("validate");
+
+        JsonNode cacheStep = job.get("steps").get(1);
+
+        assertEquals("${{ env.TF_PLUGIN_CACHE_DIR }}\ninfra/aws/.terraform\n", cacheStep.get("with").get("path").asText());
+        assertEquals("${{ runner.os }}-terraform-develop-${{ hashFiles('infra/aws/.terraform.lock.hcl', 'infra/aws/**/*.tf', '!infra/aws/.terraform/**') }}", cacheStep.get("with").get("key").asText());
+        assertEquals("./infra/aws", job.get("steps").get(4).get("working-directory").asText());
+    }
+}
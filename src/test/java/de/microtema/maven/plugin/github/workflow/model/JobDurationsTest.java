@@ -0,0 +1,58 @@
+package de.microtema.maven.plugin.github.workflow.model;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class JobDurationsTest {
+
+    JobDurations sut = new JobDurations();
+
+    @TempDir
+    File tempDir;
+
+    @Test
+    void getDuration() {
+
+        assertEquals(3, sut.getDuration("compile"));
+        assertEquals(3, sut.getDuration("deployment-dev"));
+        assertEquals(10, sut.getDuration("system-test-dev"));
+        assertEquals(15, sut.getDuration("performance-test-dev"));
+        assertEquals(JobDurations.DEFAULT_DURATION, sut.getDuration("unknown"));
+    }
+
+    @Test
+    void withDurations() {
+
+        sut.with(Collections.singletonMap("deployment", "7.5"));
+
+        assertEquals(7.5, sut.getDuration("deployment-dev"));
+    }
+
+    @Test
+    void withTimingFile() throws IOException {
+
+        File timingFile = new File(tempDir, "timings.properties");
+
+        Files.write(timingFile.toPath(), "deployment=4\ndeployment-prod=12\n".getBytes(Charset.defaultCharset()));
+
+        sut.with(Collections.singletonMap("deployment", "7.5")).with(timingFile);
+
+        assertEquals(4, sut.getDuration("deployment-dev"));
+        assertEquals(12, sut.getDuration("deployment-prod"));
+    }
+
+    @Test
+    void withInvalidDuration() {
+
+        assertThrows(IllegalStateException.class, () -> sut.with(Collections.singletonMap("compile", "fast")));
+    }
+}
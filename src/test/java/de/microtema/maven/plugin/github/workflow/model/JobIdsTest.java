@@ -0,0 +1,28 @@
+package de.microtema.maven.plugin.github.workflow.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JobIdsTest {
+
+    @Test
+    void hasPrefix() {
+
+        assertTrue(JobIds.hasPrefix("deployment", "deployment"));
+        assertTrue(JobIds.hasPrefix("deployment-dev", "deployment"));
+        assertFalse(JobIds.hasPrefix("deployments", "deployment"));
+        assertFalse(JobIds.hasPrefix(null, "deployment"));
+    }
+
+    @Test
+    void getLongestPrefix() {
+
+        assertEquals("system-test-dev", JobIds.getLongestPrefix("system-test-dev", Arrays.asList("system", "system-test-dev", "system-test")));
+        assertEquals("system-test", JobIds.getLongestPrefix("system-test-prod", Arrays.asList("system", "system-test", "test")));
+        assertNull(JobIds.getLongestPrefix("notification", Arrays.asList("system", "test")));
+        assertNull(JobIds.getLongestPrefix(null, Arrays.asList("system", "test")));
+    }
+}
@@ -0,0 +1,73 @@
+package de.microtema.maven.plugin.github.workflow.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JobRunnersTest {
+
+    JobRunners sut = new JobRunners();
+
+    @Test
+    void getRunnerClass() {
+
+        assertEquals(JobRunners.LARGE, sut.getRunnerClass("compile"));
+        assertEquals(JobRunners.LARGE, sut.getRunnerClass("system-test-dev"));
+        assertEquals(JobRunners.MEDIUM, sut.getRunnerClass("deployment-dev"));
+        assertEquals(JobRunners.SMALL, sut.getRunnerClass("notification"));
+        assertNull(sut.getRunnerClass("unknown"));
+    }
+
+    @Test
+    void withRunnerClasses() {
+
+        sut.withRunnerClasses(Collections.singletonMap("deployment-prod", "large"));
+
+        assertEquals(JobRunners.LARGE, sut.getRunnerClass("deployment-prod"));
+        assertEquals(JobRunners.MEDIUM, sut.getRunnerClass("deployment-dev"));
+    }
+
+    @Test
+    void withLabels() {
+
+        sut.withLabels(Collections.singletonMap("small", "self-hosted ,small"));
+
+        assertEquals("self-hosted, small", sut.getRunsOn("readiness-dev"));
+        assertNull(sut.getRunsOn("compile"));
+    }
+
+    @Test
+    void withLabelsWillThrowOnMissingLabels() {
+
+        assertThrows(IllegalStateException.class, () -> sut.withLabels(Collections.singletonMap("small", " ")));
+    }
+
+    @Test
+    void apply() {
+
+        Map<String, String> labels = new LinkedHashMap<>();
+
+        labels.put("large", "large-runner");
+        labels.put("small", "ubuntu-latest");
+
+        sut.withLabels(labels);
+
+        WorkflowGraph workflowGraph = new WorkflowGraph();
+
+        workflowGraph.addJobs("compile:\n  runs-on: [ self-hosted, azure ]\n  needs: [ ]\n");
+        workflowGraph.addJobs("deployment:\n  runs-on: [ self-hosted, azure ]\n  needs: [ compile ]\n");
+        workflowGraph.addJobs("notification:\n  runs-on: [ self-hosted, azure ]\n  needs: [ deployment ]\n");
+        workflowGraph.addJobs("downstream:\n  runs-on: [ self-hosted ]\n  needs: [ deployment ]\n");
+
+        sut.apply(workflowGraph, "self-hosted, azure");
+
+        assertEquals("  runs-on: [ large-runner ]", workflowGraph.getJobLines("compile").get(1));
+        assertEquals("  runs-on: [ self-hosted, azure ]", workflowGraph.getJobLines("deployment").get(1));
+        assertEquals("  runs-on: [ ubuntu-latest ]", workflowGraph.getJobLines("notification").get(1));
+        assertEquals("  runs-on: [ self-hosted ]", workflowGraph.getJobLines("downstream").get(1));
+    }
+}
@@ -0,0 +1,67 @@
+package de.microtema.maven.plugin.github.workflow.model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WorkflowConcurrencyTest {
+
+    WorkflowConcurrency sut;
+
+    WorkflowGraph workflowGraph;
+
+    @BeforeEach
+    void setUp() {
+
+        sut = new WorkflowConcurrency("my-app", "DEV");
+
+        workflowGraph = new WorkflowGraph();
+
+        workflowGraph.addJobs("compile:\n  needs: [ ]\n  steps:\n    - run: mvn compile\n");
+        workflowGraph.addJobs("db-migration:\n  needs: [ compile ]\n");
+        workflowGraph.addJobs("deployment-stage:\n  if: github.ref == 'refs/heads/release'\n  needs: [ db-migration ]\n  steps:\n    - run: helm upgrade\n");
+        workflowGraph.addJobs("notification:\n  if: always()\n  needs: [ deployment-stage ]\n");
+    }
+
+    @Test
+    void apply() {
+
+        sut.apply(workflowGraph);
+
+        assertEquals(Arrays.asList("compile:", "  needs: [ ]", "  concurrency:", "    group: ${{ github.workflow }}-${{ github.ref }}-compile", "    cancel-in-progress: true", "  steps:", "    - run: mvn compile"),
+                workflowGraph.getJobLines("compile"));
+        assertEquals(Arrays.asList("db-migration:", "  needs: [ compile ]", "  concurrency:", "    group: my-app-dev-deployment", "    cancel-in-progress: false"),
+                workflowGraph.getJobLines("db-migration"));
+        assertEquals(Arrays.asList("deployment-stage:", "  if: github.ref == 'refs/heads/release'", "  needs: [ db-migration ]", "  concurrency:", "    group: my-app-stage-deployment", "    cancel-in-progress: false", "  steps:", "    - run: helm upgrade"),
+                workflowGraph.getJobLines("deployment-stage"));
+        assertEquals(Arrays.asList("notification:", "  if: always()", "  needs: [ deployment-stage ]"),
+                workflowGraph.getJobLines("notification"));
+
+        assertEquals("", sut.getWorkflowConcurrency(workflowGraph));
+    }
+
+    @Test
+    void applyWithoutDeployingJobs() {
+
+        WorkflowGraph graph = new WorkflowGraph();
+
+        graph.addJobs("compile:\n  needs: [ ]\n");
+
+        sut.apply(graph);
+
+        assertEquals(Arrays.asList("compile:", "  needs: [ ]"), graph.getJobLines("compile"));
+        assertEquals("concurrency:\n  group: ${{ github.workflow }}-${{ github.ref }}\n  cancel-in-progress: true", sut.getWorkflowConcurrency(graph));
+    }
+
+    @Test
+    void getDeployingPrefix() {
+
+        assertEquals("deployment", WorkflowConcurrency.getDeployingPrefix("deployment-dev").orElse(null));
+        assertEquals("rollback", WorkflowConcurrency.getDeployingPrefix("rollback").orElse(null));
+        assertFalse(WorkflowConcurrency.getDeployingPrefix("deployments").isPresent());
+        assertFalse(WorkflowConcurrency.getDeployingPrefix("readiness-dev").isPresent());
+    }
+}
@@ -0,0 +1,107 @@
+package de.microtema.maven.plugin.github.workflow.model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class WorkflowEstimatorTest {
+
+    WorkflowEstimator sut;
+
+    WorkflowGraph workflowGraph;
+
+    @BeforeEach
+    void setUp() {
+
+        Map<String, String> durations = new HashMap<>();
+
+        durations.put("compile", "2");
+        durations.put("unit-test", "4.5");
+        durations.put("security-check", "1");
+        durations.put("build", "3");
+
+        sut = new WorkflowEstimator(new JobDurations().with(durations));
+
+        workflowGraph = new WorkflowGraph();
+
+        workflowGraph.addWorkflow("name: develop\n" +
+                "\n" +
+                "on:\n" +
+                "  push:\n" +
+                "\n" +
+                "jobs:\n" +
+                "  compile:\n" +
+                "    runs-on: [ ubuntu-latest ]\n" +
+                "  unit-test:\n" +
+                "    needs: [ compile ]\n" +
+                "  security-check:\n" +
+                "    needs: [ compile ]\n" +
+                "  build:\n" +
+                "    needs: [ unit-test, security-check ]\n");
+    }
+
+    @Test
+    void estimate() {
+
+        WorkflowEstimate answer = sut.estimate("develop-workflow.yaml", workflowGraph);
+
+        assertEquals("develop-workflow.yaml", answer.getWorkflowName());
+        assertEquals(Arrays.asList("compile", "unit-test", "build"), answer.getCriticalPath());
+        assertEquals(9.5, answer.getDuration());
+        assertEquals(11, answer.getRunnerMinutes());
+        assertEquals(2, answer.getMaxConcurrency());
+        assertEquals("develop-workflow.yaml: 10 min critical path (compile -> unit-test -> build), 11 runner minutes, max concurrency 2", answer.toString());
+    }
+
+    @Test
+    void estimateWithMatrix() {
+
+        workflowGraph = new WorkflowGraph();
+
+        workflowGraph.addWorkflow("name: develop\n" +
+                "\n" +
+                "jobs:\n" +
+                "  compile:\n" +
+                "    runs-on: [ ubuntu-latest ]\n" +
+                "  unit-test-shards:\n" +
+                "    needs: [ compile ]\n" +
+                "    strategy:\n" +
+                "      fail-fast: false\n" +
+                "      matrix:\n" +
+                "        include:\n" +
+                "          - shard: 1\n" +
+                "            tests: 'FooTest'\n" +
+                "          - shard: 2\n" +
+                "            tests: 'BarTest'\n" +
+                "          - shard: 3\n" +
+                "            tests: '!FooTest,!BarTest'\n" +
+                "  system-test:\n" +
+                "    needs: [ compile ]\n" +
+                "    strategy:\n" +
+                "      max-parallel: 2\n" +
+                "      matrix:\n" +
+                "        os: [ ubuntu, windows ]\n" +
+                "        java: [ 8, 11, 17 ]\n" +
+                "        exclude:\n" +
+                "          - os: windows\n" +
+                "            java: 8\n" +
+                "  build:\n" +
+                "    needs: [ unit-test-shards, system-test ]\n");
+
+        assertEquals(3, workflowGraph.getMatrixSize("unit-test-shards"));
+        assertEquals(5, workflowGraph.getMatrixSize("system-test"));
+        assertEquals(1, workflowGraph.getMatrixSize("build"));
+
+        WorkflowEstimate answer = sut.estimate("develop-workflow.yaml", workflowGraph);
+
+        assertEquals(Arrays.asList("compile", "system-test", "build"), answer.getCriticalPath());
+        assertEquals(2 + 10 * 3 + 3, answer.getDuration());
+        assertEquals(2 + 3 * 5 + 5 * 10 + 3, answer.getRunnerMinutes());
+        assertEquals(5, answer.getMaxConcurrency());
+    }
+}
@@ -0,0 +1,72 @@
+package de.microtema.maven.plugin.github.workflow.model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WorkflowGraphOptimizerTest {
+
+    WorkflowGraphOptimizer sut;
+
+    WorkflowGraph workflowGraph;
+
+    @BeforeEach
+    void setUp() {
+
+        sut = new WorkflowGraphOptimizer();
+
+        workflowGraph = new WorkflowGraph();
+
+        workflowGraph.addJobs("compile:\n  name: Compile\n  steps:\n    - run: mvn compile\n");
+        workflowGraph.addJobs("security-check:\n  needs: [ compile ]\n");
+        workflowGraph.addJobs("unit-test:\n  needs: [ compile ]\n");
+        workflowGraph.addJobs("quality-gate:\n  needs: [ unit-test ]\n");
+        workflowGraph.addJobs("build:\n  needs: [ quality-gate, security-check ]\n");
+        workflowGraph.addJobs("package:\n  needs: [ build ]\n");
+        workflowGraph.addJobs("deployment:\n  needs: [ package ]\n");
+        workflowGraph.addJobs("readiness:\n  needs: [ deployment, package ]\n  steps:\n    - run: echo ${{ needs.deployment.outputs.runId }}\n");
+        workflowGraph.addJobs("notification:\n  if: always()\n  needs: [ package, readiness ]\n");
+    }
+
+    @Test
+    void optimize() {
+
+        String answer = sut.optimize(workflowGraph, it -> 1);
+
+        assertEquals(Collections.singletonList("compile"), workflowGraph.getNeeds("build"));
+        assertEquals("  needs: [ compile ]", workflowGraph.getJobLines("build").get(1));
+
+        assertEquals(Arrays.asList("security-check", "quality-gate", "build"), workflowGraph.getNeeds("package"));
+        assertEquals(Collections.singletonList("package"), workflowGraph.getNeeds("deployment"));
+        assertEquals(Collections.singletonList("deployment"), workflowGraph.getNeeds("readiness"));
+        assertEquals(Arrays.asList("package", "readiness"), workflowGraph.getNeeds("notification"));
+
+        assertEquals("Critical path before: 8 (compile -> unit-test -> quality-gate -> build -> package -> deployment -> readiness -> notification)\n" +
+                "Critical path after:  7 (compile -> unit-test -> quality-gate -> package -> deployment -> readiness -> notification)", answer);
+    }
+
+    @Test
+    void optimizeWillKeepArtifactProducer() {
+
+        workflowGraph.getJob("unit-test").getProperties().add(new JobProperty("steps", Arrays.asList("steps:", "  - uses: actions/upload-artifact@v2", "    with:", "      name: test-report"), null));
+        workflowGraph.getJob("build").getProperties().add(new JobProperty("steps", Arrays.asList("steps:", "  - uses: actions/download-artifact@v2", "    with:", "      name: test-report"), null));
+
+        sut.optimize(workflowGraph, it -> 1);
+
+        assertEquals(Collections.singletonList("unit-test"), workflowGraph.getNeeds("build"));
+    }
+
+    @Test
+    void isGateJob() {
+
+        assertTrue(WorkflowGraphOptimizer.isGateJob("quality-gate"));
+        assertTrue(WorkflowGraphOptimizer.isGateJob("system-test-dev"));
+        assertTrue(WorkflowGraphOptimizer.isGateJob("unit-test"));
+        assertEquals(false, WorkflowGraphOptimizer.isGateJob("package"));
+    }
+}
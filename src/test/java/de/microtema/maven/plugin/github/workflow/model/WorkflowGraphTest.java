@@ -0,0 +1,146 @@
+package de.microtema.maven.plugin.github.workflow.model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WorkflowGraphTest {
+
+    WorkflowGraph sut;
+
+    @BeforeEach
+    void setUp() {
+
+        sut = new WorkflowGraph();
+
+        sut.addJobs("compile:\n  name: Compile\n  runs-on: [ self-hosted, azure ]\n  needs: [ versioning ]\n  steps:\n\n    - run: mvn compile\n");
+        sut.addJobs("unit-test:\n  name: Unit Test\n  needs: [ compile ]\nbuild:\n  needs: [ compile, unit-test ]\n");
+    }
+
+    @Test
+    void addJobs() {
+
+        assertEquals(Arrays.asList("compile", "unit-test", "build"), sut.getJobs().stream().map(JobData::getId).collect(Collectors.toList()));
+
+        JobData answer = sut.getJob("compile");
+
+        assertEquals("Compile", answer.getName());
+        assertEquals(Arrays.asList("self-hosted", "azure"), answer.getRunsOn());
+        assertEquals(Collections.singletonList("versioning"), answer.getNeeds());
+    }
+
+    @Test
+    void getNeeds() {
+
+        assertEquals(Arrays.asList("compile", "unit-test"), sut.getNeeds("build"));
+        assertEquals(Collections.emptyList(), sut.getNeeds("unknown"));
+    }
+
+    @Test
+    void getDependents() {
+
+        assertEquals(Arrays.asList("unit-test", "build"), sut.getDependents("compile").stream().map(JobData::getId).collect(Collectors.toList()));
+    }
+
+    @Test
+    void setNeedsWithoutNeedsLine() {
+
+        sut.addJobs("initialize:\n  name: Init\n  runs-on: [ ubuntu-latest ]\n  steps:\n    - run: echo\n");
+
+        sut.setNeeds("initialize", Collections.singletonList("changes"));
+
+        assertEquals(Arrays.asList("initialize:", "  name: Init", "  runs-on: [ ubuntu-latest ]", "  needs: [ changes ]", "  steps:", "    - run: echo"), sut.getJobLines("initialize"));
+    }
+
+    @Test
+    void addConditionToMultiLineCondition() {
+
+        sut.addJobs("deployment:\n  needs: [ build ]\n  if: >-\n    github.event_name == 'push'\n    && !cancelled()\n  steps:\n    - run: echo\n");
+
+        sut.addCondition("deployment", "success()");
+
+        assertEquals("(github.event_name == 'push' && !cancelled()) && success()", sut.getCondition("deployment"));
+        assertEquals(Arrays.asList("deployment:", "  needs: [ build ]", "  if: ${{ (github.event_name == 'push' && !cancelled()) && success() }}", "  steps:", "    - run: echo"), sut.getJobLines("deployment"));
+    }
+
+    @Test
+    void setConcurrencyAfterMultiLineNeeds() {
+
+        sut.addJobs("deployment:\n  needs:\n    - build\n  steps:\n    - run: echo\n");
+
+        sut.setConcurrency("deployment", "deployment-dev", false);
+        sut.setConcurrency("deployment", "deployment-prod", true);
+
+        assertEquals(Arrays.asList("deployment:", "  needs:", "    - build", "  concurrency:", "    group: deployment-dev", "    cancel-in-progress: false", "  steps:", "    - run: echo"), sut.getJobLines("deployment"));
+    }
+
+    @Test
+    void mutatorsWithOtherIndentation() {
+
+        sut.addJobs("deployment:\n    runs-on: [ ubuntu-latest ]\n    needs: [ build ]\n    steps:\n      - run: echo\n");
+
+        sut.setNeeds("deployment", Collections.singletonList("package"));
+        sut.addCondition("deployment", "success()");
+        sut.setConcurrency("deployment", "deployment-dev", false);
+        sut.setRunsOn("deployment", Collections.singletonList("large-runner"));
+
+        assertEquals(Arrays.asList("deployment:", "  runs-on: [ large-runner ]", "  needs: [ package ]", "  if: ${{ success() }}", "  concurrency:",
+                "    group: deployment-dev", "    cancel-in-progress: false", "  steps:", "    - run: echo"), sut.getJobLines("deployment"));
+    }
+
+    @Test
+    void addJob() {
+
+        JobData jobData = new JobData();
+
+        jobData.setId("notification");
+        jobData.setName("Notification");
+        jobData.setNeeds(Arrays.asList("compile", "build"));
+        jobData.setCondition("always()");
+
+        sut.addJob(jobData);
+
+        assertEquals(Arrays.asList("notification:", "  name: Notification", "  needs: [ compile, build ]", "  if: ${{ always() }}"), sut.getJobLines("notification"));
+    }
+
+    @Test
+    void getJobLinesOfUnchangedJob() {
+
+        sut.addJobs("deployment:\n  needs:\n    - build\n  if: github.ref == 'refs/heads/develop'\n  concurrency: deployment\n");
+
+        assertEquals(Collections.singletonList("build"), sut.getNeeds("deployment"));
+        assertEquals("github.ref == 'refs/heads/develop'", sut.getCondition("deployment"));
+        assertEquals("deployment", sut.getJob("deployment").getConcurrency().getGroup());
+        assertEquals(Arrays.asList("deployment:", "  needs:", "    - build", "  if: github.ref == 'refs/heads/develop'", "  concurrency: deployment"), sut.getJobLines("deployment"));
+    }
+
+    @Test
+    void mutatorsWillThrowOnUnknownJob() {
+
+        assertThrows(IllegalStateException.class, () -> sut.addCondition("unknown", "success()"));
+    }
+
+    @Test
+    void toYaml() {
+
+        String answer = sut.toYaml(2);
+
+        assertEquals("  compile:\n" +
+                "    name: Compile\n" +
+                "    runs-on: [ self-hosted, azure ]\n" +
+                "    needs: [ versioning ]\n" +
+                "    steps:\n" +
+                "  \n" +
+                "      - run: mvn compile\n" +
+                "  unit-test:\n" +
+                "    name: Unit Test\n" +
+                "    needs: [ compile ]\n" +
+                "  build:\n" +
+                "    needs: [ compile, unit-test ]", answer);
+    }
+}
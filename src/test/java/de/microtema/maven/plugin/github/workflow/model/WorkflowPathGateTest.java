@@ -0,0 +1,90 @@
+package de.microtema.maven.plugin.github.workflow.model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WorkflowPathGateTest {
+
+    WorkflowPathGate sut;
+
+    WorkflowGraph workflowGraph;
+
+    @BeforeEach
+    void setUp() {
+
+        sut = new WorkflowPathGate();
+
+        workflowGraph = new WorkflowGraph();
+
+        workflowGraph.addJobs("initialize:\n  name: Initialize\n");
+        workflowGraph.addJobs("versioning:\n  needs: [ initialize ]\n");
+        workflowGraph.addJobs("compile:\n  needs: [ versioning ]\n  steps:\n    - run: mvn compile\n");
+        workflowGraph.addJobs("build:\n  needs: [ compile ]\n");
+        workflowGraph.addJobs("package:\n  needs: [ build ]\n");
+        workflowGraph.addJobs("deployment-dev:\n  if: github.ref == 'refs/heads/develop'\n  needs: [ package ]\n");
+        workflowGraph.addJobs("system-test-dev:\n  needs: [ deployment-dev ]\n");
+        workflowGraph.addJobs("notification:\n  if: always()\n  needs: [ system-test-dev ]\n");
+    }
+
+    @Test
+    void apply() {
+
+        Set<String> answer = sut.apply(workflowGraph);
+
+        assertEquals(new LinkedHashSet<>(Arrays.asList("compile", "build", "package", "system-test-dev")), answer);
+
+        assertNull(workflowGraph.getCondition("versioning"));
+
+        assertEquals(Arrays.asList("versioning", "initialize"), workflowGraph.getNeeds("compile"));
+        assertEquals(Arrays.asList("compile:", "  needs: [ versioning, initialize ]", "  if: ${{ needs.initialize.outputs.code-changed == 'true' }}", "  steps:", "    - run: mvn compile"),
+                workflowGraph.getJobLines("compile"));
+
+        assertEquals("(github.ref == 'refs/heads/develop') && !failure() && !cancelled() && !contains(needs.*.result, 'cancelled')", workflowGraph.getCondition("deployment-dev"));
+        assertEquals("needs.initialize.outputs.code-changed == 'true'", workflowGraph.getCondition("system-test-dev"));
+        assertEquals("always()", workflowGraph.getCondition("notification"));
+    }
+
+    @Test
+    void applyWithCommitImageTag() {
+
+        sut = new WorkflowPathGate(true);
+
+        Set<String> answer = sut.apply(workflowGraph);
+
+        // a helm only change on master deploys a new image tag, so the image is built again
+        assertEquals(Collections.singleton("system-test-dev"), answer);
+
+        assertNull(workflowGraph.getCondition("compile"));
+        assertNull(workflowGraph.getCondition("package"));
+        assertEquals(Collections.singletonList("build"), workflowGraph.getNeeds("package"));
+        assertEquals("github.ref == 'refs/heads/develop'", workflowGraph.getCondition("deployment-dev"));
+        assertEquals("needs.initialize.outputs.code-changed == 'true'", workflowGraph.getCondition("system-test-dev"));
+    }
+
+    @Test
+    void applyWithoutInitialize() {
+
+        WorkflowGraph graph = new WorkflowGraph();
+
+        graph.addJobs("build:\n  needs: [ ]\n");
+
+        assertEquals(Collections.emptySet(), sut.apply(graph));
+        assertNull(graph.getCondition("build"));
+    }
+
+    @Test
+    void isGated() {
+
+        assertTrue(WorkflowPathGate.isGated("unit-test-shards"));
+        assertTrue(WorkflowPathGate.isGated("package-dev"));
+        assertFalse(WorkflowPathGate.isGated("packages"));
+        assertFalse(WorkflowPathGate.isGated("deployment-dev"));
+    }
+}
@@ -0,0 +1,68 @@
+package de.microtema.maven.plugin.github.workflow.project;
+
+import org.apache.maven.project.MavenProject;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProjectLayoutTest {
+
+    @TempDir
+    Path rootDir;
+
+    @Test
+    void ofProjectsWithSameCoordinates() throws IOException {
+
+        Files.createDirectories(rootDir.resolve("left/helm"));
+        Files.createDirectories(rootDir.resolve("right/terraform"));
+
+        ProjectLayout left = ProjectLayout.of(getProject(rootDir.resolve("left")));
+        ProjectLayout right = ProjectLayout.of(getProject(rootDir.resolve("right")));
+
+        assertTrue(left.exists("helm"));
+        assertFalse(left.exists("terraform"));
+        assertTrue(right.exists("terraform"));
+        assertFalse(right.exists("helm"));
+    }
+
+    @Test
+    void ofSameBasedir() throws IOException {
+
+        Files.createDirectories(rootDir.resolve("app"));
+
+        ProjectLayout layout = ProjectLayout.refresh(getProject(rootDir.resolve("app")));
+
+        assertSame(layout, ProjectLayout.of(getProject(rootDir.resolve("app/../app"))));
+    }
+
+    @Test
+    void release() throws IOException {
+
+        Files.createDirectories(rootDir.resolve("app"));
+
+        MavenProject project = getProject(rootDir.resolve("app"));
+
+        ProjectLayout layout = ProjectLayout.refresh(project);
+
+        ProjectLayout.release(project);
+
+        assertNotSame(layout, ProjectLayout.of(project));
+    }
+
+    private static MavenProject getProject(Path basedir) {
+
+        MavenProject project = new MavenProject();
+
+        project.setGroupId("de.microtema");
+        project.setArtifactId("my-app");
+        project.setVersion("1.0.0");
+        project.setFile(basedir.resolve("pom.xml").toFile());
+
+        return project;
+    }
+}
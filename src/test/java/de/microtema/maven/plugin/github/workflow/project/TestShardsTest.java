@@ -0,0 +1,51 @@
+package de.microtema.maven.plugin.github.workflow.project;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class TestShardsTest {
+
+    @TempDir
+    File tempDir;
+
+    List<String> classNames = Arrays.asList("a.ATest", "a.BTest", "a.CTest", "a.DTest", "a.ETest");
+
+    @Test
+    void planByClassCount() {
+
+        List<List<String>> answer = TestShards.plan(classNames, TestTimings.empty(), 2);
+
+        assertEquals(Arrays.asList(Arrays.asList("a.ATest", "a.CTest", "a.ETest"), Arrays.asList("a.BTest", "a.DTest")), answer);
+    }
+
+    @Test
+    void planByTimings() throws IOException {
+
+        File timingFile = new File(tempDir, "timings.properties");
+
+        Files.write(timingFile.toPath(), "a.ATest=60\na.BTest=20\na.CTest=20\na.DTest=10\n".getBytes(Charset.defaultCharset()));
+
+        List<List<String>> answer = TestShards.plan(classNames, TestTimings.load(timingFile), 2);
+
+        // a.ETest is not measured and counts with the average of 27.5 seconds
+        assertEquals(Arrays.asList(Arrays.asList("a.ATest", "a.DTest"), Arrays.asList("a.BTest", "a.CTest", "a.ETest")), answer);
+    }
+
+    @Test
+    void planWithMoreShardsThanClasses() {
+
+        List<List<String>> answer = TestShards.plan(Arrays.asList("a.ATest", "a.BTest"), TestTimings.empty(), 4);
+
+        assertEquals(Arrays.asList(Collections.singletonList("a.ATest"), Collections.singletonList("a.BTest")), answer);
+    }
+}
@@ -0,0 +1,81 @@
+package de.microtema.maven.plugin.github.workflow.project;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TestSourceIndexTest {
+
+    @TempDir
+    Path rootDir;
+
+    TestSourceIndex sut;
+
+    @BeforeEach
+    void setUp() throws IOException {
+
+        createFile("src/test/java/de/microtema/FooTest.java");
+        createFile("src/test/java/de/microtema/TestBar.java");
+        createFile("src/test/java/de/microtema/FooUtil.java");
+        createFile("src/test/it/java/de/microtema/FooIT.java");
+        createFile("src/test/e2e/java/de/microtema/FooE2E.java");
+        createFile("src/test/st/resources/application.yaml");
+        createFile("module-a/src/test/st/java/de/microtema/FooST.java");
+    }
+
+    @Test
+    void scanRootProject() {
+
+        sut = TestSourceIndex.scan(rootDir.toString(), Collections.emptyList());
+
+        assertEquals(Arrays.asList("e2e", "it"), sut.getSourceSets());
+
+        assertTrue(sut.hasTests("it", "IT"));
+        assertTrue(sut.hasTests("e2e", "E2E"));
+        assertFalse(sut.hasTests("e2e", "IT"));
+        assertFalse(sut.hasTests("st", "ST"));
+    }
+
+    @Test
+    void scanModules() {
+
+        sut = TestSourceIndex.scan(rootDir.toString(), Collections.singletonList("module-a"));
+
+        assertTrue(sut.hasTests("st", "ST"));
+        assertFalse(sut.hasTests("it", "IT"));
+    }
+
+    @Test
+    void getUnitTestClasses() {
+
+        sut = TestSourceIndex.scan(rootDir.toString(), Collections.emptyList());
+
+        assertEquals(Arrays.asList("de.microtema.FooTest", "de.microtema.TestBar"), sut.getUnitTestClasses());
+        assertEquals(Collections.emptyList(), sut.getUnitTestClasses("module-a"));
+    }
+
+    @Test
+    void getTestSuffix() {
+
+        assertEquals("IT", TestSourceIndex.getTestSuffix("FooIT.java"));
+        assertEquals("E2E", TestSourceIndex.getTestSuffix("FooE2E.java"));
+        assertEquals("", TestSourceIndex.getTestSuffix("FooTest.java"));
+        assertNull(TestSourceIndex.getTestSuffix("FooIT.kt"));
+    }
+
+    private void createFile(String path) throws IOException {
+
+        Path file = rootDir.resolve(path);
+
+        Files.createDirectories(file.getParent());
+        Files.createFile(file);
+    }
+}
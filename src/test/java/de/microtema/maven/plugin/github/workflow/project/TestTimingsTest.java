@@ -0,0 +1,61 @@
+package de.microtema.maven.plugin.github.workflow.project;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TestTimingsTest {
+
+    @TempDir
+    File tempDir;
+
+    @Test
+    void loadSurefireReports() throws IOException {
+
+        createFile("module-a/TEST-de.microtema.FooTest.xml", "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n" +
+                "<testsuite xmlns:xsi=\"http://www.w3.org/2001/XMLSchema-instance\" version=\"3.0\" name=\"de.microtema.FooTest\" time=\"1,234.5\" tests=\"2\">\n" +
+                "  <testcase name=\"foo\" classname=\"de.microtema.FooTest\" time=\"0.1\"/>\n" +
+                "</testsuite>\n");
+        createFile("TEST-de.microtema.BarTest.xml", "<testsuite time=\"2.5\" name=\"de.microtema.BarTest\"></testsuite>");
+        createFile("de.microtema.BarTest.txt", "Tests run: 1");
+
+        TestTimings sut = TestTimings.load(tempDir);
+
+        assertEquals(1234.5, sut.getSeconds("de.microtema.FooTest"));
+        assertEquals(2.5, sut.getSeconds("de.microtema.BarTest"));
+        assertNull(sut.getSeconds("de.microtema.BazTest"));
+    }
+
+    @Test
+    void loadProperties() throws IOException {
+
+        File timingFile = createFile("timings.properties", "de.microtema.FooTest = 12\n");
+
+        TestTimings sut = TestTimings.load(timingFile);
+
+        assertEquals(12, sut.getSeconds("de.microtema.FooTest"));
+    }
+
+    @Test
+    void loadInvalidSource() {
+
+        assertTrue(TestTimings.load(null).isEmpty());
+        assertThrows(IllegalStateException.class, () -> TestTimings.load(new File(tempDir, "unknown")));
+    }
+
+    private File createFile(String path, String content) throws IOException {
+
+        File file = new File(tempDir, path);
+
+        Files.createDirectories(file.getParentFile().toPath());
+        Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+
+        return file;
+    }
+}
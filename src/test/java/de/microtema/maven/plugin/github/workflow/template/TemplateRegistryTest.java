@@ -0,0 +1,75 @@
+package de.microtema.maven.plugin.github.workflow.template;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TemplateRegistryTest {
+
+    TemplateRegistry sut;
+
+    @BeforeEach
+    void setUp() {
+
+        sut = new TemplateRegistry(getClass().getClassLoader());
+    }
+
+    @Test
+    void preloadAllTemplates() {
+
+        assertTrue(sut.getTemplateNames().contains("pipeline"));
+        assertTrue(sut.getTemplateNames().contains("npm/build"));
+        assertTrue(sut.getTemplateNames().contains("terraform/initialize"));
+    }
+
+    @Test
+    void getTemplate() {
+
+        Template answer = sut.getTemplate("helm");
+
+        assertTrue(answer.hasPlaceholder("NEEDS"));
+        assertTrue(answer.hasPlaceholder("STAGE_NAME"));
+        assertEquals(1, sut.getHitCount("helm"));
+    }
+
+    @Test
+    void renderKeepsUnresolvedPlaceholders() {
+
+        Template template = Template.parse("test", "date '+%Y%m%d-%H%M%S' -> %STAGE_NAME%");
+
+        String answer = template.render(Collections.singletonMap("STAGE_NAME", "dev"));
+
+        assertEquals("date '+%Y%m%d-%H%M%S' -> dev", answer);
+    }
+
+    @Test
+    void renderOverlappingPlaceholders() {
+
+        Template template = Template.parse("test", "%a%M%b%");
+
+        String answer = template.render(Collections.singletonMap("M", "x"));
+
+        assertEquals("%axb%", answer);
+    }
+
+    @Test
+    void renderStageVariablesOverrideJobVariables() {
+
+        TemplateRenderer renderer = sut.getRenderer("promote")
+                .context(VariableContext.of(Collections.singletonMap("RUNS_ON", "ubuntu-latest")))
+                .with("JOB_ID", "promote")
+                .with("JOB_NAME", "Promote Env")
+                .with("NEEDS", "package")
+                .overrides(Collections.singletonMap("NEEDS", "tag"));
+
+        String answer = renderer.render();
+
+        assertTrue(answer.startsWith("promote:"));
+        assertTrue(answer.contains("runs-on: [ ubuntu-latest ]"));
+        assertTrue(answer.contains("needs: [ tag ]"));
+    }
+}